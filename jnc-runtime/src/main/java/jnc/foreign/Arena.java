@@ -0,0 +1,65 @@
+package jnc.foreign;
+
+import java.nio.charset.Charset;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Allocates memory from large chunks and frees all of it at once when
+ * closed, without tracking each allocation. Memory allocated by an arena is
+ * zeroed, accessing it after the arena is closed throws
+ * {@link IllegalStateException}. The memory is also freed if the arena is
+ * never closed and neither the arena nor any pointer allocated by it is
+ * reachable.
+ *
+ * Allocation from an arena is thread safe, but the accesses are only checked,
+ * not synchronized, with {@link #close()}: closing an arena while another
+ * thread is still accessing its memory may touch freed memory. Close an arena
+ * only after all the threads using it are done with it. The memory of an
+ * arena can't be viewed as a {@link java.nio.ByteBuffer}, which would outlive
+ * the arena.
+ *
+ * @see MemoryManager#newArena()
+ */
+@ParametersAreNonnullByDefault
+public interface Arena extends AutoCloseable {
+
+    /**
+     * @throws IllegalStateException if closed
+     */
+    @Nonnull
+    Pointer allocate(long size);
+
+    /**
+     * @throws IllegalStateException if closed
+     */
+    @Nonnull
+    Pointer allocateWithAlign(long size, long alignment);
+
+    /**
+     * Allocate exact size of memory to put the string and null terminator.
+     *
+     * @throws IllegalStateException if closed
+     */
+    @Nonnull
+    Pointer allocateString(String string, Charset charset);
+
+    /**
+     * Allocate the memory of the struct from this arena.
+     *
+     * @return the struct
+     * @throws IllegalStateException if closed, or the memory of the struct is
+     * already allocated
+     */
+    @Nonnull
+    <T extends Struct> T allocateStruct(T struct);
+
+    boolean isOpen();
+
+    /**
+     * Free all the memory allocated, does nothing if already closed.
+     */
+    @Override
+    void close();
+
+}
@@ -0,0 +1,56 @@
+package jnc.foreign;
+
+/**
+ * Metrics of the cleaner, which frees the native resources of pointers,
+ * libraries and so on after they are garbage collected. The values are read
+ * when the methods are called, and are not consistent with each other.
+ *
+ * @see Foreign#getCleanerStatistics()
+ */
+public interface CleanerStatistics {
+
+    /**
+     * @return count of the registered resources not freed yet, either still
+     * reachable or waiting for the cleaner, see {@link #getQueuedCount()} for
+     * the latter
+     */
+    long getPendingCount();
+
+    /**
+     * @return count of the resources garbage collected and taken from the
+     * reference queue by the cleaner, which are not freed yet. The cleaner
+     * takes all the references queued before each batch, so this is the depth
+     * of the queue as of the last batch.
+     */
+    long getQueuedCount();
+
+    /**
+     * The lag is measured from a reference is taken from the reference
+     * queue, which is at most one batch after it is queued by the garbage
+     * collector, until it is freed. Reading it starts a new period.
+     *
+     * @return the max lag in nanoseconds to free a resource garbage
+     * collected since the last call of this method, or zero if none
+     */
+    long getMaxLagNanos();
+
+    /**
+     * @return count of the resources freed, either after garbage collected
+     * or released explicitly, such as a library closed
+     */
+    long getCleanedCount();
+
+    /**
+     * @return count of the references processed by the last batch of the
+     * cleaner. Equal to the batch size when the references are collected
+     * faster than the cleaner runs.
+     */
+    int getLastBatchSize();
+
+    /**
+     * @return nanoseconds to run the last batch, the last reference of a
+     * batch waits about that long after it is dequeued
+     */
+    long getLastBatchNanos();
+
+}
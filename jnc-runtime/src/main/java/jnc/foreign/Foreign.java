@@ -1,11 +1,13 @@
 package jnc.foreign;
 
 import java.io.Closeable;
+import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import jnc.foreign.enums.TypeAlias;
 import jnc.foreign.spi.ForeignProvider;
+import jnc.foreign.support.StructField;
 import jnc.foreign.support.TypeHandler;
 
 @ParametersAreNonnullByDefault
@@ -35,6 +37,39 @@ public interface Foreign extends Closeable {
     @Nonnull
     MemoryManager getMemoryManager();
 
+    /**
+     * A memory manager which allocates small blocks from size class slabs
+     * with caches striped by thread, instead of one malloc for each allocation.
+     * Pointers allocated by it implement {@link AutoCloseable}, the memory is
+     * recycled once the pointer is closed. Pointers not closed are tracked in
+     * groups of the consecutive allocations of a thread, and are recycled
+     * once the whole group is garbage collected, so a pointer kept reachable
+     * might keep up to 16 KB of the garbage allocated next to it. Close the
+     * pointers to recycle them early. Accessing a closed pointer or its
+     * slices throws {@link IllegalStateException}, but a
+     * {@link Pointer#asByteBuffer buffer} viewing it is not checked and must
+     * not be used after the pointer is closed.
+     */
+    @Nonnull
+    MemoryManager getPooledMemoryManager();
+
     int getLastError();
 
+    /**
+     * Implement an accessor interface of a struct, see
+     * {@link StructAccessors}.
+     *
+     * @param fields fields of the struct by name
+     * @throws IllegalArgumentException if any abstract method of the
+     * interface doesn't match a field
+     */
+    @Nonnull
+    <T> T newStructAccessor(Class<T> accessorInterface, Map<String, StructField> fields);
+
+    /**
+     * Metrics of the cleaner shared by all the pointers and libraries.
+     */
+    @Nonnull
+    CleanerStatistics getCleanerStatistics();
+
 }
@@ -0,0 +1,28 @@
+package jnc.foreign;
+
+/**
+ * Receives the last error ({@code errno} or {@code GetLastError()}) of a
+ * single call. Declare it as the last parameter of a non variadic library
+ * method, it's not passed to the native function, and the last error of the
+ * call is saved here instead of the one read by
+ * {@link Foreign#getLastError()}.
+ *
+ * <pre>{@code
+ * int close(int fd, LastErrorHolder error);
+ * }</pre>
+ *
+ * @author zhanhb
+ */
+public final class LastErrorHolder {
+
+    private int value;
+
+    public int getValue() {
+        return value;
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+    }
+
+}
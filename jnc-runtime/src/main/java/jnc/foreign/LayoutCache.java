@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.foreign;
+
+import jnc.foreign.annotation.Pack;
+import jnc.foreign.exception.InvalidAnnotationException;
+import jnc.foreign.support.LayoutBuilder;
+
+/**
+ * Layout of a struct class. The layout of the first instance which finishes
+ * adding fields is published, later instances reuse the offsets instead of
+ * computing them again. A class whose instances add different fields, such as
+ * a padding or struct array, is marked varying and never cached.
+ *
+ * @author zhanhb
+ */
+final class LayoutCache {
+
+    private static final ClassValue<LayoutCache> CACHES = new ClassValue<LayoutCache>() {
+        @Override
+        protected LayoutCache computeValue(Class<?> type) {
+            return new LayoutCache(type);
+        }
+    };
+
+    static LayoutCache of(Class<?> klass) {
+        return CACHES.get(klass);
+    }
+
+    private final LayoutBuilder.Type layoutType;
+    // zero if not packed
+    private final int pack;
+    private volatile StructLayout layout;
+    private volatile boolean varying;
+
+    private LayoutCache(Class<?> klass) {
+        LayoutBuilder.Type type = Union.class.isAssignableFrom(klass) ? LayoutBuilder.Type.UNION : LayoutBuilder.Type.STRUCT;
+        Pack annotation = klass.getAnnotation(Pack.class);
+        int value = annotation != null ? annotation.value() : 0;
+        if (value != 0) {
+            try {
+                LayoutBuilder.withPack(type, value);
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidAnnotationException(annotation, klass, ex.getMessage());
+            }
+        }
+        this.layoutType = type;
+        this.pack = value;
+    }
+
+    LayoutBuilder newBuilder() {
+        return pack != 0 ? LayoutBuilder.withPack(layoutType, pack) : LayoutBuilder.withoutPack(layoutType);
+    }
+
+    /**
+     * @return the published layout, or null if not present or the class is
+     * varying
+     */
+    StructLayout get() {
+        return layout;
+    }
+
+    /**
+     * @return a recorder for the layout to be published, or null if the class
+     * is varying
+     */
+    StructLayout.Recorder newRecorder() {
+        return varying ? null : new StructLayout.Recorder();
+    }
+
+    void put(StructLayout built) {
+        if (varying) {
+            return;
+        }
+        StructLayout current = layout;
+        if (current == null) {
+            layout = built;
+        } else if (!current.sameFields(built)) {
+            setVarying();
+        }
+    }
+
+    void setVarying() {
+        varying = true;
+        layout = null;
+    }
+
+}
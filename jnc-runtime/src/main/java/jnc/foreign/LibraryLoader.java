@@ -1,6 +1,8 @@
 package jnc.foreign;
 
+import java.lang.reflect.Method;
 import java.util.Objects;
+import java.util.function.ObjLongConsumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -46,6 +48,42 @@ public final class LibraryLoader<T> {
         return this;
     }
 
+    @Nonnull
+    public LibraryLoader<T> ignoreLastError() {
+        loadOptionsBuilder.ignoreLastError();
+        return this;
+    }
+
+    @Nonnull
+    public LibraryLoader<T> saveLastError() {
+        loadOptionsBuilder.saveLastError();
+        return this;
+    }
+
+    @Nonnull
+    public LibraryLoader<T> bindEagerly() {
+        loadOptionsBuilder.bindEagerly();
+        return this;
+    }
+
+    @Nonnull
+    public LibraryLoader<T> bindEagerlyInParallel() {
+        loadOptionsBuilder.bindEagerlyInParallel();
+        return this;
+    }
+
+    @Nonnull
+    public LibraryLoader<T> bindLazily() {
+        loadOptionsBuilder.bindLazily();
+        return this;
+    }
+
+    @Nonnull
+    public LibraryLoader<T> onBind(@Nullable ObjLongConsumer<Method> bindListener) {
+        loadOptionsBuilder.onBind(bindListener);
+        return this;
+    }
+
     @Nonnull
     public T load(@Nullable String libname) {
         return Foreign.getDefault().load(interfaceClass, libname, loadOptionsBuilder.build());
@@ -1,6 +1,9 @@
 package jnc.foreign;
 
+import java.lang.reflect.Method;
+import java.util.function.ObjLongConsumer;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import jnc.foreign.enums.CallingConvention;
 
 public final class LoadOptions {
@@ -15,10 +18,20 @@ public final class LoadOptions {
 
     private final CallingConvention callingConvention;
     private final boolean failImmediately;
-
-    LoadOptions(CallingConvention callingConvention, boolean failImmediately) {
+    private final boolean ignoreLastError;
+    private final boolean eager;
+    private final boolean parallel;
+    @Nullable
+    private final ObjLongConsumer<Method> bindListener;
+
+    LoadOptions(CallingConvention callingConvention, boolean failImmediately, boolean ignoreLastError,
+            boolean eager, boolean parallel, @Nullable ObjLongConsumer<Method> bindListener) {
         this.callingConvention = callingConvention;
         this.failImmediately = failImmediately;
+        this.ignoreLastError = ignoreLastError;
+        this.eager = eager;
+        this.parallel = parallel;
+        this.bindListener = bindListener;
     }
 
     @Nonnull
@@ -30,4 +43,21 @@ public final class LoadOptions {
         return failImmediately;
     }
 
+    public boolean isIgnoreLastError() {
+        return ignoreLastError;
+    }
+
+    public boolean isEager() {
+        return eager;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    @Nullable
+    public ObjLongConsumer<Method> getBindListener() {
+        return bindListener;
+    }
+
 }
@@ -1,7 +1,10 @@
 package jnc.foreign;
 
+import java.lang.reflect.Method;
 import java.util.Objects;
+import java.util.function.ObjLongConsumer;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import jnc.foreign.enums.CallingConvention;
 
 @SuppressWarnings({"WeakerAccess", "UnusedReturnValue"})
@@ -9,6 +12,11 @@ public final class LoadOptionsBuilder {
 
     private CallingConvention callingConvention = CallingConvention.DEFAULT;
     private boolean failImmediately;
+    private boolean ignoreLastError;
+    private boolean eager;
+    private boolean parallel;
+    @Nullable
+    private ObjLongConsumer<Method> bindListener;
 
     LoadOptionsBuilder() {
     }
@@ -32,9 +40,65 @@ public final class LoadOptionsBuilder {
         return this;
     }
 
+    /**
+     * Don't save the last error after calling functions of the library,
+     * unless annotated with {@code @IgnoreLastError(false)}.
+     *
+     * @see jnc.foreign.annotation.IgnoreLastError
+     */
+    public LoadOptionsBuilder ignoreLastError() {
+        ignoreLastError = true;
+        return this;
+    }
+
+    public LoadOptionsBuilder saveLastError() {
+        ignoreLastError = false;
+        return this;
+    }
+
+    /**
+     * Open the library with {@code RTLD_NOW}, and bind all the methods of the
+     * interface when loading, the library fails to load if any of the
+     * methods can't be bound.
+     */
+    public LoadOptionsBuilder bindEagerly() {
+        eager = true;
+        parallel = false;
+        return this;
+    }
+
+    /**
+     * Same as {@link #bindEagerly()}, except that the methods are bound in
+     * parallel.
+     */
+    public LoadOptionsBuilder bindEagerlyInParallel() {
+        eager = true;
+        parallel = true;
+        return this;
+    }
+
+    /**
+     * Bind the methods on the first call, which is the default.
+     */
+    public LoadOptionsBuilder bindLazily() {
+        eager = false;
+        parallel = false;
+        return this;
+    }
+
+    /**
+     * @param bindListener receives every method bound and the time elapsed in
+     * nanoseconds, null to remove the listener.
+     */
+    public LoadOptionsBuilder onBind(@Nullable ObjLongConsumer<Method> bindListener) {
+        this.bindListener = bindListener;
+        return this;
+    }
+
     @Nonnull
     public LoadOptions build() {
-        return new LoadOptions(callingConvention, failImmediately);
+        return new LoadOptions(callingConvention, failImmediately, ignoreLastError,
+                eager, parallel, bindListener);
     }
 
 }
@@ -0,0 +1,50 @@
+package jnc.foreign;
+
+import java.io.IOException;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A region of a file mapped into memory. The region is unmapped when
+ * {@link #close() closed}, or when this pointer is garbage collected if it is
+ * never closed. Accessing the pointer, or any pointer sliced from it, after it
+ * is closed throws {@link IllegalStateException}, but accessing a buffer
+ * derived from it has undefined behavior and might crash the jvm. Writing to
+ * a region mapped read only throws {@link java.nio.ReadOnlyBufferException}.
+ *
+ * @see MemoryManager#map
+ */
+@ParametersAreNonnullByDefault
+public interface MappedPointer extends Pointer, AutoCloseable {
+
+    /**
+     * Write the modified content of the region back to the file, and wait
+     * until it is finished. Does nothing to a region mapped privately.
+     *
+     * @throws IOException if failed to write
+     * @throws IllegalStateException if closed
+     */
+    void sync() throws IOException;
+
+    /**
+     * Tell the operating system how the region will be accessed. This is only
+     * a hint and might be ignored.
+     *
+     * @throws IllegalStateException if closed
+     */
+    void advise(Advice advice);
+
+    /**
+     * Unmap the region, does nothing if already closed.
+     */
+    @Override
+    void close();
+
+    enum Advice {
+        NORMAL,
+        SEQUENTIAL,
+        RANDOM,
+        WILL_NEED,
+        DONT_NEED
+    }
+
+}
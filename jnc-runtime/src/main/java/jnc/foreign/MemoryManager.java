@@ -1,18 +1,62 @@
 package jnc.foreign;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 @ParametersAreNonnullByDefault
 public interface MemoryManager {
 
+    /**
+     * Alignment to avoid false sharing, the size of a cache line on most of
+     * the processors.
+     */
+    long CACHE_LINE_SIZE = 64;
+
     @Nonnull
     Pointer allocate(long size);
 
+    /**
+     * Allocate memory without zeroing it, the content is undefined. Useful
+     * for memory which is fully overwritten anyway.
+     */
+    @Nonnull
+    Pointer allocateUninitialized(long size);
+
+    /**
+     * Resize the memory allocated by this memory manager, just like realloc.
+     * The content is kept up to the lesser of the old and new sizes, the rest
+     * is undefined. The old pointer must not be used any more, even if the
+     * address is not changed, but it is still valid if failed.
+     *
+     * @throws IllegalArgumentException if {@code newSize} is negative, or the
+     * pointer is not allocated by {@link #allocate}, {@link #allocateWithAlign}
+     * or {@link #allocateUninitialized} of this memory manager
+     * @throws IllegalStateException if the pointer is already reallocated
+     */
+    @Nonnull
+    Pointer reallocate(Pointer pointer, long newSize);
+
+    /**
+     * Allocate memory whose address is a multiple of {@code alignment}, such
+     * as {@link #CACHE_LINE_SIZE} or {@link #getPageSize() page size}.
+     *
+     * @param alignment power of two
+     * @throws IllegalArgumentException if {@code size} is negative or
+     * {@code alignment} is not a power of two
+     */
     @Nonnull
     Pointer allocateWithAlign(long size, long alignment);
 
+    /**
+     * @return the page size of the system
+     */
+    int getPageSize();
+
     /**
      * Allocate exact size of memory to put the string and null terminator.
      *
@@ -23,4 +67,40 @@ public interface MemoryManager {
     @Nonnull
     Pointer allocateString(String string, Charset charset);
 
+    /**
+     * Wrap a direct buffer as a pointer without copying. The pointer covers
+     * the whole capacity of the buffer regardless of its position and limit,
+     * and keeps a reference of the buffer.
+     *
+     * @throws IllegalArgumentException if the buffer is not direct or is read
+     * only
+     */
+    @Nonnull
+    Pointer wrap(ByteBuffer buffer);
+
+    /**
+     * Map a region of the file into memory, the region might be larger than
+     * 2GB.
+     * A region mapped {@link FileChannel.MapMode#READ_WRITE read write}
+     * extends the file if it exceeds the size of the file.
+     *
+     * @param mode {@link FileChannel.MapMode#PRIVATE PRIVATE} for copy on
+     * write, modification will not be written to the file
+     * @throws IllegalArgumentException if {@code offset} is negative or
+     * {@code length} is not positive
+     * @throws IOException if the file can't be opened or mapped, or the region
+     * exceeds the size of the file which is not mapped read write
+     * @throws UnsupportedOperationException if not supported by the native
+     * library
+     */
+    @Nonnull
+    MappedPointer map(Path path, long offset, long length, FileChannel.MapMode mode) throws IOException;
+
+    /**
+     * Create an arena, which frees all the memory allocated from it at once
+     * when closed.
+     */
+    @Nonnull
+    Arena newArena();
+
 }
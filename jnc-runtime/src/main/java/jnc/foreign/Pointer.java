@@ -1,5 +1,6 @@
 package jnc.foreign;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -54,6 +55,39 @@ public interface Pointer {
 
     void putShort(int offset, short value);
 
+    /**
+     * Same as {@link #getByte(int)}, the offset of the accessors with a long
+     * offset might be greater than {@code Integer.MAX_VALUE}, so memory larger
+     * than 2GB can be accessed without slicing.
+     */
+    byte getByte(long offset);
+
+    char getChar(long offset);
+
+    double getDouble(long offset);
+
+    float getFloat(long offset);
+
+    int getInt(long offset);
+
+    long getLong(long offset);
+
+    short getShort(long offset);
+
+    void putByte(long offset, byte value);
+
+    void putChar(long offset, char value);
+
+    void putDouble(long offset, double value);
+
+    void putFloat(long offset, float value);
+
+    void putInt(long offset, int value);
+
+    void putLong(long offset, long value);
+
+    void putShort(long offset, short value);
+
     void getBytes(int offset, byte[] bytes, int off, int len);
 
     void putBytes(int offset, byte[] bytes, int off, int len);
@@ -164,4 +198,117 @@ public interface Pointer {
     @Nonnull
     Pointer slice(int beginIndex, int endIndex);
 
+    /**
+     * Same as {@link #slice(int, int)}, but the range might be beyond 2GB.
+     */
+    @Nonnull
+    Pointer slice(long beginIndex, long endIndex);
+
+    /**
+     * Copy {@code len} bytes at {@code offset} of this pointer to
+     * {@code dstOffset} of {@code dst}. The regions may overlap.
+     *
+     * @throws IndexOutOfBoundsException if either region is out of the bounds
+     * of its pointer
+     */
+    void copyTo(int offset, Pointer dst, int dstOffset, int len);
+
+    /**
+     * Set {@code len} bytes at {@code offset} of this pointer to
+     * {@code value}.
+     *
+     * @throws IndexOutOfBoundsException if the region is out of bounds
+     */
+    void fill(int offset, int len, byte value);
+
+    /**
+     * Compare {@code len} bytes of this pointer with the bytes of
+     * {@code other}, as unsigned values like memcmp does.
+     *
+     * @return -1, 0 or 1 if the bytes of this pointer is less than, equal to
+     * or greater than the bytes of {@code other}
+     * @throws IndexOutOfBoundsException if either region is out of the bounds
+     * of its pointer
+     */
+    int compare(int offset, Pointer other, int otherOffset, int len);
+
+    /**
+     * @return index of the first different byte relative to the offsets, or
+     * -1 if all of the {@code len} bytes are same
+     * @throws IndexOutOfBoundsException if either region is out of the bounds
+     * of its pointer
+     */
+    int mismatch(int offset, Pointer other, int otherOffset, int len);
+
+    /**
+     * Find {@code value} in the {@code len} bytes at {@code offset}.
+     *
+     * @return the offset of the byte found in this pointer, or -1 if not found
+     * @throws IndexOutOfBoundsException if the region is out of bounds
+     */
+    int indexOf(int offset, int len, byte value);
+
+    /**
+     * Find {@code pattern} in the {@code len} bytes at {@code offset}.
+     *
+     * @return the offset of the pattern found in this pointer, or -1 if not
+     * found
+     * @throws IndexOutOfBoundsException if the region is out of bounds
+     */
+    int indexOf(int offset, int len, byte[] pattern);
+
+    /**
+     * Same as {@link #copyTo(int, Pointer, int, int)}, the regions are
+     * checked against the {@link #capacity() capacity} and might be beyond
+     * 2GB.
+     */
+    void copyTo(long offset, Pointer dst, long dstOffset, long len);
+
+    /**
+     * Same as {@link #fill(int, int, byte)}, but the region might be beyond
+     * 2GB.
+     */
+    void fill(long offset, long len, byte value);
+
+    /**
+     * Same as {@link #compare(int, Pointer, int, int)}, but the regions might
+     * be beyond 2GB.
+     */
+    int compare(long offset, Pointer other, long otherOffset, long len);
+
+    /**
+     * Same as {@link #mismatch(int, Pointer, int, int)}, but the regions
+     * might be beyond 2GB.
+     */
+    long mismatch(long offset, Pointer other, long otherOffset, long len);
+
+    /**
+     * Same as {@link #indexOf(int, int, byte)}, but the region might be
+     * beyond 2GB.
+     */
+    long indexOf(long offset, long len, byte value);
+
+    /**
+     * Same as {@link #indexOf(int, int, byte[])}, but the region might be
+     * beyond 2GB.
+     */
+    long indexOf(long offset, long len, byte[] pattern);
+
+    /**
+     * A direct buffer of {@code len} bytes at {@code offset} of this pointer,
+     * in native byte order. The content is shared, not copied. This pointer
+     * will not be freed by the garbage collector while the buffer is
+     * reachable, which costs a registration to the cleaner for each call,
+     * prefer one buffer over many small ones. The buffer doesn't prevent the
+     * memory from being released explicitly, such as closing a pooled or mapped
+     * pointer, it must not be used after that. The buffer of read only memory
+     * is read only.
+     *
+     * @throws IndexOutOfBoundsException if the region is out of bounds
+     * @throws UnsupportedOperationException if the memory is allocated by an
+     * {@link Arena}
+     */
+    @Nonnull
+    ByteBuffer asByteBuffer(int offset, int len);
+
 }
@@ -16,6 +16,9 @@
 package jnc.foreign;
 
 /**
+ * Building state of a struct, kept as an int in the struct to save an
+ * allocation.
+ *
  * @author zhanhb
  */
 final class State {
@@ -40,11 +43,7 @@ final class State {
         "getEnclosing"
     };
 
-    static State newState() {
-        return new State();
-    }
-
-    private static String toString(int state) {
+    static String toString(int state) {
         int major = state >> 4;
         return major == MAJOR_FINISHED ? "finished by calling method " + BY[state & 0xF] + "()" : STATES[major];
     }
@@ -54,59 +53,45 @@ final class State {
         return new IllegalStateException(String.format(message, operate, struct.toString(), toString(state)));
     }
 
-    private int state;
-
-    private State() {
-        this.state = STATE_FIELD_ADDING;
-    }
-
-    void checkAddField(Struct struct) {
+    static void checkAddField(Struct struct, int state) {
         if (state > STATE_FIELD_ADDING) {
             throw toException(struct, state, "add field");
         }
     }
 
-    void checkGetBuildingOffset(Struct struct) {
+    static void checkGetBuildingOffset(Struct struct, int state) {
         if (state > STATE_FIELD_ADDING) {
             throw toException(struct, state, "get next offset");
         }
     }
 
-    void finishBySize() {
-        if (state < STATE_FINISH) {
-            state = FINISHED_BY_SIZE;
-        }
+    static int finishBySize(int state) {
+        return state < STATE_FINISH ? FINISHED_BY_SIZE : state;
     }
 
-    void finishByGetEnclosing() {
-        if (state < STATE_FINISH) {
-            state = FINISHED_BY_GET_ENCLOSING;
-        }
+    static int finishByGetEnclosing(int state) {
+        return state < STATE_FINISH ? FINISHED_BY_GET_ENCLOSING : state;
     }
 
-    void checkAndAssignEnclosing(Struct struct) {
+    static int checkAndAssignEnclosing(Struct struct, int state) {
         if (state >= STATE_ENCLOSING_ASSIGNED) {
             throw toException(struct, state, "assign enclosing");
         }
-        state = STATE_ENCLOSING_ASSIGNED;
+        return STATE_ENCLOSING_ASSIGNED;
     }
 
-    void memoryAllocated() {
-        if (state < STATE_MEMORY_ALLOCATED) {
-            state = STATE_MEMORY_ALLOCATED;
-        }
+    static int memoryAllocated(int state) {
+        return state < STATE_MEMORY_ALLOCATED ? STATE_MEMORY_ALLOCATED : state;
     }
 
-    void checkSetMemory(Struct struct) {
+    static int checkSetMemory(Struct struct, int state) {
         if (state >= STATE_MEMORY_ALLOCATED) {
             throw toException(struct, state, "set memory");
         }
-        state = STATE_MEMORY_ALLOCATED;
+        return STATE_MEMORY_ALLOCATED;
     }
 
-    @Override
-    public String toString() {
-        return toString(state);
+    private State() {
     }
 
 }
@@ -5,12 +5,11 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import jnc.foreign.annotation.Pack;
 import jnc.foreign.enums.TypeAlias;
-import jnc.foreign.exception.InvalidAnnotationException;
 import jnc.foreign.exception.UnmappableNativeValueException;
 import jnc.foreign.spi.ForeignProvider;
 import jnc.foreign.support.LayoutBuilder;
+import jnc.foreign.support.StructField;
 import jnc.foreign.support.TypeHandler;
 import jnc.provider.NotFinal;
 
@@ -18,58 +17,140 @@ import jnc.provider.NotFinal;
 @SuppressWarnings({"PublicInnerClass", "ProtectedInnerClass", "PublicConstructorInNonPublicClass", "unused", "FinalMethod", "FinalClass"})
 public class Struct {
 
-    private static LayoutBuilder getLayoutBuilder(LayoutBuilder.Type layoutType, Class<?> klass) {
-        Pack pack = klass.getAnnotation(Pack.class);
-        if (pack != null) {
-            int value = pack.value();
-            if (value != 0) {
-                try {
-                    return LayoutBuilder.withPack(layoutType, value);
-                } catch (IllegalArgumentException ex) {
-                    throw new InvalidAnnotationException(pack, klass, ex.getMessage());
-                }
-            }
+    private static final Type[] NATIVE_TYPES = new Type[NativeType.values().length];
+    private static final Type[] ALIASES = new Type[TypeAlias.values().length];
+
+    // types never change, cache them to save the lookup of each field
+    private static Type findType(NativeType nativeType) {
+        Type type = NATIVE_TYPES[nativeType.ordinal()];
+        if (type == null) {
+            type = ForeignProvider.getDefault().getForeign().findType(nativeType);
+            NATIVE_TYPES[nativeType.ordinal()] = type;
         }
-        return LayoutBuilder.withoutPack(layoutType);
+        return type;
     }
 
-    private final LayoutBuilder layoutBuilder;
+    private static Type findType(TypeAlias alias) {
+        Type type = ALIASES[alias.ordinal()];
+        if (type == null) {
+            type = ForeignProvider.getDefault().getForeign().findType(alias);
+            ALIASES[alias.ordinal()] = type;
+        }
+        return type;
+    }
+
+    private final LayoutCache layoutCache;
+    // layout of a previous instance, null if laid out by the builder
+    @Nullable
+    private StructLayout layout;
+    @Nullable
+    private LayoutBuilder layoutBuilder;
+    @Nullable
+    private StructLayout.Recorder recorder;
+    private int fieldCount;
     private jnc.foreign.Pointer memory;
     private Enclosing enclosing;
-    private final State state = State.newState();
+    private int state;
 
     public Struct() {
-        this.layoutBuilder = getLayoutBuilder(LayoutBuilder.Type.STRUCT, getClass());
+        LayoutCache cache = LayoutCache.of(getClass());
+        StructLayout cached = cache.get();
+        this.layoutCache = cache;
+        if (cached != null) {
+            this.layout = cached;
+        } else {
+            this.layoutBuilder = cache.newBuilder();
+            this.recorder = cache.newRecorder();
+        }
     }
 
     // for Union
     Struct(Void unused) {
-        this.layoutBuilder = getLayoutBuilder(LayoutBuilder.Type.UNION, getClass());
+        this();
+    }
+
+    /**
+     * Continue with a builder which has the first {@code count} fields of the
+     * layout.
+     */
+    private LayoutBuilder rebuild(StructLayout cached, int count) {
+        LayoutBuilder builder = cached.replay(layoutCache.newBuilder(), count);
+        layout = null;
+        layoutBuilder = builder;
+        return builder;
     }
 
     /**
      * @return offset of the field
      */
     final int addField(int size, int alignment) {
-        state.checkAddField(this);
-        return layoutBuilder.newField(size, alignment);
+        State.checkAddField(this, state);
+        int index = fieldCount++;
+        StructLayout cached = layout;
+        LayoutBuilder builder;
+        if (cached != null) {
+            if (cached.matches(index, size, alignment)) {
+                return cached.offset(index);
+            }
+            // not the same as the previous instance
+            layoutCache.setVarying();
+            builder = rebuild(cached, index);
+        } else {
+            builder = layoutBuilder;
+        }
+        int offset = builder.newField(size, alignment);
+        StructLayout.Recorder r = recorder;
+        if (r != null) {
+            r.add(size, alignment, offset, builder.offset());
+        }
+        return offset;
+    }
+
+    // called when no more fields can be added
+    private void finishLayout() {
+        StructLayout cached = layout;
+        if (cached != null) {
+            if (fieldCount != cached.fieldCount()) {
+                layoutCache.setVarying();
+                rebuild(cached, fieldCount);
+            }
+            return;
+        }
+        StructLayout.Recorder r = recorder;
+        if (r != null) {
+            recorder = null;
+            StructLayout built = r.build(layoutBuilder);
+            layoutCache.put(built);
+            layout = built;
+            layoutBuilder = null;
+        }
     }
 
     final int size0() {
-        return layoutBuilder.size();
+        finishLayout();
+        StructLayout cached = layout;
+        return cached != null ? cached.size() : layoutBuilder.size();
     }
 
     public final int nextOffset() {
-        state.checkGetBuildingOffset(this);
-        return layoutBuilder.offset();
+        State.checkGetBuildingOffset(this, state);
+        StructLayout cached = layout;
+        return cached != null ? cached.nextOffset(fieldCount) : layoutBuilder.offset();
     }
 
     public final int size() {
-        state.finishBySize();
-        return Math.max(layoutBuilder.size(), 1);
+        state = State.finishBySize(state);
+        return Math.max(size0(), 1);
     }
 
     public final int alignment() {
+        StructLayout cached = layout;
+        if (cached != null) {
+            if (fieldCount == cached.fieldCount()) {
+                return cached.alignment();
+            }
+            return rebuild(cached, fieldCount).alignment();
+        }
         return layoutBuilder.alignment();
     }
 
@@ -86,7 +167,7 @@ public class Struct {
             } else {
                 m = getForeign().getMemoryManager().allocateWithAlign(size(), alignment());
             }
-            state.memoryAllocated();
+            state = State.memoryAllocated(state);
             memory = m;
         }
         return m;
@@ -94,18 +175,18 @@ public class Struct {
 
     public final void setMemory(jnc.foreign.Pointer memory) {
         Objects.requireNonNull(memory, "memory");
-        state.checkSetMemory(this);
+        state = State.checkSetMemory(this, state);
         this.memory = memory;
     }
 
     @Nullable
     public final Enclosing getEnclosing() {
-        state.finishByGetEnclosing();
+        state = State.finishByGetEnclosing(state);
         return enclosing;
     }
 
     final void checkSetEnclosing() {
-        state.checkAndAssignEnclosing(this);
+        state = State.checkAndAssignEnclosing(this, state);
     }
 
     final void setEnclosing(Enclosing enclosing) {
@@ -278,6 +359,26 @@ public class Struct {
         return inner(new StructArray<>(constructor, length));
     }
 
+    /**
+     * Describe a field of the struct for {@link StructAccessors}.
+     *
+     * @return null if the value is not a number field of the struct
+     */
+    @Nullable
+    static StructField describeField(Struct struct, @Nullable Object value) {
+        if (value instanceof NumberField) {
+            NumberField field = (NumberField) value;
+            if (field.struct() == struct) {
+                try {
+                    Class<?> javaType = field.getClass().getMethod("get").getReturnType();
+                    return new StructField(field.offset, field.type, javaType);
+                } catch (NoSuchMethodException ignored) {
+                }
+            }
+        }
+        return null;
+    }
+
     public static final class Enclosing {
 
         private final Struct struct;
@@ -317,95 +418,79 @@ public class Struct {
 
     }
 
-    private final class FieldDelegate {
+    private abstract class NumberField extends Number {
 
+        private static final long serialVersionUID = 0L;
+
+        // the offset comes from the cached layout, no delegate per field
         private final int offset;
         private final Type type;
 
-        FieldDelegate(Type type) {
+        NumberField(Type type) {
             this.offset = addField(type.size(), type.alignment());
             this.type = type;
         }
 
-        FieldDelegate(NativeType nativeType) {
-            this(getForeign().findType(nativeType));
-        }
-
-        int getOffset() {
-            return offset;
-        }
-
-        Type getType() {
-            return type;
-        }
-    }
-
-    private abstract class NumberField extends Number {
-
-        private static final long serialVersionUID = 0L;
-
-        private final FieldDelegate base;
-
-        NumberField(Type type) {
-            base = new FieldDelegate(type);
+        NumberField(NativeType nativeType) {
+            this(findType(nativeType));
         }
 
-        NumberField(NativeType nativeType) {
-            base = new FieldDelegate(nativeType);
+        final Struct struct() {
+            return Struct.this;
         }
 
         final void putBoolean(boolean value) {
-            getMemory().putBoolean(base.getOffset(), base.getType(), value);
+            getMemory().putBoolean(offset, type, value);
         }
 
         final void putInt(int value) {
-            getMemory().putInt(base.getOffset(), base.getType(), value);
+            getMemory().putInt(offset, type, value);
         }
 
         final void putLong(long value) {
-            getMemory().putLong(base.getOffset(), base.getType(), value);
+            getMemory().putLong(offset, type, value);
         }
 
         final void putFloat(float value) {
-            getMemory().putFloat(base.getOffset(), base.getType(), value);
+            getMemory().putFloat(offset, type, value);
         }
 
         final void putDouble(double value) {
-            getMemory().putDouble(base.getOffset(), base.getType(), value);
+            getMemory().putDouble(offset, type, value);
         }
 
         final boolean booleanValue() {
-            return getMemory().getBoolean(base.getOffset(), base.getType());
+            return getMemory().getBoolean(offset, type);
         }
 
         @Override
         public final short shortValue() {
-            return getMemory().getShort(base.getOffset(), base.getType());
+            return getMemory().getShort(offset, type);
         }
 
         @Override
         public final byte byteValue() {
-            return getMemory().getByte(base.getOffset(), base.getType());
+            return getMemory().getByte(offset, type);
         }
 
         @Override
         public final int intValue() {
-            return getMemory().getInt(base.getOffset(), base.getType());
+            return getMemory().getInt(offset, type);
         }
 
         @Override
         public final long longValue() {
-            return getMemory().getLong(base.getOffset(), base.getType());
+            return getMemory().getLong(offset, type);
         }
 
         @Override
         public final float floatValue() {
-            return getMemory().getFloat(base.getOffset(), base.getType());
+            return getMemory().getFloat(offset, type);
         }
 
         @Override
         public final double doubleValue() {
-            return getMemory().getDouble(base.getOffset(), base.getType());
+            return getMemory().getDouble(offset, type);
         }
 
         @Override
@@ -513,7 +598,7 @@ public class Struct {
         }
 
         LongField(NativeType nativeType) {
-            this(getForeign().findType(nativeType));
+            this(findType(nativeType));
         }
 
         public final long get() {
@@ -632,7 +717,7 @@ public class Struct {
         private static final long serialVersionUID = 0L;
 
         public Address() {
-            super(getForeign().findType(TypeAlias.uintptr_t));
+            super(findType(TypeAlias.uintptr_t));
         }
 
         @Override
@@ -644,18 +729,19 @@ public class Struct {
     @NotFinal(NotFinal.Reason.API)
     protected class Pointer {
 
-        private final FieldDelegate base;
+        private final int offset;
 
         public Pointer() {
-            base = new FieldDelegate(NativeType.POINTER);
+            Type type = findType(NativeType.POINTER);
+            offset = addField(type.size(), type.alignment());
         }
 
         public final jnc.foreign.Pointer get() {
-            return getMemory().getPointer(base.getOffset());
+            return getMemory().getPointer(offset);
         }
 
         public final void set(jnc.foreign.Pointer value) {
-            getMemory().putPointer(base.getOffset(), value);
+            getMemory().putPointer(offset, value);
         }
 
     }
@@ -665,7 +751,7 @@ public class Struct {
         private static final long serialVersionUID = 0L;
 
         public size_t() {
-            super(getForeign().findType(TypeAlias.size_t));
+            super(findType(TypeAlias.size_t));
         }
 
         @Override
@@ -679,7 +765,7 @@ public class Struct {
         private static final long serialVersionUID = 0L;
 
         public uintptr_t() {
-            super(getForeign().findType(TypeAlias.uintptr_t));
+            super(findType(TypeAlias.uintptr_t));
         }
 
         @Override
@@ -693,7 +779,7 @@ public class Struct {
         private static final long serialVersionUID = 0L;
 
         public intptr_t() {
-            super(getForeign().findType(TypeAlias.intptr_t));
+            super(findType(TypeAlias.intptr_t));
         }
 
         @Override
@@ -707,7 +793,7 @@ public class Struct {
         private static final long serialVersionUID = 0L;
 
         public clong() {
-            super(getForeign().findType(TypeAlias.clong));
+            super(findType(TypeAlias.clong));
         }
 
         @Override
@@ -813,20 +899,22 @@ public class Struct {
 
         private final Class<E> type;
         private final TypeHandler<E> typeHandler;
-        private final FieldDelegate field;
+        private final int offset;
 
         EnumField(Class<E> type) {
+            TypeHandler<E> handler = getForeign().getTypeHandler(type);
+            Type nativeType = handler.type();
             this.type = type;
-            this.typeHandler = getForeign().getTypeHandler(type);
-            this.field = new FieldDelegate(typeHandler.type());
+            this.typeHandler = handler;
+            this.offset = addField(nativeType.size(), nativeType.alignment());
         }
 
         public E get() {
-            return typeHandler.get(getMemory(), field.getOffset());
+            return typeHandler.get(getMemory(), offset);
         }
 
         public void set(E e) {
-            typeHandler.set(getMemory(), field.getOffset(), e);
+            typeHandler.set(getMemory(), offset, e);
         }
 
         /**
@@ -0,0 +1,91 @@
+package jnc.foreign;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import jnc.foreign.spi.ForeignProvider;
+import jnc.foreign.support.StructField;
+
+/**
+ * Generate accessors which read and write the fields of a struct by address
+ * at constant offsets, instead of through the field objects and the memory
+ * of the struct, so that a hot access is compiled to a single load or store.
+ *
+ * Each method of the accessor interface is named after a number field of the
+ * struct, declared as a java field of the struct class or its super classes.
+ * The first parameter is the address of the struct, which is a {@code long},
+ * a {@link Pointer} or a {@link Struct}. A getter returns the type the field
+ * gets, and a setter takes the value the field sets and returns void.
+ * <pre>{@code
+ * interface TimevalAccessor {
+ *     long tv_sec(long address);
+ *     void tv_sec(long address, long value);
+ * }
+ * }</pre>
+ *
+ * A field accessed by a {@link Pointer} or a {@link Struct} is checked
+ * against the size of the memory, and throws
+ * {@link IndexOutOfBoundsException} if out of range, a setter throws
+ * {@link java.nio.ReadOnlyBufferException} if the memory is read only, such
+ * as a read only {@link MappedPointer}. An address is accessed
+ * without any check, accessing an address which is not a valid struct has
+ * undefined behavior and might crash the jvm.
+ */
+@ParametersAreNonnullByDefault
+public final class StructAccessors {
+
+    /**
+     * @param structClass class of the struct, which has a constructor without
+     * parameters
+     * @param accessorInterface an interface which is visible to the class
+     * loader of itself
+     * @throws IllegalArgumentException if the struct can't be constructed, or
+     * any abstract method of the interface doesn't match a field
+     */
+    @Nonnull
+    public static <T> T create(Class<? extends Struct> structClass, Class<T> accessorInterface) {
+        Objects.requireNonNull(structClass, "structClass");
+        Objects.requireNonNull(accessorInterface, "accessorInterface");
+        Struct struct = newStruct(structClass);
+        Map<String, StructField> fields = new HashMap<>(16);
+        for (Class<?> klass = structClass; klass != Struct.class; klass = klass.getSuperclass()) {
+            for (Field field : klass.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                Object value;
+                try {
+                    field.setAccessible(true);
+                    value = field.get(struct);
+                } catch (RuntimeException | IllegalAccessException ex) {
+                    continue;
+                }
+                StructField described = Struct.describeField(struct, value);
+                // a field hides the one of the same name in the super class
+                if (described != null) {
+                    fields.putIfAbsent(field.getName(), described);
+                }
+            }
+        }
+        return ForeignProvider.getDefault().getForeign().newStructAccessor(accessorInterface, fields);
+    }
+
+    private static Struct newStruct(Class<? extends Struct> structClass) {
+        try {
+            Constructor<? extends Struct> constructor = structClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            throw new IllegalArgumentException("unable to construct " + structClass, ex);
+        }
+    }
+
+    private StructAccessors() {
+    }
+
+}
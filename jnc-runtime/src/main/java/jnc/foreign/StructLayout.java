@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.foreign;
+
+import java.util.Arrays;
+import jnc.foreign.support.LayoutBuilder;
+
+/**
+ * Layout of a struct, the offsets of the fields are recorded together with
+ * the sizes and alignments the fields are added with. Another instance of the
+ * same class reuses the offsets as long as its fields are added the same way.
+ *
+ * @author zhanhb
+ * @see LayoutCache
+ */
+final class StructLayout {
+
+    private final int[] sizes;
+    private final int[] alignments;
+    private final int[] offsets;
+    // value of LayoutBuilder.offset() after each field is added
+    private final int[] nextOffsets;
+    private final int size;
+    private final int alignment;
+
+    private StructLayout(Recorder recorder, int size, int alignment) {
+        int count = recorder.count;
+        this.sizes = Arrays.copyOf(recorder.sizes, count);
+        this.alignments = Arrays.copyOf(recorder.alignments, count);
+        this.offsets = Arrays.copyOf(recorder.offsets, count);
+        this.nextOffsets = Arrays.copyOf(recorder.nextOffsets, count);
+        this.size = size;
+        this.alignment = alignment;
+    }
+
+    boolean matches(int index, int size, int alignment) {
+        return index < sizes.length && sizes[index] == size && alignments[index] == alignment;
+    }
+
+    int offset(int index) {
+        return offsets[index];
+    }
+
+    int fieldCount() {
+        return sizes.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int alignment() {
+        return alignment;
+    }
+
+    /**
+     * @param count number of fields added
+     */
+    int nextOffset(int count) {
+        return count == 0 ? 0 : nextOffsets[count - 1];
+    }
+
+    /**
+     * Add the first {@code count} fields to the builder.
+     */
+    LayoutBuilder replay(LayoutBuilder builder, int count) {
+        for (int i = 0; i < count; ++i) {
+            builder.newField(sizes[i], alignments[i]);
+        }
+        return builder;
+    }
+
+    boolean sameFields(StructLayout other) {
+        return Arrays.equals(sizes, other.sizes) && Arrays.equals(alignments, other.alignments);
+    }
+
+    static final class Recorder {
+
+        private int[] sizes = new int[8];
+        private int[] alignments = new int[8];
+        private int[] offsets = new int[8];
+        private int[] nextOffsets = new int[8];
+        private int count;
+
+        void add(int size, int alignment, int offset, int nextOffset) {
+            int index = count;
+            if (index == sizes.length) {
+                int length = index << 1;
+                sizes = Arrays.copyOf(sizes, length);
+                alignments = Arrays.copyOf(alignments, length);
+                offsets = Arrays.copyOf(offsets, length);
+                nextOffsets = Arrays.copyOf(nextOffsets, length);
+            }
+            sizes[index] = size;
+            alignments[index] = alignment;
+            offsets[index] = offset;
+            nextOffsets[index] = nextOffset;
+            count = index + 1;
+        }
+
+        StructLayout build(LayoutBuilder builder) {
+            return new StructLayout(this, builder.size(), builder.alignment());
+        }
+
+    }
+
+}
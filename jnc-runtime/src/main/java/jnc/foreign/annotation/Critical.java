@@ -0,0 +1,25 @@
+package jnc.foreign.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Pass the primitive array parameter without copying. The elements are
+ * pinned during the call, so the garbage collector may be blocked until the
+ * function returns. Only annotate parameters of short functions which
+ * neither block nor call back into java, for example hash functions.
+ *
+ * The array is copied as usual if the native library or the vm doesn't
+ * support pinning. A function with a critical parameter is always called
+ * through libffi, never through the direct stub.
+ *
+ * @author zhanhb
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Critical {
+}
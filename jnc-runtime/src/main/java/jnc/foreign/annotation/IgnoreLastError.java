@@ -0,0 +1,29 @@
+package jnc.foreign.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Don't save the last error ({@code errno} or {@code GetLastError()}) after
+ * calling the function, {@link jnc.foreign.Foreign#getLastError()} won't
+ * reflect these calls. Annotation on a method overrides the one on the
+ * interface, which overrides the load options.
+ *
+ * @author zhanhb
+ * @see jnc.foreign.LoadOptionsBuilder#ignoreLastError()
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface IgnoreLastError {
+
+    /**
+     * @return false to save the last error even if it's ignored by the
+     * interface or the load options.
+     */
+    boolean value() default true;
+
+}
@@ -7,7 +7,8 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * A mark interface to indicate this parameter use for input, noop.
+ * The array parameter is only read by the native function, it's not copied
+ * back after the call.
  *
  * @author zhanhb
  */
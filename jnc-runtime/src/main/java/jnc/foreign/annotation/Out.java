@@ -7,7 +7,9 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * A mark interface to indicate this parameter use for output, noop.
+ * The array parameter is only written by the native function, it's not
+ * copied to the native memory before the call, the content of the native
+ * memory is undefined until the function writes it.
  *
  * @author zhanhb
  */
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.foreign.support;
+
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import jnc.foreign.MemoryManager;
+import jnc.foreign.Pointer;
+
+/**
+ * A growable buffer which appends bytes into native memory directly. The
+ * memory is allocated from a {@link MemoryManager} and grown by
+ * {@link MemoryManager#reallocate(Pointer, long) reallocate}, so the content
+ * can be passed to native without copying.
+ *
+ * Primitives are written in native byte order unless an order is specified.
+ * This class is not thread safe.
+ *
+ * @author zhanhb
+ */
+@ParametersAreNonnullByDefault
+public final class NativeBuffer {
+
+    private static final int DEFAULT_CAPACITY = 256;
+    // some vm reserve header words in an array, keep the same limit
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private static final boolean NATIVE_BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    private static int checkCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity " + capacity);
+        }
+        return capacity;
+    }
+
+    private static boolean swap(ByteOrder order) {
+        return (order == ByteOrder.BIG_ENDIAN) != NATIVE_BIG_ENDIAN;
+    }
+
+    private final MemoryManager memoryManager;
+    private Pointer memory;
+    private int capacity;
+    private int position;
+
+    public NativeBuffer(MemoryManager memoryManager) {
+        this(memoryManager, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code initialCapacity} is negative
+     */
+    public NativeBuffer(MemoryManager memoryManager, int initialCapacity) {
+        this.memoryManager = Objects.requireNonNull(memoryManager, "memoryManager");
+        this.capacity = checkCapacity(initialCapacity);
+        this.memory = memoryManager.allocateUninitialized(initialCapacity);
+    }
+
+    /**
+     * Callers must read {@link #memory} after this method, since it might be
+     * moved.
+     *
+     * @return offset to put {@code n} more bytes
+     */
+    private int ensure(int n) {
+        int pos = position;
+        if (n > capacity - pos) {
+            grow(pos, n);
+        }
+        position = pos + n;
+        return pos;
+    }
+
+    private void grow(int pos, int n) {
+        if (n > MAX_CAPACITY - pos) {
+            throw new OutOfMemoryError("buffer too large");
+        }
+        int minCapacity = pos + n;
+        int newCapacity = capacity > MAX_CAPACITY >> 1 ? MAX_CAPACITY : Math.max(capacity << 1, DEFAULT_CAPACITY);
+        newCapacity = Math.max(newCapacity, minCapacity);
+        memory = memoryManager.reallocate(memory, newCapacity);
+        capacity = newCapacity;
+    }
+
+    /**
+     * Make sure at least {@code minCapacity} bytes can be held without
+     * growing.
+     *
+     * @throws IllegalArgumentException if {@code minCapacity} is negative
+     */
+    public NativeBuffer reserve(int minCapacity) {
+        if (checkCapacity(minCapacity) > capacity) {
+            grow(0, minCapacity);
+        }
+        return this;
+    }
+
+    public NativeBuffer putByte(byte value) {
+        int offset = ensure(Byte.BYTES);
+        memory.putByte(offset, value);
+        return this;
+    }
+
+    public NativeBuffer putBytes(byte[] bytes) {
+        return putBytes(bytes, 0, bytes.length);
+    }
+
+    public NativeBuffer putBytes(byte[] bytes, int off, int len) {
+        Objects.requireNonNull(bytes);
+        if (off < 0 || len < 0 || len > bytes.length - off) {
+            throw new ArrayIndexOutOfBoundsException("off=" + off + ", len=" + len + ", length=" + bytes.length);
+        }
+        int offset = ensure(len);
+        memory.putBytes(offset, bytes, off, len);
+        return this;
+    }
+
+    /**
+     * Copy {@code len} bytes from the native memory.
+     */
+    public NativeBuffer putBytes(Pointer src, int offset, int len) {
+        Objects.requireNonNull(src);
+        if (len < 0) {
+            throw new IllegalArgumentException("Illegal length " + len);
+        }
+        int pos = position;
+        if (len > capacity - pos) {
+            long base = memory.address();
+            long from = src.address() + offset;
+            if (from >= base && from - base < capacity) {
+                // the source is in this buffer, such as from pointer(),
+                // which is freed by the growth, copy from the new memory
+                if (offset < 0 || len > src.size() - offset) {
+                    throw new IndexOutOfBoundsException("offset=" + offset + ", len=" + len + ", size=" + src.size());
+                }
+                grow(pos, len);
+                memory.copyTo((int) (from - base), memory, pos, len);
+                position = pos + len;
+                return this;
+            }
+            grow(pos, len);
+        }
+        // don't move the position if the source is out of range
+        src.copyTo(offset, memory, pos, len);
+        position = pos + len;
+        return this;
+    }
+
+    /**
+     * Put the encoded string without null terminator.
+     */
+    public NativeBuffer putString(String value, Charset charset) {
+        return putBytes(value.getBytes(charset));
+    }
+
+    public NativeBuffer putShort(short value) {
+        int offset = ensure(Short.BYTES);
+        memory.putShort(offset, value);
+        return this;
+    }
+
+    public NativeBuffer putShort(short value, ByteOrder order) {
+        return putShort(swap(order) ? Short.reverseBytes(value) : value);
+    }
+
+    public NativeBuffer putChar(char value) {
+        int offset = ensure(Character.BYTES);
+        memory.putChar(offset, value);
+        return this;
+    }
+
+    public NativeBuffer putChar(char value, ByteOrder order) {
+        return putChar(swap(order) ? Character.reverseBytes(value) : value);
+    }
+
+    public NativeBuffer putInt(int value) {
+        int offset = ensure(Integer.BYTES);
+        memory.putInt(offset, value);
+        return this;
+    }
+
+    public NativeBuffer putInt(int value, ByteOrder order) {
+        return putInt(swap(order) ? Integer.reverseBytes(value) : value);
+    }
+
+    public NativeBuffer putLong(long value) {
+        int offset = ensure(Long.BYTES);
+        memory.putLong(offset, value);
+        return this;
+    }
+
+    public NativeBuffer putLong(long value, ByteOrder order) {
+        return putLong(swap(order) ? Long.reverseBytes(value) : value);
+    }
+
+    public NativeBuffer putFloat(float value) {
+        int offset = ensure(Float.BYTES);
+        memory.putFloat(offset, value);
+        return this;
+    }
+
+    public NativeBuffer putFloat(float value, ByteOrder order) {
+        return swap(order) ? putInt(Integer.reverseBytes(Float.floatToRawIntBits(value))) : putFloat(value);
+    }
+
+    public NativeBuffer putDouble(double value) {
+        int offset = ensure(Double.BYTES);
+        memory.putDouble(offset, value);
+        return this;
+    }
+
+    public NativeBuffer putDouble(double value, ByteOrder order) {
+        return swap(order) ? putLong(Long.reverseBytes(Double.doubleToRawLongBits(value))) : putDouble(value);
+    }
+
+    /**
+     * @return number of bytes written
+     */
+    public int size() {
+        return position;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Discard the content, the memory is kept for reuse.
+     */
+    public NativeBuffer reset() {
+        position = 0;
+        return this;
+    }
+
+    /**
+     * Return the content written so far without copying. The pointer must not
+     * be used after the buffer grows, since the memory might be moved by
+     * reallocation.
+     */
+    @Nonnull
+    public Pointer pointer() {
+        return memory.slice(0, position);
+    }
+
+    @Override
+    public String toString() {
+        return "NativeBuffer[size=" + position + ", capacity=" + capacity + "]";
+    }
+
+}
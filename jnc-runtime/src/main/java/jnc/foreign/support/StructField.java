@@ -0,0 +1,45 @@
+package jnc.foreign.support;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import jnc.foreign.Type;
+
+/**
+ * A number field of a struct, {@code javaType} is the type the field gets and
+ * sets, such as {@code short} for an {@code uint8_t}.
+ *
+ * @see jnc.foreign.Foreign#newStructAccessor
+ */
+public final class StructField {
+
+    private final int offset;
+    private final Type type;
+    private final Class<?> javaType;
+
+    /**
+     * @throws IllegalArgumentException if {@code offset} is negative
+     */
+    public StructField(int offset, Type type, Class<?> javaType) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Illegal offset " + offset);
+        }
+        this.offset = offset;
+        this.type = Objects.requireNonNull(type, "type");
+        this.javaType = Objects.requireNonNull(javaType, "javaType");
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    @Nonnull
+    public Type getType() {
+        return type;
+    }
+
+    @Nonnull
+    public Class<?> getJavaType() {
+        return javaType;
+    }
+
+}
@@ -53,6 +53,11 @@ final class Alias implements InternalType {
         return delegate.isSigned();
     }
 
+    @Override
+    public TypeAccessor typeAccessor() {
+        return delegate.typeAccessor();
+    }
+
     TypeAlias getTypeAlias() {
         return typeAlias;
     }
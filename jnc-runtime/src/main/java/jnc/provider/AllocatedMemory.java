@@ -1,16 +1,50 @@
 package jnc.provider;
 
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import jnc.foreign.exception.JniLoadingException;
 
 final class AllocatedMemory extends SizedDirectMemory {
 
     private static final Cleaner CLEANER = Cleaner.getInstance();
+    private static final int DEFAULT_PAGE_SIZE = 4096;
+    static final int PAGE_SIZE = pageSize();
+
+    private static int pageSize() {
+        try {
+            return NativeLoader.getAccessor().getPageSize();
+        } catch (UnsatisfiedLinkError | JniLoadingException ex) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
 
     static AllocatedMemory allocate(long size) throws OutOfMemoryError {
         if (size < 0) {
             throw new IllegalArgumentException();
         }
-        Free free = new Free(size);
+        return allocate(size, new Free(size));
+    }
+
+    /**
+     * @param alignment power of two
+     */
+    static AllocatedMemory allocate(long size, long alignment) throws OutOfMemoryError {
+        if (size < 0 || alignment <= 0 || (alignment & (alignment - 1)) != 0) {
+            throw new IllegalArgumentException("size=" + size + ",alignment=" + alignment);
+        }
+        if (alignment <= Free.MALLOC_ALIGNMENT) {
+            return allocate(size, new Free(size));
+        }
+        return allocate(size, Free.aligned(size, alignment));
+    }
+
+    static AllocatedMemory allocateUninitialized(long size) throws OutOfMemoryError {
+        if (size < 0) {
+            throw new IllegalArgumentException();
+        }
+        return allocate(size, Free.uninitialized(size));
+    }
+
+    private static AllocatedMemory allocate(long size, Free free) {
         try {
             return new AllocatedMemory(size, free);
         } catch (Throwable t) {
@@ -20,32 +54,111 @@ final class AllocatedMemory extends SizedDirectMemory {
         }
     }
 
+    private final Free free;
+
     @SuppressWarnings("LeakingThisInConstructor")
     private AllocatedMemory(long size, Free free) {
         super(free.getAddress(), size);
+        this.free = free;
         CLEANER.register(this, free);
     }
 
+    /**
+     * The memory is moved to the result, this memory must not be used any
+     * more.
+     *
+     * @throws IllegalStateException if this memory is already moved
+     */
+    AllocatedMemory reallocate(long newSize) throws OutOfMemoryError {
+        if (newSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        return allocate(newSize, free.reallocate(capacity(), newSize));
+    }
+
     private static final class Free implements Runnable {
 
+        // guaranteed by malloc on all the supported platforms
+        static final long MALLOC_ALIGNMENT = 8;
         private static final NativeAccessor NA = NativeLoader.getAccessor();
+        private static final boolean ALIGNED = NativeLoader.isSupported(() -> NA.freeAlignedMemory(0));
+        private static final boolean REALLOC = NativeLoader.isSupported(() -> NA.reallocateMemory(0, 0));
         private static final AtomicLongFieldUpdater<Free> UPDATER
                 = AtomicLongFieldUpdater.newUpdater(Free.class, "address");
+
+        static Free uninitialized(long size) {
+            return new Free(REALLOC ? NA.allocateUninitializedMemory(size) : NA.allocateMemory(size), false, 0, 0);
+        }
+
+        static Free aligned(long size, long alignment) {
+            if (ALIGNED) {
+                return new Free(NA.allocateAlignedMemory(size, alignment), true, 0, alignment);
+            }
+            // older native library, allocate more and align the address
+            if (size > Long.MAX_VALUE - alignment) {
+                throw new OutOfMemoryError();
+            }
+            long base = NA.allocateMemory(size + alignment - 1);
+            return new Free(base, false, ((base + alignment - 1) & -alignment) - base, alignment);
+        }
+
+        // the address to free
         private volatile long address;
+        private final boolean aligned;
+        private final long offset;
+        // zero if allocated by malloc
+        private final long alignment;
 
         Free(long size) {
-            this.address = NA.allocateMemory(size);
+            this(NA.allocateMemory(size), false, 0, 0);
+        }
+
+        private Free(long address, boolean aligned, long offset, long alignment) {
+            this.address = address;
+            this.aligned = aligned;
+            this.offset = offset;
+            this.alignment = alignment;
         }
 
         long getAddress() {
-            return address;
+            return address + offset;
+        }
+
+        Free reallocate(long oldSize, long newSize) {
+            long addr = UPDATER.getAndSet(this, 0);
+            if (addr == 0) {
+                throw new IllegalStateException("memory already freed");
+            }
+            Free result;
+            try {
+                if (alignment == 0 && REALLOC) {
+                    return new Free(NA.reallocateMemory(addr, newSize), false, 0, 0);
+                }
+                // realloc doesn't keep the alignment
+                result = alignment == 0 ? uninitialized(newSize) : aligned(newSize, alignment);
+                RawMemory.move(result.getAddress(), addr + offset, Math.min(oldSize, newSize));
+            } catch (Throwable t) {
+                // the memory is untouched
+                address = addr;
+                throw t;
+            }
+            free(addr);
+            return result;
+        }
+
+        private void free(long addr) {
+            if (aligned) {
+                NA.freeAlignedMemory(addr);
+            } else {
+                NA.freeMemory(addr);
+            }
         }
 
         @Override
         public void run() {
             long addr = UPDATER.getAndSet(this, 0);
             if (addr != 0) {
-                NA.freeMemory(addr);
+                free(addr);
             }
         }
     }
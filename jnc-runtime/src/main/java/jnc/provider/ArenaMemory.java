@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.nio.ByteBuffer;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Memory allocated from an arena. Each access checks the arena is still open
+ * before delegating to the target, so access after the arena is closed fails
+ * fast instead of touching freed memory.
+ *
+ * @author zhanhb
+ */
+@ParametersAreNonnullByDefault
+final class ArenaMemory extends GuardedMemory {
+
+    private final DefaultArena arena;
+
+    ArenaMemory(DefaultArena arena, SizedDirectMemory target) {
+        super(target);
+        this.arena = arena;
+    }
+
+    @Override
+    void checkOpen() {
+        arena.checkOpen();
+    }
+
+    /**
+     * A buffer can't be checked against the arena, and would stay usable after
+     * the arena is closed.
+     */
+    @Nonnull
+    @Override
+    public ByteBuffer asByteBuffer(int offset, int len) {
+        throw new UnsupportedOperationException("memory of an arena can't be viewed as a buffer");
+    }
+
+    @Override
+    ArenaMemory newSlice(SizedDirectMemory target) {
+        return new ArenaMemory(arena, target);
+    }
+
+}
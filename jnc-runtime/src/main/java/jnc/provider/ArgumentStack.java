@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+/**
+ * A per thread native stack for argument frames. Frames are pushed when a
+ * call context is created and popped when the call finishes, so nested calls
+ * on the same thread (from a parameter putter or an onFinish action) simply
+ * get a frame above the outer one.
+ *
+ * The state of a stack is a {@code long[]} of the base address and the top,
+ * the thread local value is a class in bootstrap classloader to avoid
+ * memory leak. The memory is freed by the cleaner after the state is
+ * collected, which is after the thread dies.
+ *
+ * @author zhanhb
+ */
+final class ArgumentStack {
+
+    private static final NativeAccessor NA = NativeLoader.getAccessor();
+    private static final ThreadLocal<long[]> STACKS = ThreadLocal.withInitial(ArgumentStack::newStack);
+    @VisibleForTesting
+    static final int CAPACITY = 4096;
+    // enough for any argument type, as malloc does
+    private static final int ALIGNMENT = 16;
+    private static final int BASE = 0;
+    private static final int TOP = 1;
+
+    private static long[] newStack() {
+        long address = NA.allocateMemory(CAPACITY);
+        long[] stack = {address, 0};
+        try {
+            Cleaner.getInstance().register(stack, () -> NA.freeMemory(address));
+        } catch (Throwable t) {
+            // very rare, maybe OutOfMemoryError when register Cleanable
+            NA.freeMemory(address);
+            throw t;
+        }
+        return stack;
+    }
+
+    static long[] current() {
+        return STACKS.get();
+    }
+
+    static int mark(long[] stack) {
+        return (int) stack[TOP];
+    }
+
+    /**
+     * @param size size of the frame
+     * @return address of the frame, or 0 if there is not enough space
+     */
+    static long push(long[] stack, int size) {
+        int t = (int) stack[TOP];
+        int newTop = t + ((size + ALIGNMENT - 1) & -ALIGNMENT);
+        if (newTop > CAPACITY || newTop < t) {
+            return 0;
+        }
+        stack[TOP] = newTop;
+        return stack[BASE] + t;
+    }
+
+    static void reset(long[] stack, int mark) {
+        stack[TOP] = mark;
+    }
+
+    private ArgumentStack() {
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * @author zhanhb
+ */
+abstract class BaseCallContext implements CallContext {
+
+    // null if the last error is not saved
+    @Nullable
+    private IntConsumer lastErrorHandler;
+    private List<Runnable> onFinish;
+
+    BaseCallContext(@Nullable IntConsumer lastErrorHandler) {
+        this.lastErrorHandler = lastErrorHandler;
+    }
+
+    @Override
+    public final void setLastErrorHandler(IntConsumer lastErrorHandler) {
+        this.lastErrorHandler = Objects.requireNonNull(lastErrorHandler);
+    }
+
+    /**
+     * @return the object which receives the last error by upcall, null if the
+     * last error is not saved or saved by the native library.
+     */
+    @Nullable
+    final IntConsumer lastErrorHandler() {
+        IntConsumer handler = lastErrorHandler;
+        return handler == DefaultLastErrorHandler.INSTANCE && DefaultLastErrorHandler.NATIVE ? null : handler;
+    }
+
+    /**
+     * @return method id of {@link IntConsumer#accept(int)},
+     * {@link NativeAccessor#LAST_ERROR_THREAD_LOCAL} if the native library
+     * saves the last error, or 0 so that the native side skips saving.
+     */
+    final long lastErrorMethodId() {
+        IntConsumer handler = lastErrorHandler;
+        if (handler == null) {
+            return 0;
+        }
+        if (handler == DefaultLastErrorHandler.INSTANCE && DefaultLastErrorHandler.NATIVE) {
+            return NativeAccessor.LAST_ERROR_THREAD_LOCAL;
+        }
+        return DefaultLastErrorHandler.METHOD_ID;
+    }
+
+    @Override
+    public final BaseCallContext onFinish(Runnable r) {
+        Objects.requireNonNull(r);
+        List<Runnable> finish = this.onFinish;
+        if (finish == null) {
+            finish = new ArrayList<>(4);
+            this.onFinish = finish;
+        }
+        finish.add(r);
+        return this;
+    }
+
+    final void finish() {
+        List<Runnable> finish = this.onFinish;
+        if (finish != null) {
+            for (int i = finish.size() - 1; i >= 0; --i) {
+                finish.get(i).run();
+            }
+        }
+    }
+
+    @Override
+    public final <T> T invoke(RawConverter<T> rawConverter, long function) throws Throwable {
+        return rawConverter.convertRaw(invoke(function));
+    }
+
+}
@@ -19,6 +19,13 @@ abstract class BaseMemory extends Memory {
         }
     }
 
+    static void checkSliceRange(long capacity, long beginIndex, long endIndex) {
+        if (beginIndex < 0 || endIndex > capacity || beginIndex > endIndex) {
+            String msg = String.format("begin=%s,end=%s,capacity=%s", beginIndex, endIndex, capacity);
+            throw new IndexOutOfBoundsException(msg);
+        }
+    }
+
     /**
      * check if specified {@code size} can be put in the specified
      * {@code offset}
@@ -30,12 +30,14 @@ final class BuiltinType implements InternalType {
     private final long info;
     private final NativeType nativeType;
     private final int attr;
+    private final TypeAccessor typeAccessor;
 
     BuiltinType(long address, long info, NativeType nativeType, int attr) {
         this.address = address;
         this.info = info;
         this.nativeType = nativeType;
         this.attr = attr;
+        this.typeAccessor = TypeAccessor.of(nativeType);
     }
 
     @Override
@@ -78,6 +80,11 @@ final class BuiltinType implements InternalType {
         return (attr & MASK_INTEGRAL) != 0;
     }
 
+    @Override
+    public TypeAccessor typeAccessor() {
+        return typeAccessor;
+    }
+
     @Deprecated
     @Override
     public void do_not_implement_this_for_its_used_internally() {
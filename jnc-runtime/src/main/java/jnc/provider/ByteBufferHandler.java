@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.nio.ByteBuffer;
+import jnc.foreign.annotation.In;
+import jnc.foreign.annotation.Out;
+
+/**
+ * A direct buffer is passed as the address at its position, without copying.
+ * Read only buffers are rejected, as {@link DirectBufferPointer} does, unless
+ * the parameter is annotated with {@link In} only.
+ *
+ * @author zhanhb
+ */
+final class ByteBufferHandler implements ParameterHandlerInfo, ParameterPutter<ByteBuffer> {
+
+    private static final NativeAccessor NA = NativeLoader.getAccessor();
+
+    private final InternalType pointerType;
+    private final ParameterPutter<ByteBuffer> in = (context, index, obj) -> put(context, index, obj, true);
+
+    ByteBufferHandler(InternalType pointerType) {
+        this.pointerType = pointerType;
+    }
+
+    @Override
+    public ParameterPutter<ByteBuffer> getPutter(Class<?> type) {
+        return this;
+    }
+
+    @Override
+    public ParameterPutter<ByteBuffer> getPutter(Class<?> type, AnnotationContext ac) {
+        boolean isIn = ac.isAnnotationPresent(In.class);
+        boolean isOut = ac.isAnnotationPresent(Out.class);
+        return isIn && !isOut ? in : this;
+    }
+
+    @Override
+    public InternalType getType(Class<?> type, TypeFactory typeFactory, AnnotationContext ac) {
+        return pointerType;
+    }
+
+    @Override
+    public void doPut(CallContext context, int index, ByteBuffer obj) {
+        put(context, index, obj, false);
+    }
+
+    private void put(CallContext context, int index, ByteBuffer obj, boolean readOnly) {
+        if (obj == null) {
+            context.putLong(index, 0);
+            return;
+        }
+        if (!obj.isDirect()) {
+            throw new IllegalArgumentException("not a direct buffer");
+        }
+        if (!readOnly && obj.isReadOnly()) {
+            // the native function might write to it
+            throw new IllegalArgumentException("read only buffer");
+        }
+        context.putLong(index, NA.getAddress(obj) + obj.position());
+    }
+
+}
@@ -1,6 +1,8 @@
 package jnc.provider;
 
-interface CallContext {
+import java.util.function.IntConsumer;
+
+interface CallContext extends AutoCloseable {
 
     default void putBoolean(int i, boolean value) {
         putInt(i, value ? 1 : 0);
@@ -26,8 +28,36 @@ interface CallContext {
 
     void putDouble(int i, double value);
 
+    /**
+     * Pass the primitive array without copying.
+     *
+     * @param signature signature of the component type, such as {@code 'B'}
+     * for {@code byte[]}
+     * @return false if not supported, the array should be copied by the
+     * caller
+     */
+    default boolean putCriticalArray(int i, Object array, char signature) {
+        return false;
+    }
+
     CallContext onFinish(Runnable r);
 
+    /**
+     * Receive the last error of this call only, instead of the handler of
+     * the method.
+     */
+    void setLastErrorHandler(IntConsumer lastErrorHandler);
+
     <T> T invoke(RawConverter<T> rawConverter, long function) throws Throwable;
 
+    long invoke(long function) throws Throwable;
+
+    /**
+     * Release the argument frame if the call is abandoned before invoked.
+     * Invoking also releases it, calling this method more than once has no
+     * effect.
+     */
+    @Override
+    void close();
+
 }
@@ -15,20 +15,23 @@
  */
 package jnc.provider;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.function.IntConsumer;
 import javax.annotation.Nullable;
 import jnc.foreign.Pointer;
 
 /**
  * @author zhanhb
  */
-final class CifCallContext implements CallContext {
+final class CifCallContext extends BaseCallContext {
 
     private static final NativeAccessor NA = NativeLoader.getAccessor();
+    // null if the frame is on the argument stack
+    @Nullable
     private final Pointer parameter;
-    private List<Runnable> onFinish;
+    private final long base;
+    @Nullable
+    private long[] stack;
+    private final int mark;
     private final int[] offsets;
     private final InternalType[] params;
     // must keep a strong reference to cif,
@@ -37,8 +40,27 @@ final class CifCallContext implements CallContext {
     private final Pointer cif;
 
     CifCallContext(int parameterSize, InternalType[] params,
-            @Nullable int[] offsets, Pointer cif) {
-        this.parameter = parameterSize != 0 ? AllocatedMemory.allocate(parameterSize) : EmptyMemoryHolder.NOMEMORY;
+            @Nullable int[] offsets, Pointer cif, @Nullable IntConsumer lastErrorHandler) {
+        super(lastErrorHandler);
+        long[] s = null;
+        int m = 0;
+        long address = 0;
+        if (parameterSize != 0) {
+            s = ArgumentStack.current();
+            m = ArgumentStack.mark(s);
+            address = ArgumentStack.push(s, parameterSize);
+        }
+        if (address != 0) {
+            this.parameter = null;
+            this.base = address;
+            this.stack = s;
+        } else {
+            // frame too large for the argument stack
+            Pointer memory = parameterSize != 0 ? AllocatedMemory.allocate(parameterSize) : EmptyMemoryHolder.NOMEMORY;
+            this.parameter = memory;
+            this.base = memory.address();
+        }
+        this.mark = m;
         this.offsets = offsets;
         this.params = params;
         this.cif = cif;
@@ -46,51 +68,43 @@ final class CifCallContext implements CallContext {
 
     @Override
     public void putInt(int i, int value) {
-        parameter.putInt(offsets[i], params[i], value);
+        params[i].typeAccessor().putInt(base + offsets[i], value);
     }
 
     @Override
     public void putLong(int i, long value) {
-        parameter.putLong(offsets[i], params[i], value);
+        params[i].typeAccessor().putLong(base + offsets[i], value);
     }
 
     @Override
     public void putFloat(int i, float value) {
-        parameter.putFloat(offsets[i], params[i], value);
+        params[i].typeAccessor().putFloat(base + offsets[i], value);
     }
 
     @Override
     public void putDouble(int i, double value) {
-        parameter.putDouble(offsets[i], params[i], value);
+        params[i].typeAccessor().putDouble(base + offsets[i], value);
     }
 
     @Override
-    public CifCallContext onFinish(Runnable r) {
-        Objects.requireNonNull(r);
-        List<Runnable> finish = this.onFinish;
-        if (finish == null) {
-            finish = new ArrayList<>(offsets.length);
-            this.onFinish = finish;
-        }
-        finish.add(r);
-        return this;
-    }
-
-    private void finish() {
-        List<Runnable> finish = this.onFinish;
-        if (finish != null) {
-            for (int i = finish.size() - 1; i >= 0; --i) {
-                finish.get(i).run();
-            }
+    public long invoke(long function) {
+        try {
+            long result = NA.invoke(cif.address(), function, base,
+                    offsets, lastErrorHandler(), lastErrorMethodId());
+            finish();
+            return result;
+        } finally {
+            close();
         }
     }
 
     @Override
-    public <T> T invoke(RawConverter<T> rawConverter, long function) throws Throwable {
-        long result = NA.invoke(cif.address(), function, parameter.address(),
-                offsets, DefaultLastErrorHandler.INSTANCE, DefaultLastErrorHandler.METHOD_ID);
-        finish();
-        return rawConverter.convertRaw(result);
+    public void close() {
+        long[] s = stack;
+        if (s != null) {
+            stack = null;
+            ArgumentStack.reset(s, mark);
+        }
     }
 
 }
@@ -15,6 +15,14 @@
  */
 package jnc.provider;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntConsumer;
+import javax.annotation.Nullable;
+import jnc.foreign.NativeType;
 import jnc.foreign.Struct;
 import jnc.foreign.enums.CallingConvention;
 import jnc.foreign.support.LayoutBuilder;
@@ -31,6 +39,16 @@ final class CifContainer extends Struct {
     private static final int ALIGN_OF_FFI_CIF = (int) (CIF_INFO >> 32);
     private static final InternalType[] TYPE_EMPTY = {};
     private static final Address[] ADDRESS_EMPTY = {};
+    private static final boolean PACKED = NativeLoader.isSupported(
+            () -> NA.invokePacked(0, 0, new long[0], null, 0));
+    private static final boolean DIRECT = NativeLoader.isSupported(
+            () -> NA.invoke_J(0, null, 0));
+    private static final int MAX_DIRECT_PARAMETERS = 6;
+    private static final int POINTER_SIZE = DefaultForeign.INSTANCE.getTypeFactory()
+            .findByNativeType(NativeType.POINTER).size();
+    // prepared cifs shared by the functions of the same signature
+    private static final ConcurrentMap<Signature, Ref> CACHE = new ConcurrentHashMap<>(16);
+    private static final ReferenceQueue<CifContainer> QUEUE = new ReferenceQueue<>();
 
     private static int convention(CallingConvention callingConvention) {
         if (callingConvention == CallingConvention.STDCALL) {
@@ -42,21 +60,85 @@ final class CifContainer extends Struct {
     static CifContainer create(
             CallingConvention convention,
             InternalType resultType, InternalType... params) {
-        return new CifContainer(params).prepareInvoke(convention, resultType);
+        return create(convention, true, resultType, params);
+    }
+
+    /**
+     * @param allowDirect false if the function must be called with libffi,
+     * for example some arguments are passed with
+     * {@link CallContext#putCriticalArray(int, Object, char)}
+     */
+    static CifContainer create(
+            CallingConvention convention, boolean allowDirect,
+            InternalType resultType, InternalType[] params) {
+        boolean direct = allowDirect && DIRECT && convention != CallingConvention.STDCALL && isDirect(resultType, params);
+        Signature signature = new Signature(convention, direct, resultType, params);
+        purge();
+        Ref ref = CACHE.get(signature);
+        for (;;) {
+            CifContainer container = ref != null ? ref.get() : null;
+            if (container != null) {
+                return container;
+            }
+            container = new CifContainer(params, direct ? resultType : null).prepareInvoke(convention, resultType);
+            Ref newRef = new Ref(signature, container);
+            if (ref == null ? CACHE.putIfAbsent(signature, newRef) == null : CACHE.replace(signature, ref, newRef)) {
+                return container;
+            }
+            ref = CACHE.get(signature);
+        }
+    }
+
+    @SuppressWarnings("NestedAssignment")
+    private static void purge() {
+        Ref ref;
+        while ((ref = (Ref) QUEUE.poll()) != null) {
+            CACHE.remove(ref.signature, ref);
+        }
+    }
+
+    private static boolean isDirectType(InternalType type) {
+        int id = type.id();
+        return id == NativeAccessor.TYPE_POINTER
+                || type.isIntegral() && type.size() <= POINTER_SIZE;
+    }
+
+    /**
+     * Whether a function of this signature can be called without libffi,
+     * which requires all parameters and the result are integral types or
+     * pointers no larger than a pointer, so that they can be passed as
+     * {@code intptr_t}.
+     */
+    @VisibleForTesting
+    static boolean isDirect(InternalType resultType, InternalType[] params) {
+        if (params.length > MAX_DIRECT_PARAMETERS
+                || resultType.id() != NativeAccessor.TYPE_VOID && !isDirectType(resultType)) {
+            return false;
+        }
+        for (InternalType param : params) {
+            if (!isDirectType(param)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     static CifContainer createVariadic(
             CallingConvention convention, int fixedArgs,
             InternalType resultType, InternalType[] params) {
-        return new CifContainer(params).prepareInvokeVariadic(convention, fixedArgs, resultType);
+        return new CifContainer(params, null).prepareInvokeVariadic(convention, fixedArgs, resultType);
     }
 
     private final InternalType[] params;
     private final jnc.foreign.Pointer cif;
     private final int[] offsets;
     private final int parameterSize;
+    // not null if the function can be called directly
+    @Nullable
+    private final InternalType directRetType;
 
-    private CifContainer(InternalType[] params) {
+    private CifContainer(InternalType[] params, @Nullable InternalType directRetType) {
+        this.directRetType = directRetType;
         int length = params.length;
         Address[] atypes;
         if (length != 0) {
@@ -103,7 +185,86 @@ final class CifContainer extends Struct {
     }
 
     CallContext newCallContext() {
-        return new CifCallContext(parameterSize, params, offsets, cif);
+        return newCallContext(DefaultLastErrorHandler.INSTANCE);
+    }
+
+    /**
+     * @param lastErrorHandler receives the last error after the call, or
+     * null if the last error should not be saved.
+     */
+    CallContext newCallContext(@Nullable IntConsumer lastErrorHandler) {
+        InternalType direct = directRetType;
+        if (direct != null) {
+            return new StubCallContext(direct, params, lastErrorHandler);
+        }
+        if (PACKED) {
+            return new PackedCallContext(params, cif, lastErrorHandler);
+        }
+        return new CifCallContext(parameterSize, params, offsets, cif, lastErrorHandler);
+    }
+
+    @VisibleForTesting
+    static boolean isPacked() {
+        return PACKED;
+    }
+
+    /**
+     * Types are compared by the address of the ffi_type, so that aliases of
+     * the same type share the cif.
+     */
+    private static final class Signature {
+
+        private final CallingConvention convention;
+        private final boolean direct;
+        private final long resultType;
+        private final long[] params;
+        private final int hash;
+
+        Signature(CallingConvention convention, boolean direct, InternalType resultType, InternalType[] params) {
+            int length = params.length;
+            long[] addresses = new long[length];
+            for (int i = 0; i < length; ++i) {
+                addresses[i] = params[i].address();
+            }
+            this.convention = convention;
+            this.direct = direct;
+            this.resultType = resultType.address();
+            this.params = addresses;
+            this.hash = ((convention.hashCode() * 31 + Boolean.hashCode(direct)) * 31
+                    + Long.hashCode(this.resultType)) * 31 + Arrays.hashCode(addresses);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Signature)) {
+                return false;
+            }
+            Signature other = (Signature) obj;
+            return convention == other.convention
+                    && direct == other.direct
+                    && resultType == other.resultType
+                    && Arrays.equals(params, other.params);
+        }
+
+    }
+
+    private static final class Ref extends WeakReference<CifContainer> {
+
+        final Signature signature;
+
+        Ref(Signature signature, CifContainer container) {
+            super(container, QUEUE);
+            this.signature = signature;
+        }
+
     }
 
 }
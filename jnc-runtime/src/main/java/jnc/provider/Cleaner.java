@@ -17,21 +17,48 @@ package jnc.provider;
 
 import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import jnc.foreign.CleanerStatistics;
 
 /**
+ * Registrations are striped over several lists by thread, so threads
+ * registering concurrently seldom contend for the same lock.
+ *
+ * The actions of the shared instance run on a daemon thread in batches of
+ * {@code jnc.cleaner.batchSize} references. Before each batch the thread
+ * takes all the references queued, so the depth of the queue and the lag to
+ * free the references are known. The thread is started on demand
+ * and exits after idle for a while, so it doesn't keep the class loader
+ * alive forever. Other instances, or the shared one if the thread can't be
+ * started, run at most one batch of actions on the registering thread.
+ *
  * @author zhanhb
  */
-final class Cleaner {
+final class Cleaner implements CleanerStatistics {
+
+    private static final int DEFAULT_BATCH_SIZE = 64;
+    private static final long IDLE_TIMEOUT_MILLIS = 60000;
+    private static final int MAX_STRIPES = 64;
 
     private static final Cleaner INSTANCE;
     @SuppressWarnings("unused")
     private static final Object FINALIZER_HOLDER;
 
     static {
-        Ref list = new Ref();
-        INSTANCE = new Cleaner(list);
-        Runnable onFinalize = list::cleanAll;
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = Math.min(Integer.highestOneBit(Math.max(processors * 2 - 1, 1)), MAX_STRIPES);
+        Ref[] lists = new Ref[stripes];
+        for (int i = 0; i < stripes; ++i) {
+            lists[i] = new Ref();
+        }
+        int batchSize = Math.max(Integer.getInteger("jnc.cleaner.batchSize", DEFAULT_BATCH_SIZE), 1);
+        Cleaner cleaner = new Cleaner(lists, batchSize, true);
+        INSTANCE = cleaner;
+        Runnable onFinalize = cleaner::cleanAll;
         FINALIZER_HOLDER = new Object() {
             @Override
             @SuppressWarnings({"deprecation", "FinalizeDeclaration"})
@@ -50,25 +77,175 @@ final class Cleaner {
     }
 
     private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
-    private final Ref list;
+    private final Ref[] lists;
+    private final int batchSize;
+    private final boolean daemon;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder registered = new LongAdder();
+    private final LongAdder cleaned = new LongAdder();
+    // taken from the queue and not run yet
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile long lastBatchNanos;
 
     @VisibleForTesting
     Cleaner(Ref list) {
-        this.list = list;
+        this(new Ref[]{list}, DEFAULT_BATCH_SIZE, false);
+    }
+
+    /**
+     * @param lists the stripes, length must be a power of two
+     * @param daemon whether to run the actions on a daemon thread
+     */
+    @VisibleForTesting
+    Cleaner(Ref[] lists, int batchSize, boolean daemon) {
+        this.lists = lists.clone();
+        this.batchSize = batchSize;
+        this.daemon = daemon;
     }
 
-    @SuppressWarnings("NestedAssignment")
     Runnable register(Object obj, Runnable action) {
         Objects.requireNonNull(obj, "obj");
         Objects.requireNonNull(action, "action");
+        if (!daemon || !ensureRunning()) {
+            Ref ref = (Ref) queue.poll();
+            if (ref != null) {
+                ArrayDeque<Ref> batch = new ArrayDeque<>();
+                drain(ref, batch, batchSize);
+                processBatch(batch);
+            }
+        }
+        Ref list = lists[(int) Thread.currentThread().getId() & (lists.length - 1)];
+        Ref ref = new Ref(obj, this, list, action);
+        registered.increment();
+        return ref;
+    }
+
+    private boolean ensureRunning() {
+        if (running.get() || !running.compareAndSet(false, true)) {
+            return true;
+        }
+        try {
+            Thread thread = new Thread(this::processQueue, "jnc-cleaner");
+            thread.setDaemon(true);
+            thread.setContextClassLoader(null);
+            thread.start();
+            return true;
+        } catch (Throwable t) {
+            running.set(false);
+            return false;
+        }
+    }
+
+    private void processQueue() {
+        ArrayDeque<Ref> backlog = new ArrayDeque<>();
+        while (true) {
+            Ref ref;
+            try {
+                ref = (Ref) queue.remove(IDLE_TIMEOUT_MILLIS);
+            } catch (InterruptedException ex) {
+                continue;
+            }
+            if (ref == null) {
+                running.set(false);
+                // a reference might be enqueued before the flag is cleared
+                ref = (Ref) queue.poll();
+                if (ref == null || !running.compareAndSet(false, true)) {
+                    if (ref != null) {
+                        drain(ref, backlog, batchSize);
+                        processBatch(backlog);
+                    }
+                    return;
+                }
+            }
+            drain(ref, backlog, Integer.MAX_VALUE);
+            while (!backlog.isEmpty()) {
+                processBatch(backlog);
+                // take the references queued while running the batch
+                Ref next = (Ref) queue.poll();
+                if (next != null) {
+                    drain(next, backlog, Integer.MAX_VALUE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Take at most {@code max} references from the queue, starting with
+     * {@code first}, and stamp them.
+     */
+    @SuppressWarnings("NestedAssignment")
+    private void drain(Ref first, ArrayDeque<Ref> backlog, int max) {
+        long now = System.nanoTime();
+        int count = 0;
+        Ref ref = first;
+        do {
+            ref.dequeuedNanos = now;
+            backlog.addLast(ref);
+            ++count;
+        } while (count < max && (ref = (Ref) queue.poll()) != null);
+        queued.addAndGet(count);
+    }
+
+    @SuppressWarnings("NestedAssignment")
+    private void processBatch(ArrayDeque<Ref> backlog) {
+        long start = System.nanoTime();
+        // the first one waits the longest
+        long dequeued = backlog.getFirst().dequeuedNanos;
+        int count = 0;
         Ref ref;
-        while ((ref = (Ref) queue.poll()) != null) {
+        while (count < batchSize && (ref = backlog.pollFirst()) != null) {
             try {
                 ref.run();
             } catch (Throwable ignored) {
             }
+            ++count;
+        }
+        queued.addAndGet(-count);
+        long end = System.nanoTime();
+        maxLagNanos.accumulateAndGet(end - dequeued, Math::max);
+        lastBatchSize = count;
+        lastBatchNanos = end - start;
+    }
+
+    /**
+     * Run all the actions registered and not run yet.
+     */
+    void cleanAll() {
+        for (Ref list : lists) {
+            list.cleanAll();
         }
-        return new Ref(obj, this, action);
+    }
+
+    @Override
+    public long getPendingCount() {
+        return registered.sum() - cleaned.sum();
+    }
+
+    @Override
+    public long getQueuedCount() {
+        return queued.get();
+    }
+
+    @Override
+    public long getMaxLagNanos() {
+        return maxLagNanos.getAndSet(0);
+    }
+
+    @Override
+    public long getCleanedCount() {
+        return cleaned.sum();
+    }
+
+    @Override
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    @Override
+    public long getLastBatchNanos() {
+        return lastBatchNanos;
     }
 
     @VisibleForTesting
@@ -77,18 +254,22 @@ final class Cleaner {
 
         private final Runnable action;
         private final Ref list;
+        // counts the actions run
+        private final LongAdder cleaned;
         // volatile is not necessary
         // all the operations are within a synchronized block,
         // even the order or the assignment rearranged,
         // we can also get the result as expected.
         private Ref prev, next;
+        // accessed by the thread processing the queue only
+        long dequeuedNanos;
 
         @SuppressWarnings("LeakingThisInConstructor")
-        private Ref(Object referent, Cleaner cleaner, Runnable action) {
+        private Ref(Object referent, Cleaner cleaner, Ref list, Runnable action) {
             super(referent, cleaner.queue);
-            Ref list = cleaner.list;
             this.action = action;
             this.list = list;
+            this.cleaned = cleaner.cleaned;
 
             //noinspection SynchronizationOnLocalVariableOrMethodParameter
             synchronized (list) {
@@ -106,6 +287,7 @@ final class Cleaner {
             this.next = this;
             this.action = null;
             this.list = this;
+            this.cleaned = null;
         }
 
         @VisibleForTesting
@@ -125,6 +307,9 @@ final class Cleaner {
         @Override
         public void run() {
             if (remove()) {
+                // counted whether run by the queue, explicitly, or by cleanAll
+                //noinspection ConstantConditions
+                cleaned.increment();
                 super.clear();
                 //noinspection ConstantConditions
                 action.run();
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import jnc.foreign.Arena;
+import jnc.foreign.Pointer;
+import jnc.foreign.Struct;
+
+/**
+ * Bump allocates from chunks of {@link #CHUNK_SIZE} bytes, large allocations
+ * get a chunk of their own. Only the arena is registered to the cleaner,
+ * every pointer allocated keeps a reference of the arena.
+ *
+ * @author zhanhb
+ */
+@ParametersAreNonnullByDefault
+final class DefaultArena implements Arena {
+
+    @VisibleForTesting
+    static final int CHUNK_SIZE = 64 * 1024;
+    // larger allocations get a chunk of their own, waste at most a quarter
+    private static final long MAX_SHARED = CHUNK_SIZE / 4;
+    // as malloc does
+    private static final long ALIGNMENT = 16;
+    private static final NativeAccessor NA = NativeLoader.getAccessor();
+
+    private final Chunks chunks = new Chunks();
+    // free space of current chunk
+    private long top;
+    private long limit;
+
+    @SuppressWarnings("LeakingThisInConstructor")
+    DefaultArena() {
+        Cleaner.getInstance().register(this, chunks);
+    }
+
+    void checkOpen() {
+        if (chunks.closed) {
+            throw new IllegalStateException("arena closed");
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Pointer allocate(long size) {
+        return allocateWithAlign(size, ALIGNMENT);
+    }
+
+    @Nonnull
+    @Override
+    public synchronized Pointer allocateWithAlign(long size, long alignment) {
+        if (size < 0 || alignment <= 0 || (alignment & (alignment - 1)) != 0) {
+            throw new IllegalArgumentException("size=" + size + ",alignment=" + alignment);
+        }
+        checkOpen();
+        long mask = alignment - 1;
+        long address = (top + mask) & ~mask;
+        if (top == 0 || address > limit - size) {
+            long padding = Math.max(alignment - ALIGNMENT, 0);
+            if (size + padding > MAX_SHARED) {
+                long chunk = chunks.add(size + padding);
+                address = (chunk + mask) & ~mask;
+            } else {
+                long chunk = chunks.add(CHUNK_SIZE);
+                address = (chunk + mask) & ~mask;
+                limit = chunk + CHUNK_SIZE;
+                top = address + size;
+            }
+        } else {
+            top = address + size;
+        }
+        return new ArenaMemory(this, new SizedDirectMemory(address, size));
+    }
+
+    @Nonnull
+    @Override
+    public Pointer allocateString(String string, Charset charset) {
+        byte[] bytes = string.getBytes(charset);
+        int terminatorLength = CharsetUtil.getTerminatorLength(charset);
+        Pointer memory = allocate(bytes.length + terminatorLength);
+        memory.putString(0, string, charset);
+        return memory;
+    }
+
+    @Nonnull
+    @Override
+    public <T extends Struct> T allocateStruct(T struct) {
+        Objects.requireNonNull(struct, "struct");
+        struct.setMemory(allocateWithAlign(struct.size(), struct.alignment()));
+        return struct;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !chunks.closed;
+    }
+
+    @Override
+    public void close() {
+        chunks.run();
+    }
+
+    private static final class Chunks implements Runnable {
+
+        volatile boolean closed;
+        private long[] addresses = new long[4];
+        private int count;
+
+        synchronized long add(long size) {
+            if (closed) {
+                throw new IllegalStateException("arena closed");
+            }
+            long address = NA.allocateMemory(size);
+            if (count == addresses.length) {
+                addresses = Arrays.copyOf(addresses, count * 2);
+            }
+            addresses[count++] = address;
+            return address;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (!closed) {
+                closed = true;
+                for (int i = 0; i < count; ++i) {
+                    NA.freeMemory(addresses[i]);
+                }
+                addresses = null;
+                count = 0;
+            }
+        }
+    }
+
+}
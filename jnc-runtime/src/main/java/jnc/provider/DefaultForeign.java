@@ -1,16 +1,19 @@
 package jnc.provider;
 
 import java.lang.reflect.InvocationHandler;
+import java.util.Map;
 import java.util.Objects;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import jnc.foreign.CleanerStatistics;
 import jnc.foreign.Foreign;
 import jnc.foreign.LoadOptions;
 import jnc.foreign.MemoryManager;
 import jnc.foreign.NativeType;
 import jnc.foreign.Type;
 import jnc.foreign.enums.TypeAlias;
+import jnc.foreign.support.StructField;
 import jnc.foreign.support.TypeHandler;
 
 @ParametersAreNonnullByDefault
@@ -55,10 +58,12 @@ enum DefaultForeign implements Foreign {
         Objects.requireNonNull(interfaceClass, "interfaceClass");
         Objects.requireNonNull(loadOptions, "loadOptions");
         try {
-            return InvocationLibrary.create(interfaceClass, NativeLibrary.open(DefaultPlatform.INSTANCE, libname, 0),
+            int mode = loadOptions.isEager() ? NativeAccessor.RTLD_NOW | NativeAccessor.RTLD_LOCAL : 0;
+            return InvocationLibrary.create(interfaceClass, NativeLibrary.open(DefaultPlatform.INSTANCE, libname, mode),
                     loadOptions, typeFactory, typeHandlerFactory);
         } catch (Throwable t) {
-            if (!loadOptions.isFailImmediately()) {
+            // eager binding always fails fast
+            if (!loadOptions.isFailImmediately() && !loadOptions.isEager()) {
                 return ProxyBuilder.builder().orThrow(t).newInstance(interfaceClass);
             }
             throw t;
@@ -76,6 +81,12 @@ enum DefaultForeign implements Foreign {
         return DefaultMemoryManager.INSTANCE;
     }
 
+    @Nonnull
+    @Override
+    public MemoryManager getPooledMemoryManager() {
+        return PooledMemoryManager.INSTANCE;
+    }
+
     @Nonnull
     @Override
     public Alias findType(TypeAlias alias) {
@@ -103,4 +114,18 @@ enum DefaultForeign implements Foreign {
         return DefaultLastErrorHandler.get();
     }
 
+    @Nonnull
+    @Override
+    public <T> T newStructAccessor(Class<T> accessorInterface, Map<String, StructField> fields) {
+        Objects.requireNonNull(accessorInterface, "accessorInterface");
+        Objects.requireNonNull(fields, "fields");
+        return StructAccessorGenerator.newInstance(accessorInterface, fields);
+    }
+
+    @Nonnull
+    @Override
+    public CleanerStatistics getCleanerStatistics() {
+        return Cleaner.getInstance();
+    }
+
 }
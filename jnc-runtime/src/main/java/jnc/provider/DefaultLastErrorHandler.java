@@ -10,6 +10,12 @@ enum DefaultLastErrorHandler implements IntConsumer {
 
     public static final long METHOD_ID;
 
+    /**
+     * Whether the native library saves the last error itself, then the last
+     * error is read only when it's required, no upcall after the calls.
+     */
+    static final boolean NATIVE = NativeLoader.isSupported(NativeLoader.getAccessor()::getLastError);
+
     static {
         try {
             Method method = IntConsumer.class.getMethod("accept", int.class);
@@ -25,6 +31,9 @@ enum DefaultLastErrorHandler implements IntConsumer {
     private static final ThreadLocal<AtomicInteger> THREAD_LOCAL = ThreadLocal.withInitial(AtomicInteger::new);
 
     static int get() {
+        if (NATIVE) {
+            return NativeLoader.getAccessor().getLastError();
+        }
         return THREAD_LOCAL.get().get();
     }
 
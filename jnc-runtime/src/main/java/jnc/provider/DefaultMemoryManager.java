@@ -1,8 +1,14 @@
 package jnc.provider;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
+import jnc.foreign.Arena;
+import jnc.foreign.MappedPointer;
 import jnc.foreign.MemoryManager;
 import jnc.foreign.Pointer;
 
@@ -17,10 +23,30 @@ enum DefaultMemoryManager implements MemoryManager {
         return AllocatedMemory.allocate(size);
     }
 
+    @Nonnull
+    @Override
+    public Pointer allocateUninitialized(long size) {
+        return AllocatedMemory.allocateUninitialized(size);
+    }
+
+    @Nonnull
+    @Override
+    public Pointer reallocate(Pointer pointer, long newSize) {
+        if (!(pointer instanceof AllocatedMemory)) {
+            throw new IllegalArgumentException("pointer is not allocated by this memory manager");
+        }
+        return ((AllocatedMemory) pointer).reallocate(newSize);
+    }
+
     @Nonnull
     @Override
     public Pointer allocateWithAlign(long size, long alignment) {
-        return AllocatedMemory.allocate(size);
+        return AllocatedMemory.allocate(size, alignment);
+    }
+
+    @Override
+    public int getPageSize() {
+        return AllocatedMemory.PAGE_SIZE;
     }
 
     @Nonnull
@@ -28,9 +54,28 @@ enum DefaultMemoryManager implements MemoryManager {
     public Pointer allocateString(String string, Charset charset) {
         byte[] bytes = string.getBytes(charset);
         int terminatorLength = CharsetUtil.getTerminatorLength(charset);
-        AllocatedMemory memory = AllocatedMemory.allocate(bytes.length + terminatorLength);
+        // fully overwritten by the string and terminator
+        AllocatedMemory memory = AllocatedMemory.allocateUninitialized(bytes.length + terminatorLength);
         memory.putString(0, string, charset);
         return memory;
     }
 
+    @Nonnull
+    @Override
+    public Pointer wrap(ByteBuffer buffer) {
+        return DirectBufferPointer.wrap(buffer);
+    }
+
+    @Nonnull
+    @Override
+    public MappedPointer map(Path path, long offset, long length, FileChannel.MapMode mode) throws IOException {
+        return MappedMemory.map(path, offset, length, mode);
+    }
+
+    @Nonnull
+    @Override
+    public Arena newArena() {
+        return new DefaultArena();
+    }
+
 }
@@ -14,6 +14,28 @@ final class DirectBufferPointer extends BaseMemory {
         return new DirectBufferPointer(buffer, address);
     }
 
+    static Memory wrap(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("not a direct buffer");
+        }
+        if (buffer.isReadOnly()) {
+            throw new IllegalArgumentException("read only buffer");
+        }
+        long address = NativeLoader.getAccessor().getAddress(buffer);
+        // the duplicate keeps a reference of the buffer
+        ByteBuffer duplicate = buffer.duplicate().order(ByteOrder.nativeOrder());
+        duplicate.clear();
+        return new DirectBufferPointer(duplicate, address);
+    }
+
+    // the capacity of a buffer never exceeds Integer.MAX_VALUE
+    private static int index(long offset) {
+        if (offset != (int) offset) {
+            throw new IndexOutOfBoundsException("offset=" + offset);
+        }
+        return (int) offset;
+    }
+
     private final ByteBuffer buffer;
 
     private DirectBufferPointer(ByteBuffer buffer, long address) {
@@ -183,4 +205,71 @@ final class DirectBufferPointer extends BaseMemory {
         return new DirectBufferPointer(rewind.slice().order(rewind.order()), accessor().address() + beginIndex);
     }
 
+
+    @Override
+    public void putByte(long offset, byte value) {
+        putByte(index(offset), value);
+    }
+
+    @Override
+    public void putShort(long offset, short value) {
+        putShort(index(offset), value);
+    }
+
+    @Override
+    public void putInt(long offset, int value) {
+        putInt(index(offset), value);
+    }
+
+    @Override
+    public void putLong(long offset, long value) {
+        putLong(index(offset), value);
+    }
+
+    @Override
+    public void putFloat(long offset, float value) {
+        putFloat(index(offset), value);
+    }
+
+    @Override
+    public void putDouble(long offset, double value) {
+        putDouble(index(offset), value);
+    }
+
+    @Override
+    public byte getByte(long offset) {
+        return getByte(index(offset));
+    }
+
+    @Override
+    public short getShort(long offset) {
+        return getShort(index(offset));
+    }
+
+    @Override
+    public int getInt(long offset) {
+        return getInt(index(offset));
+    }
+
+    @Override
+    public long getLong(long offset) {
+        return getLong(index(offset));
+    }
+
+    @Override
+    public float getFloat(long offset) {
+        return getFloat(index(offset));
+    }
+
+    @Override
+    public double getDouble(long offset) {
+        return getDouble(index(offset));
+    }
+
+    @Nonnull
+    @Override
+    public Memory slice(long beginIndex, long endIndex) {
+        return slice(index(beginIndex), index(endIndex));
+    }
+
 }
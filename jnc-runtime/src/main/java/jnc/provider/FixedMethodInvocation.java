@@ -15,6 +15,8 @@
  */
 package jnc.provider;
 
+import java.util.function.IntConsumer;
+import javax.annotation.Nullable;
 import jnc.foreign.enums.CallingConvention;
 
 final class FixedMethodInvocation implements MethodInvocation {
@@ -24,6 +26,9 @@ final class FixedMethodInvocation implements MethodInvocation {
     private final CifContainer container;
     private final RawConverter<?> rawConverter;
     private final long function;
+    private final InternalType retType;
+    @Nullable
+    private final IntConsumer lastErrorHandler;
 
     FixedMethodInvocation(
             ParameterPutter<?>[] putters,
@@ -31,12 +36,16 @@ final class FixedMethodInvocation implements MethodInvocation {
             RawConverter<?> rawConverter,
             long function,
             InternalType retType,
-            InternalType[] ptypes) {
+            InternalType[] ptypes,
+            boolean critical,
+            @Nullable IntConsumer lastErrorHandler) {
         this.convention = convention;
         this.putters = putters;
-        this.container = CifContainer.create(convention, retType, ptypes);
+        this.container = CifContainer.create(convention, !critical, retType, ptypes);
         this.rawConverter = rawConverter;
         this.function = function;
+        this.retType = retType;
+        this.lastErrorHandler = lastErrorHandler;
     }
 
     @Override
@@ -49,11 +58,38 @@ final class FixedMethodInvocation implements MethodInvocation {
         @SuppressWarnings(value = "unchecked")
         ParameterPutter<Object>[] h = (ParameterPutter<Object>[]) putters;
         int length = h.length;
-        CallContext context = container.newCallContext();
-        for (int i = 0; i < length; i++) {
-            h[i].doPut(context, i, args[i]);
+        try (CallContext context = container.newCallContext(lastErrorHandler)) {
+            for (int i = 0; i < length; i++) {
+                h[i].doPut(context, i, args[i]);
+            }
+            return context.invoke(rawConverter, function);
         }
-        return context.invoke(rawConverter, function);
+    }
+
+    InternalType getReturnType() {
+        return retType;
+    }
+
+    boolean hasRawConverter() {
+        return rawConverter != null;
+    }
+
+    CallContext newCallContext() {
+        return container.newCallContext(lastErrorHandler);
+    }
+
+    void put(CallContext context, int index, Object value) {
+        @SuppressWarnings("unchecked")
+        ParameterPutter<Object> putter = (ParameterPutter<Object>) putters[index];
+        putter.doPut(context, index, value);
+    }
+
+    long invokeRaw(CallContext context) throws Throwable {
+        return context.invoke(function);
+    }
+
+    Object convert(long result) throws Throwable {
+        return rawConverter.convertRaw(result);
     }
 
 }
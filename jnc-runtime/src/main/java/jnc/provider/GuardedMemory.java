@@ -0,0 +1,371 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.nio.charset.Charset;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import jnc.foreign.Pointer;
+
+/**
+ * Memory that may be released explicitly. Each access checks the memory is
+ * still open before delegating to the target, so access after it is released
+ * fails fast instead of touching freed memory. Writes to read only memory
+ * throw {@link java.nio.ReadOnlyBufferException}.
+ *
+ * @author zhanhb
+ */
+@ParametersAreNonnullByDefault
+abstract class GuardedMemory extends Memory {
+
+    private final SizedDirectMemory target;
+
+    GuardedMemory(SizedDirectMemory target) {
+        super(target.accessor());
+        this.target = target;
+    }
+
+    /**
+     * @throws IllegalStateException if the memory has been released
+     */
+    abstract void checkOpen();
+
+    abstract GuardedMemory newSlice(SizedDirectMemory target);
+
+    private SizedDirectMemory target() {
+        checkOpen();
+        return target;
+    }
+
+    private SizedDirectMemory writable() {
+        checkWritable();
+        return target();
+    }
+
+    @Override
+    public final long address() {
+        return target().address();
+    }
+
+    @Override
+    public final int size() {
+        return target.size();
+    }
+
+    @Override
+    public final long capacity() {
+        return target.capacity();
+    }
+
+    /**
+     * Do not rely on the String presentation, maybe changed in the future.
+     */
+    @Override
+    public final String toString() {
+        return "[" + getClass().getSimpleName() + "#" + Long.toHexString(target.address()) + ",size=" + target.capacity() + "]";
+    }
+
+    @Override
+    public final byte getByte(int offset) {
+        return target().getByte(offset);
+    }
+
+    @Override
+    public final void putByte(int offset, byte value) {
+        writable().putByte(offset, value);
+    }
+
+    @Override
+    public final short getShort(int offset) {
+        return target().getShort(offset);
+    }
+
+    @Override
+    public final void putShort(int offset, short value) {
+        writable().putShort(offset, value);
+    }
+
+    @Override
+    public final int getInt(int offset) {
+        return target().getInt(offset);
+    }
+
+    @Override
+    public final void putInt(int offset, int value) {
+        writable().putInt(offset, value);
+    }
+
+    @Override
+    public final long getLong(int offset) {
+        return target().getLong(offset);
+    }
+
+    @Override
+    public final void putLong(int offset, long value) {
+        writable().putLong(offset, value);
+    }
+
+    @Override
+    public final float getFloat(int offset) {
+        return target().getFloat(offset);
+    }
+
+    @Override
+    public final void putFloat(int offset, float value) {
+        writable().putFloat(offset, value);
+    }
+
+    @Override
+    public final double getDouble(int offset) {
+        return target().getDouble(offset);
+    }
+
+    @Override
+    public final void putDouble(int offset, double value) {
+        writable().putDouble(offset, value);
+    }
+
+    @Override
+    public final byte getByte(long offset) {
+        return target().getByte(offset);
+    }
+
+    @Override
+    public final void putByte(long offset, byte value) {
+        writable().putByte(offset, value);
+    }
+
+    @Override
+    public final short getShort(long offset) {
+        return target().getShort(offset);
+    }
+
+    @Override
+    public final void putShort(long offset, short value) {
+        writable().putShort(offset, value);
+    }
+
+    @Override
+    public final int getInt(long offset) {
+        return target().getInt(offset);
+    }
+
+    @Override
+    public final void putInt(long offset, int value) {
+        writable().putInt(offset, value);
+    }
+
+    @Override
+    public final long getLong(long offset) {
+        return target().getLong(offset);
+    }
+
+    @Override
+    public final void putLong(long offset, long value) {
+        writable().putLong(offset, value);
+    }
+
+    @Override
+    public final float getFloat(long offset) {
+        return target().getFloat(offset);
+    }
+
+    @Override
+    public final void putFloat(long offset, float value) {
+        writable().putFloat(offset, value);
+    }
+
+    @Override
+    public final double getDouble(long offset) {
+        return target().getDouble(offset);
+    }
+
+    @Override
+    public final void putDouble(long offset, double value) {
+        writable().putDouble(offset, value);
+    }
+
+    @Override
+    public final void getBytes(int offset, byte[] bytes, int off, int len) {
+        target().getBytes(offset, bytes, off, len);
+    }
+
+    @Override
+    public final void putBytes(int offset, byte[] bytes, int off, int len) {
+        writable().putBytes(offset, bytes, off, len);
+    }
+
+    @Override
+    public final void getShortArray(int offset, short[] array, int off, int len) {
+        target().getShortArray(offset, array, off, len);
+    }
+
+    @Override
+    public final void putShortArray(int offset, short[] array, int off, int len) {
+        writable().putShortArray(offset, array, off, len);
+    }
+
+    @Override
+    public final void getCharArray(int offset, char[] array, int off, int len) {
+        target().getCharArray(offset, array, off, len);
+    }
+
+    @Override
+    public final void putCharArray(int offset, char[] array, int off, int len) {
+        writable().putCharArray(offset, array, off, len);
+    }
+
+    @Override
+    public final void getIntArray(int offset, int[] array, int off, int len) {
+        target().getIntArray(offset, array, off, len);
+    }
+
+    @Override
+    public final void putIntArray(int offset, int[] array, int off, int len) {
+        writable().putIntArray(offset, array, off, len);
+    }
+
+    @Override
+    public final void getLongArray(int offset, long[] array, int off, int len) {
+        target().getLongArray(offset, array, off, len);
+    }
+
+    @Override
+    public final void putLongArray(int offset, long[] array, int off, int len) {
+        writable().putLongArray(offset, array, off, len);
+    }
+
+    @Override
+    public final void getFloatArray(int offset, float[] array, int off, int len) {
+        target().getFloatArray(offset, array, off, len);
+    }
+
+    @Override
+    public final void putFloatArray(int offset, float[] array, int off, int len) {
+        writable().putFloatArray(offset, array, off, len);
+    }
+
+    @Override
+    public final void getDoubleArray(int offset, double[] array, int off, int len) {
+        target().getDoubleArray(offset, array, off, len);
+    }
+
+    @Override
+    public final void putDoubleArray(int offset, double[] array, int off, int len) {
+        writable().putDoubleArray(offset, array, off, len);
+    }
+
+    @Nonnull
+    @Override
+    public final String getStringUTF(int offset) {
+        return target().getStringUTF(offset);
+    }
+
+    @Override
+    public final void putStringUTF(int offset, String value) {
+        writable().putStringUTF(offset, value);
+    }
+
+    @Override
+    final void putString16(int offset, String value) {
+        writable().putString16(offset, value);
+    }
+
+    @Override
+    final String getString16(int offset) {
+        return target().getString16(offset);
+    }
+
+    @Override
+    final void putStringImpl(int offset, byte[] bytes, int terminatorLength) {
+        writable().putStringImpl(offset, bytes, terminatorLength);
+    }
+
+    @Override
+    final String getStringImpl(int offset, Charset charset) {
+        return target().getStringImpl(offset, charset);
+    }
+
+    @Override
+    final void putInt(int offset, InternalType internalType, int value) {
+        writable().putInt(offset, internalType, value);
+    }
+
+    @Override
+    final void putLong(int offset, InternalType internalType, long value) {
+        writable().putLong(offset, internalType, value);
+    }
+
+    @Override
+    final void putFloat(int offset, InternalType internalType, float value) {
+        writable().putFloat(offset, internalType, value);
+    }
+
+    @Override
+    final void putDouble(int offset, InternalType internalType, double value) {
+        writable().putDouble(offset, internalType, value);
+    }
+
+    @Override
+    final boolean getBoolean(int offset, InternalType internalType) {
+        return target().getBoolean(offset, internalType);
+    }
+
+    @Override
+    final int getInt(int offset, InternalType internalType) {
+        return target().getInt(offset, internalType);
+    }
+
+    @Override
+    final long getLong(int offset, InternalType internalType) {
+        return target().getLong(offset, internalType);
+    }
+
+    @Override
+    final float getFloat(int offset, InternalType internalType) {
+        return target().getFloat(offset, internalType);
+    }
+
+    @Override
+    final double getDouble(int offset, InternalType internalType) {
+        return target().getDouble(offset, internalType);
+    }
+
+    @Nullable
+    @Override
+    public final Pointer getPointer(int offset) {
+        return target().getPointer(offset);
+    }
+
+    @Override
+    public final void putPointer(int offset, @Nullable Pointer pointer) {
+        writable().putPointer(offset, pointer);
+    }
+
+    @Nonnull
+    @Override
+    public final GuardedMemory slice(int beginIndex, int endIndex) {
+        return newSlice(target().slice(beginIndex, endIndex));
+    }
+
+    @Nonnull
+    @Override
+    public final GuardedMemory slice(long beginIndex, long endIndex) {
+        return newSlice(target().slice(beginIndex, endIndex));
+    }
+
+}
@@ -21,4 +21,6 @@ interface InternalType extends Type, NativeObject {
 
     boolean isIntegral();
 
+    TypeAccessor typeAccessor();
+
 }
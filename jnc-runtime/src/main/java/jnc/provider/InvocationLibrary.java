@@ -1,7 +1,18 @@
 package jnc.provider;
 
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import jnc.foreign.LastErrorHolder;
 import jnc.foreign.LoadOptions;
+import jnc.foreign.annotation.Critical;
+import jnc.foreign.annotation.IgnoreLastError;
 import jnc.foreign.enums.CallingConvention;
 
 final class InvocationLibrary<T> {
@@ -14,24 +25,73 @@ final class InvocationLibrary<T> {
     private final Class<T> interfaceClass;
     private final Library library;
     private final CallingConvention classConvention;
+    private final boolean classIgnoreLastError;
     private final TypeHandlerFactory typeHandlerFactory;
     private final TypeFactory typeFactory;
+    private final boolean eager;
+    private final boolean parallel;
+    @Nullable
+    private final ObjLongConsumer<Method> bindListener;
 
     @VisibleForTesting
     InvocationLibrary(Class<T> interfaceClass, Library library, LoadOptions options,
             TypeFactory typeFactory, TypeHandlerFactory typeHandlerFactory) {
         this.interfaceClass = interfaceClass;
+        AnnotationContext classContext = AnnotationContext.newContext(interfaceClass);
         jnc.foreign.annotation.CallingConvention classConventionAnnotation
-                = AnnotationContext.newContext(interfaceClass)
-                        .getAnnotation(jnc.foreign.annotation.CallingConvention.class);
+                = classContext.getAnnotation(jnc.foreign.annotation.CallingConvention.class);
+        IgnoreLastError classIgnoreLastErrorAnnotation = classContext.getAnnotation(IgnoreLastError.class);
         this.library = library;
         this.classConvention = classConventionAnnotation != null ? classConventionAnnotation.value() : options.getCallingConvention();
+        this.classIgnoreLastError = classIgnoreLastErrorAnnotation != null ? classIgnoreLastErrorAnnotation.value() : options.isIgnoreLastError();
         this.typeFactory = typeFactory;
         this.typeHandlerFactory = typeHandlerFactory;
+        this.eager = options.isEager();
+        this.parallel = options.isParallel();
+        this.bindListener = options.getBindListener();
     }
 
     private T create() {
-        return ProxyBuilder.builder().otherwise(this::find).newInstance(interfaceClass);
+        Function<Method, MethodInvocation> resolver = this::find;
+        ObjLongConsumer<Method> listener = bindListener;
+        if (listener != null) {
+            Function<Method, MethodInvocation> find = resolver;
+            resolver = method -> {
+                long start = System.nanoTime();
+                MethodInvocation invocation = find.apply(method);
+                listener.accept(method, System.nanoTime() - start);
+                return invocation;
+            };
+        }
+        if (eager) {
+            resolver = resolveAll(resolver);
+        }
+        if (interfaceClass.getClassLoader() != null) {
+            try {
+                return InvokerClassGenerator.newInstance(interfaceClass, resolver);
+            } catch (RuntimeException | LinkageError ignored) {
+                // class can't be defined in the package of the interface
+            }
+        }
+        return ProxyBuilder.builder().otherwise(resolver::apply).newInstance(interfaceClass);
+    }
+
+    /**
+     * Resolve all the abstract methods of the interface, any error is thrown
+     * immediately.
+     *
+     * @return a resolver which looks up the resolved methods first
+     */
+    private Function<Method, MethodInvocation> resolveAll(Function<Method, MethodInvocation> resolver) {
+        List<Method> methods = InvokerClassGenerator.abstractMethods(interfaceClass);
+        Stream<Method> stream = parallel ? methods.parallelStream() : methods.stream();
+        // validated as the invoker does when bound lazily
+        Map<Method, MethodInvocation> resolved = stream.collect(Collectors.toMap(Function.identity(),
+                method -> Invoker.validate(method, resolver.apply(method))));
+        return method -> {
+            MethodInvocation invocation = resolved.get(method);
+            return invocation != null ? invocation : resolver.apply(method);
+        };
     }
 
     @VisibleForTesting
@@ -39,6 +99,9 @@ final class InvocationLibrary<T> {
         AnnotationContext ac = AnnotationContext.newContext(method);
         jnc.foreign.annotation.CallingConvention methodConvention = ac.getAnnotation(jnc.foreign.annotation.CallingConvention.class);
         CallingConvention convention = methodConvention != null ? methodConvention.value() : classConvention;
+        IgnoreLastError methodIgnoreLastError = ac.getAnnotation(IgnoreLastError.class);
+        boolean ignoreLastError = methodIgnoreLastError != null ? methodIgnoreLastError.value() : classIgnoreLastError;
+        IntConsumer lastErrorHandler = ignoreLastError ? null : DefaultLastErrorHandler.INSTANCE;
         Entry entry = ac.getAnnotation(Entry.class);
         String name;
         if (entry != null) {
@@ -66,19 +129,32 @@ final class InvocationLibrary<T> {
             len = parameterTypes.length;
             variadicType = null;
         }
-        InternalType[] ptypes = new InternalType[len];
+        // the holder of the last error is not a native parameter
+        int nativeLen = !method.isVarArgs() && len != 0 && parameterTypes[len - 1] == LastErrorHolder.class ? len - 1 : len;
+        InternalType[] ptypes = new InternalType[nativeLen];
         @SuppressWarnings("rawtypes")
         ParameterPutter<?>[] putters = new ParameterPutter[len];
-        for (int i = 0; i < len; ++i) {
+        if (nativeLen != len) {
+            putters[nativeLen] = (ParameterPutter<LastErrorHolder>) InvocationLibrary::putLastErrorHolder;
+        }
+        boolean critical = false;
+        for (int i = 0; i < nativeLen; ++i) {
             Class<?> ptype = parameterTypes[i];
             ParameterHandlerInfo info = typeHandlerFactory.findParameterTypeInfo(ptype);
             ptypes[i] = info.getType(ptype, typeFactory, mpacs[i]);
-            putters[i] = info.getPutter(ptype);
+            putters[i] = info.getPutter(ptype, mpacs[i]);
+            critical |= mpacs[i].isAnnotationPresent(Critical.class);
         }
         if (method.isVarArgs()) {
-            return new VariadicMethodInvocation(putters, convention, handler, function, retType, ptypes, variadicType, mpacs[len], typeFactory, typeHandlerFactory);
+            return new VariadicMethodInvocation(putters, convention, handler, function, retType, ptypes, variadicType, mpacs[len], typeFactory, typeHandlerFactory, lastErrorHandler);
+        }
+        return new FixedMethodInvocation(putters, convention, handler, function, retType, ptypes, critical, lastErrorHandler);
+    }
+
+    private static void putLastErrorHolder(CallContext context, int index, @Nullable LastErrorHolder holder) {
+        if (holder != null) {
+            context.setLastErrorHandler(holder::setValue);
         }
-        return new FixedMethodInvocation(putters, convention, handler, function, retType, ptypes);
     }
 
 }
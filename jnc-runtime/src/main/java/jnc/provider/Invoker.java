@@ -0,0 +1,221 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Objects;
+import java.util.function.Function;
+import jnc.foreign.NativeType;
+
+/**
+ * Entry point of the classes generated by {@link InvokerClassGenerator}.
+ * Generated classes are defined in the package of the library interface, so
+ * this class must be public, but it is not part of the api.
+ *
+ * The method is resolved on the first call, just like the proxy
+ * implementation does. Checked exceptions not declared by the method are
+ * wrapped in {@link UndeclaredThrowableException} as a proxy does, since the
+ * generated methods don't check them.
+ *
+ * @author zhanhb
+ */
+@SuppressWarnings("unused")
+public final class Invoker {
+
+    private final Method method;
+    private final Function<Method, MethodInvocation> resolver;
+    private volatile MethodInvocation invocation;
+
+    Invoker(Method method, Function<Method, MethodInvocation> resolver) {
+        this.method = method;
+        this.resolver = resolver;
+    }
+
+    /**
+     * @throws IllegalStateException if the return type of a method is not
+     * supported
+     */
+    static MethodInvocation validate(Method method, MethodInvocation mi) {
+        Objects.requireNonNull(mi);
+        if (mi instanceof FixedMethodInvocation && !((FixedMethodInvocation) mi).hasRawConverter()) {
+            throw new IllegalStateException("unsupported return type of method " + method);
+        }
+        return mi;
+    }
+
+    private MethodInvocation invocation() {
+        MethodInvocation mi = invocation;
+        if (mi == null) {
+            synchronized (this) {
+                mi = invocation;
+                if (mi == null) {
+                    mi = validate(method, resolver.apply(method));
+                    invocation = mi;
+                }
+            }
+        }
+        return mi;
+    }
+
+    private FixedMethodInvocation fixed() {
+        return (FixedMethodInvocation) invocation();
+    }
+
+    // rethrow as a proxy does
+    private Throwable checked(Throwable t) {
+        if (t instanceof RuntimeException || t instanceof Error) {
+            return t;
+        }
+        for (Class<?> type : method.getExceptionTypes()) {
+            if (type.isInstance(t)) {
+                return t;
+            }
+        }
+        return new UndeclaredThrowableException(t);
+    }
+
+    public Object invoke(Object proxy, Object[] args) throws Throwable {
+        try {
+            return invocation().invoke(proxy, args);
+        } catch (Throwable t) {
+            throw checked(t);
+        }
+    }
+
+    public Object newCallContext() {
+        return fixed().newCallContext();
+    }
+
+    public void putInt(Object context, int index, int value) {
+        ((CallContext) context).putInt(index, value);
+    }
+
+    public void putLong(Object context, int index, long value) {
+        ((CallContext) context).putLong(index, value);
+    }
+
+    public void putFloat(Object context, int index, float value) {
+        ((CallContext) context).putFloat(index, value);
+    }
+
+    public void putDouble(Object context, int index, double value) {
+        ((CallContext) context).putDouble(index, value);
+    }
+
+    public void put(Object context, int index, Object value) {
+        CallContext ctx = (CallContext) context;
+        try {
+            fixed().put(ctx, index, value);
+        } catch (Throwable t) {
+            // the call is abandoned, release the argument frame
+            ctx.close();
+            throw t;
+        }
+    }
+
+    public void invokeVoid(Object context) throws Throwable {
+        try {
+            fixed().invokeRaw((CallContext) context);
+        } catch (Throwable t) {
+            throw checked(t);
+        }
+    }
+
+    public boolean invokeBoolean(Object context) throws Throwable {
+        try {
+            return fixed().invokeRaw((CallContext) context) != 0;
+        } catch (Throwable t) {
+            throw checked(t);
+        }
+    }
+
+    public byte invokeByte(Object context) throws Throwable {
+        try {
+            return (byte) fixed().invokeRaw((CallContext) context);
+        } catch (Throwable t) {
+            throw checked(t);
+        }
+    }
+
+    public char invokeChar(Object context) throws Throwable {
+        try {
+            return (char) fixed().invokeRaw((CallContext) context);
+        } catch (Throwable t) {
+            throw checked(t);
+        }
+    }
+
+    public short invokeShort(Object context) throws Throwable {
+        try {
+            return (short) fixed().invokeRaw((CallContext) context);
+        } catch (Throwable t) {
+            throw checked(t);
+        }
+    }
+
+    public int invokeInt(Object context) throws Throwable {
+        try {
+            return (int) fixed().invokeRaw((CallContext) context);
+        } catch (Throwable t) {
+            throw checked(t);
+        }
+    }
+
+    public long invokeLong(Object context) throws Throwable {
+        try {
+            return fixed().invokeRaw((CallContext) context);
+        } catch (Throwable t) {
+            throw checked(t);
+        }
+    }
+
+    public float invokeFloat(Object context) throws Throwable {
+        try {
+            FixedMethodInvocation fixed = fixed();
+            long result = fixed.invokeRaw((CallContext) context);
+            if (fixed.getReturnType().nativeType() == NativeType.FLOAT) {
+                return Float.intBitsToFloat((int) result);
+            }
+            return result;
+        } catch (Throwable t) {
+            throw checked(t);
+        }
+    }
+
+    public double invokeDouble(Object context) throws Throwable {
+        try {
+            FixedMethodInvocation fixed = fixed();
+            long result = fixed.invokeRaw((CallContext) context);
+            if (fixed.getReturnType().nativeType() == NativeType.DOUBLE) {
+                return Double.longBitsToDouble(result);
+            }
+            return result;
+        } catch (Throwable t) {
+            throw checked(t);
+        }
+    }
+
+    public Object invokeObject(Object context) throws Throwable {
+        try {
+            FixedMethodInvocation fixed = fixed();
+            return fixed.convert(fixed.invokeRaw((CallContext) context));
+        } catch (Throwable t) {
+            throw checked(t);
+        }
+    }
+
+}
@@ -0,0 +1,527 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Generate a final class implementing a library interface. Every abstract
+ * method of the interface is implemented by a field of type {@link Invoker},
+ * arguments of fixed arity methods are put into the call context one by one
+ * without boxing, and primitive results are returned without boxing either.
+ * Default methods and methods of {@link Object} are inherited.
+ *
+ * The generated class contains no branch, so no stack map frames are
+ * required.
+ *
+ * @author zhanhb
+ */
+final class InvokerClassGenerator {
+
+    private static final NativeAccessor NA = NativeLoader.getAccessor();
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    static final String OBJECT = "java/lang/Object";
+    private static final String INVOKER = "jnc/provider/Invoker";
+    private static final String INVOKER_DESCRIPTOR = "L" + INVOKER + ";";
+    private static final String CONTEXT_DESCRIPTOR = "(Ljava/lang/Object;";
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int ILOAD = 0x15;
+    static final int LLOAD = 0x16;
+    private static final int FLOAD = 0x17;
+    private static final int DLOAD = 0x18;
+    static final int ALOAD = 0x19;
+    private static final int AALOAD = 0x32;
+    private static final int ASTORE = 0x3a;
+    private static final int AASTORE = 0x53;
+    private static final int POP = 0x57;
+    private static final int DUP = 0x59;
+    private static final int IRETURN = 0xac;
+    private static final int LRETURN = 0xad;
+    private static final int FRETURN = 0xae;
+    private static final int DRETURN = 0xaf;
+    private static final int ARETURN = 0xb0;
+    static final int RETURN = 0xb1;
+    static final int GETFIELD = 0xb4;
+    static final int PUTFIELD = 0xb5;
+    static final int INVOKEVIRTUAL = 0xb6;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int INVOKESTATIC = 0xb8;
+    private static final int ANEWARRAY = 0xbd;
+    private static final int CHECKCAST = 0xc0;
+    private static final int WIDE = 0xc4;
+
+    static <T> T newInstance(Class<T> interfaceClass, Function<Method, MethodInvocation> resolver) {
+        List<Method> methods = abstractMethods(interfaceClass);
+        String name = interfaceClass.getName() + "$$Invoker$" + SEQUENCE.incrementAndGet();
+        String internalName = name.replace('.', '/');
+        byte[] bytes = new InvokerClassGenerator(internalName, interfaceClass, methods).generate();
+        Class<?> klass = NA.defineClass(internalName, interfaceClass.getClassLoader(), bytes);
+        int size = methods.size();
+        Invoker[] invokers = new Invoker[size];
+        for (int i = 0; i < size; ++i) {
+            invokers[i] = new Invoker(methods.get(i), resolver);
+        }
+        try {
+            return interfaceClass.cast(klass.getConstructor(Invoker[].class).newInstance((Object) invokers));
+        } catch (InvocationTargetException ex) {
+            throw new IllegalStateException(ex.getTargetException());
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static List<Method> abstractMethods(Class<?> interfaceClass) {
+        Method[] all = interfaceClass.getMethods();
+        Set<String> defaults = new HashSet<>(4);
+        for (Method method : all) {
+            if (method.isDefault()) {
+                defaults.add(method.getName() + methodDescriptor(method));
+            }
+        }
+        Map<String, Method> map = new LinkedHashMap<>(all.length);
+        for (Method method : all) {
+            int modifiers = method.getModifiers();
+            if (Modifier.isStatic(modifiers) || !Modifier.isAbstract(modifiers) || isObjectMethod(method)) {
+                continue;
+            }
+            String key = method.getName() + methodDescriptor(method);
+            if (!defaults.contains(key)) {
+                map.putIfAbsent(key, method);
+            }
+        }
+        return new ArrayList<>(map.values());
+    }
+
+    private static boolean isObjectMethod(Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    static String descriptor(Class<?> type) {
+        if (type.isPrimitive()) {
+            if (type == int.class) {
+                return "I";
+            } else if (type == long.class) {
+                return "J";
+            } else if (type == boolean.class) {
+                return "Z";
+            } else if (type == byte.class) {
+                return "B";
+            } else if (type == char.class) {
+                return "C";
+            } else if (type == short.class) {
+                return "S";
+            } else if (type == float.class) {
+                return "F";
+            } else if (type == double.class) {
+                return "D";
+            }
+            return "V";
+        }
+        if (type.isArray()) {
+            return type.getName().replace('.', '/');
+        }
+        return "L" + type.getName().replace('.', '/') + ";";
+    }
+
+    static String internalName(Class<?> type) {
+        return type.isArray() ? descriptor(type) : type.getName().replace('.', '/');
+    }
+
+    static String methodDescriptor(Method method) {
+        StringBuilder sb = new StringBuilder("(");
+        for (Class<?> type : method.getParameterTypes()) {
+            sb.append(descriptor(type));
+        }
+        return sb.append(')').append(descriptor(method.getReturnType())).toString();
+    }
+
+    static int slots(Class<?> type) {
+        return type == long.class || type == double.class ? 2 : 1;
+    }
+
+    static int loadOpcode(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return ALOAD;
+        } else if (type == long.class) {
+            return LLOAD;
+        } else if (type == float.class) {
+            return FLOAD;
+        } else if (type == double.class) {
+            return DLOAD;
+        }
+        return ILOAD;
+    }
+
+    static int returnOpcode(Class<?> type) {
+        if (type == void.class) {
+            return RETURN;
+        } else if (!type.isPrimitive()) {
+            return ARETURN;
+        } else if (type == long.class) {
+            return LRETURN;
+        } else if (type == float.class) {
+            return FRETURN;
+        } else if (type == double.class) {
+            return DRETURN;
+        }
+        return IRETURN;
+    }
+
+    // the suffix of Invoker.putXxx and the descriptor of the value
+    private static String putter(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return "put" + CONTEXT_DESCRIPTOR + "ILjava/lang/Object;)V";
+        } else if (type == long.class) {
+            return "putLong" + CONTEXT_DESCRIPTOR + "IJ)V";
+        } else if (type == float.class) {
+            return "putFloat" + CONTEXT_DESCRIPTOR + "IF)V";
+        } else if (type == double.class) {
+            return "putDouble" + CONTEXT_DESCRIPTOR + "ID)V";
+        }
+        // boolean, byte, char and short are all int on the operand stack
+        return "putInt" + CONTEXT_DESCRIPTOR + "II)V";
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private final ConstantPool pool = new ConstantPool();
+    private final String className;
+    private final Class<?> interfaceClass;
+    private final List<Method> methods;
+
+    private InvokerClassGenerator(String className, Class<?> interfaceClass, List<Method> methods) {
+        this.className = className;
+        this.interfaceClass = interfaceClass;
+        this.methods = methods;
+    }
+
+    private byte[] generate() {
+        try {
+            // constant pool must be filled before it is written
+            ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(pool.classInfo(className));
+            out.writeShort(pool.classInfo(OBJECT));
+            out.writeShort(1);
+            out.writeShort(pool.classInfo(internalName(interfaceClass)));
+
+            int size = methods.size();
+            out.writeShort(size);
+            for (int i = 0; i < size; ++i) {
+                out.writeShort(ACC_PRIVATE | ACC_FINAL);
+                out.writeShort(pool.utf8(fieldName(i)));
+                out.writeShort(pool.utf8(INVOKER_DESCRIPTOR));
+                out.writeShort(0);
+            }
+
+            out.writeShort(size + 1);
+            writeConstructor(out);
+            for (int i = 0; i < size; ++i) {
+                writeMethod(out, i, methods.get(i));
+            }
+            out.writeShort(0);
+
+            return toClassFile(pool, body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * @param body the class file after the constant pool
+     */
+    static byte[] toClassFile(ConstantPool pool, ByteArrayOutputStream body) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(body.size() + pool.length() + 10);
+        DataOutputStream header = new DataOutputStream(result);
+        header.writeInt(0xCAFEBABE);
+        header.writeShort(0);
+        header.writeShort(52);
+        pool.writeTo(header);
+        body.writeTo(result);
+        return result.toByteArray();
+    }
+
+    private static String fieldName(int index) {
+        return "m" + index;
+    }
+
+    private void writeConstructor(DataOutputStream out) throws IOException {
+        Code code = new Code(pool);
+        code.load(ALOAD, 0);
+        code.op(INVOKESPECIAL).u2(pool.methodRef(OBJECT, "<init>", "()V"));
+        for (int i = 0, size = methods.size(); i < size; ++i) {
+            code.load(ALOAD, 0).load(ALOAD, 1).push(i).op(AALOAD);
+            code.op(PUTFIELD).u2(pool.fieldRef(className, fieldName(i), INVOKER_DESCRIPTOR));
+        }
+        code.op(RETURN);
+        writeMethod(out, pool, "<init>", "([" + INVOKER_DESCRIPTOR + ")V", code, 3, 2);
+    }
+
+    private void writeMethod(DataOutputStream out, int index, Method method) throws IOException {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Class<?> returnType = method.getReturnType();
+        int invoker = pool.fieldRef(className, fieldName(index), INVOKER_DESCRIPTOR);
+        int locals = 1;
+        for (Class<?> type : parameterTypes) {
+            locals += slots(type);
+        }
+        Code code = new Code(pool);
+        int maxStack;
+        if (method.isVarArgs()) {
+            code.load(ALOAD, 0).op(GETFIELD).u2(invoker).load(ALOAD, 0);
+            code.push(parameterTypes.length).op(ANEWARRAY).u2(pool.classInfo(OBJECT));
+            for (int i = 0, slot = 1; i < parameterTypes.length; ++i) {
+                Class<?> type = parameterTypes[i];
+                code.op(DUP).push(i).load(loadOpcode(type), slot);
+                if (type.isPrimitive()) {
+                    Class<?> wrapper = Primitives.wrap(type);
+                    code.op(INVOKESTATIC).u2(pool.methodRef(internalName(wrapper), "valueOf",
+                            "(" + descriptor(type) + ")" + descriptor(wrapper)));
+                }
+                code.op(AASTORE);
+                slot += slots(type);
+            }
+            code.op(INVOKEVIRTUAL).u2(pool.methodRef(INVOKER, "invoke",
+                    "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;"));
+            if (returnType == void.class) {
+                code.op(POP);
+            } else if (returnType.isPrimitive()) {
+                Class<?> wrapper = Primitives.wrap(returnType);
+                code.op(CHECKCAST).u2(pool.classInfo(internalName(wrapper)));
+                code.op(INVOKEVIRTUAL).u2(pool.methodRef(internalName(wrapper),
+                        returnType.getName() + "Value", "()" + descriptor(returnType)));
+            } else if (returnType != Object.class) {
+                code.op(CHECKCAST).u2(pool.classInfo(internalName(returnType)));
+            }
+            maxStack = 7;
+        } else {
+            int context = locals++;
+            code.load(ALOAD, 0).op(GETFIELD).u2(invoker);
+            code.op(INVOKEVIRTUAL).u2(pool.methodRef(INVOKER, "newCallContext", "()Ljava/lang/Object;"));
+            code.load(ASTORE, context);
+            for (int i = 0, slot = 1; i < parameterTypes.length; ++i) {
+                Class<?> type = parameterTypes[i];
+                String putter = putter(type);
+                int split = putter.indexOf('(');
+                code.load(ALOAD, 0).op(GETFIELD).u2(invoker).load(ALOAD, context).push(i).load(loadOpcode(type), slot);
+                code.op(INVOKEVIRTUAL).u2(pool.methodRef(INVOKER,
+                        putter.substring(0, split), putter.substring(split)));
+                slot += slots(type);
+            }
+            code.load(ALOAD, 0).op(GETFIELD).u2(invoker).load(ALOAD, context);
+            if (returnType.isPrimitive()) {
+                code.op(INVOKEVIRTUAL).u2(pool.methodRef(INVOKER, "invoke" + capitalize(returnType.getName()),
+                        CONTEXT_DESCRIPTOR + ")" + descriptor(returnType)));
+            } else {
+                code.op(INVOKEVIRTUAL).u2(pool.methodRef(INVOKER, "invokeObject",
+                        CONTEXT_DESCRIPTOR + ")Ljava/lang/Object;"));
+                if (returnType != Object.class) {
+                    code.op(CHECKCAST).u2(pool.classInfo(internalName(returnType)));
+                }
+            }
+            maxStack = 5;
+        }
+        code.op(returnOpcode(returnType));
+        writeMethod(out, pool, method.getName(), methodDescriptor(method), code, maxStack, locals);
+    }
+
+    static void writeMethod(DataOutputStream out, ConstantPool pool, String name, String descriptor,
+            Code code, int maxStack, int maxLocals) throws IOException {
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(pool.utf8(name));
+        out.writeShort(pool.utf8(descriptor));
+        out.writeShort(1);
+        out.writeShort(pool.utf8("Code"));
+        out.writeInt(12 + code.size());
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.size());
+        code.writeTo(out);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    static final class Code extends ByteArrayOutputStream {
+
+        private final ConstantPool pool;
+
+        Code(ConstantPool pool) {
+            this.pool = pool;
+        }
+
+        Code op(int opcode) {
+            write(opcode);
+            return this;
+        }
+
+        Code u2(int value) {
+            write(value >>> 8);
+            write(value);
+            return this;
+        }
+
+        Code load(int opcode, int slot) {
+            if (slot > 255) {
+                return op(WIDE).op(opcode).u2(slot);
+            }
+            return op(opcode).op(slot);
+        }
+
+        Code push(int value) {
+            if (value >= -1 && value <= 5) {
+                return op(ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                return op(BIPUSH).op(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                return op(SIPUSH).u2(value);
+            }
+            return op(LDC_W).u2(pool.integer(value));
+        }
+
+    }
+
+    static final class ConstantPool {
+
+        private static final int CONSTANT_UTF8 = 1;
+        private static final int CONSTANT_INTEGER = 3;
+        private static final int CONSTANT_CLASS = 7;
+        private static final int CONSTANT_FIELDREF = 9;
+        private static final int CONSTANT_METHODREF = 10;
+        private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+        private final Map<String, Integer> entries = new HashMap<>(64);
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int count = 1;
+
+        private int add(String key) {
+            Integer index = entries.get(key);
+            if (index != null) {
+                return index;
+            }
+            entries.put(key, count);
+            return count++;
+        }
+
+        int utf8(String value) {
+            int before = count;
+            int index = add(CONSTANT_UTF8 + ":" + value);
+            if (index == before) {
+                write(CONSTANT_UTF8);
+                try {
+                    out.writeUTF(value);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            return index;
+        }
+
+        int integer(int value) {
+            int before = count;
+            int index = add(CONSTANT_INTEGER + ":" + value);
+            if (index == before) {
+                write(CONSTANT_INTEGER);
+                write(value >>> 24);
+                write(value >>> 16);
+                u2(value);
+            }
+            return index;
+        }
+
+        int classInfo(String internalName) {
+            return ref(CONSTANT_CLASS, utf8(internalName), -1);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return ref(CONSTANT_FIELDREF, classInfo(owner), nameAndType(name, descriptor));
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return ref(CONSTANT_METHODREF, classInfo(owner), nameAndType(name, descriptor));
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            return ref(CONSTANT_NAME_AND_TYPE, utf8(name), utf8(descriptor));
+        }
+
+        private int ref(int tag, int first, int second) {
+            int before = count;
+            int index = add(tag + ":" + first + ":" + second);
+            if (index == before) {
+                write(tag);
+                u2(first);
+                if (second >= 0) {
+                    u2(second);
+                }
+            }
+            return index;
+        }
+
+        private void write(int b) {
+            bytes.write(b);
+        }
+
+        private void u2(int value) {
+            write(value >>> 8);
+            write(value);
+        }
+
+        int length() {
+            return bytes.size();
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            target.writeShort(count);
+            bytes.writeTo(target);
+        }
+
+    }
+
+}
@@ -0,0 +1,159 @@
+package jnc.provider;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import jnc.foreign.MappedPointer;
+
+final class MappedMemory extends GuardedMemory implements MappedPointer {
+
+    private static final NativeAccessor NA = NativeLoader.getAccessor();
+    private static final Cleaner CLEANER = Cleaner.getInstance();
+    private static final boolean SUPPORTED = NativeLoader.isSupported(() -> NA.adviseFile(0, 0, 0));
+
+    static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    static MappedMemory map(Path path, long offset, long length, FileChannel.MapMode mode) throws IOException {
+        if (offset < 0 || length <= 0) {
+            throw new IllegalArgumentException("offset=" + offset + ",length=" + length);
+        }
+        if (!SUPPORTED) {
+            throw new UnsupportedOperationException("map file is not supported by the native library");
+        }
+        int m;
+        if (mode == FileChannel.MapMode.READ_ONLY) {
+            m = NativeAccessor.MAP_READ_ONLY;
+        } else if (mode == FileChannel.MapMode.READ_WRITE) {
+            m = NativeAccessor.MAP_READ_WRITE;
+        } else if (mode == FileChannel.MapMode.PRIVATE) {
+            m = NativeAccessor.MAP_PRIVATE;
+        } else {
+            throw new UnsupportedOperationException("mode " + mode);
+        }
+        Unmap unmap = new Unmap(NA.mapFile(path.toFile().getAbsolutePath(), offset, length, m), length);
+        try {
+            return new MappedMemory(new SizedDirectMemory(unmap.getAddress(), length), unmap,
+                    mode == FileChannel.MapMode.READ_ONLY);
+        } catch (Throwable t) {
+            // very rare, maybe OutOfMemoryError when register Cleanable
+            unmap.run();
+            throw t;
+        }
+    }
+
+    private static int toNative(Advice advice) {
+        switch (advice) {
+            case SEQUENTIAL:
+                return NativeAccessor.ADVICE_SEQUENTIAL;
+            case RANDOM:
+                return NativeAccessor.ADVICE_RANDOM;
+            case WILL_NEED:
+                return NativeAccessor.ADVICE_WILL_NEED;
+            case DONT_NEED:
+                return NativeAccessor.ADVICE_DONT_NEED;
+            default:
+                return NativeAccessor.ADVICE_NORMAL;
+        }
+    }
+
+    private final Unmap unmap;
+    private final boolean readOnly;
+
+    @SuppressWarnings("LeakingThisInConstructor")
+    private MappedMemory(SizedDirectMemory target, Unmap unmap, boolean readOnly) {
+        super(target);
+        this.unmap = unmap;
+        this.readOnly = readOnly;
+        CLEANER.register(this, unmap);
+    }
+
+    @Override
+    void checkOpen() {
+        if (unmap.getAddress() == 0) {
+            throw new IllegalStateException("closed");
+        }
+    }
+
+    @Override
+    boolean isReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    Slice newSlice(SizedDirectMemory target) {
+        return new Slice(this, target);
+    }
+
+    @Override
+    public void sync() throws IOException {
+        NA.syncFile(address(), capacity());
+    }
+
+    @Override
+    public void advise(Advice advice) {
+        NA.adviseFile(address(), capacity(), toNative(advice));
+    }
+
+    @Override
+    public void close() {
+        unmap.run();
+    }
+
+    /**
+     * A slice shares the state of the mapping, and keeps it reachable.
+     */
+    private static final class Slice extends GuardedMemory {
+
+        private final MappedMemory mapping;
+
+        Slice(MappedMemory mapping, SizedDirectMemory target) {
+            super(target);
+            this.mapping = mapping;
+        }
+
+        @Override
+        void checkOpen() {
+            mapping.checkOpen();
+        }
+
+        @Override
+        boolean isReadOnly() {
+            return mapping.isReadOnly();
+        }
+
+        @Override
+        Slice newSlice(SizedDirectMemory target) {
+            return new Slice(mapping, target);
+        }
+
+    }
+
+    private static final class Unmap implements Runnable {
+
+        private static final AtomicLongFieldUpdater<Unmap> UPDATER
+                = AtomicLongFieldUpdater.newUpdater(Unmap.class, "address");
+        private volatile long address;
+        private final long length;
+
+        Unmap(long address, long length) {
+            this.address = address;
+            this.length = length;
+        }
+
+        long getAddress() {
+            return address;
+        }
+
+        @Override
+        public void run() {
+            long addr = UPDATER.getAndSet(this, 0);
+            if (addr != 0) {
+                NA.unmapFile(addr, length);
+            }
+        }
+    }
+
+}
@@ -1,5 +1,8 @@
 package jnc.provider;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
 import java.nio.charset.Charset;
 import java.util.Objects;
 import javax.annotation.Nonnull;
@@ -20,6 +23,39 @@ abstract class Memory implements Pointer {
         return ma;
     }
 
+    /**
+     * Whether writes to this memory are rejected, such as a file mapped read
+     * only.
+     */
+    @NotFinal(NotFinal.Reason.EXTENSION_PRESENT)
+    boolean isReadOnly() {
+        return false;
+    }
+
+    final void checkWritable() {
+        if (isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+    }
+
+    private static long checkRange(Pointer pointer, int offset, int len) {
+        if (offset < 0 || len < 0 || offset > pointer.size() - len) {
+            String msg = String.format("access(offset=%s,size=%s)[byte*%s]", offset, pointer.size(), len);
+            throw new IndexOutOfBoundsException(msg);
+        }
+        return pointer.address() + offset;
+    }
+
+    private static long checkRange(Pointer pointer, long offset, long len) {
+        // no capacity info of an unbounded memory, same as the int version
+        long capacity = pointer instanceof UnboundedDirectMemory ? Long.MAX_VALUE : pointer.capacity();
+        if (offset < 0 || len < 0 || offset > capacity - len) {
+            String msg = String.format("access(offset=%s,capacity=%s)[byte*%s]", offset, capacity, len);
+            throw new IndexOutOfBoundsException(msg);
+        }
+        return pointer.address() + offset;
+    }
+
     private InternalType toInternalType(Type type) {
         try {
             return (InternalType) type;
@@ -48,6 +84,16 @@ abstract class Memory implements Pointer {
         putShort(offset, (short) value);
     }
 
+    @Override
+    public final char getChar(long offset) {
+        return (char) getShort(offset);
+    }
+
+    @Override
+    public final void putChar(long offset, char value) {
+        putShort(offset, (short) value);
+    }
+
     @Override
     public final byte getByte(int offset, Type type) {
         return (byte) getInt(offset, toInternalType(type));
@@ -122,6 +168,108 @@ abstract class Memory implements Pointer {
         return getStringImpl(offset, charset);
     }
 
+    @Override
+    public final void copyTo(int offset, Pointer dst, int dstOffset, int len) {
+        Objects.requireNonNull(dst);
+        if (dst instanceof Memory) {
+            ((Memory) dst).checkWritable();
+        }
+        long src = checkRange(this, offset, len);
+        RawMemory.move(checkRange(dst, dstOffset, len), src, len);
+    }
+
+    @Override
+    public final void fill(int offset, int len, byte value) {
+        checkWritable();
+        RawMemory.fill(checkRange(this, offset, len), len, value);
+    }
+
+    @Override
+    public final int compare(int offset, Pointer other, int otherOffset, int len) {
+        Objects.requireNonNull(other);
+        long a = checkRange(this, offset, len);
+        return RawMemory.compare(a, checkRange(other, otherOffset, len), len);
+    }
+
+    @Override
+    public final int mismatch(int offset, Pointer other, int otherOffset, int len) {
+        Objects.requireNonNull(other);
+        long a = checkRange(this, offset, len);
+        return (int) RawMemory.mismatch(a, checkRange(other, otherOffset, len), len);
+    }
+
+    @Override
+    public final int indexOf(int offset, int len, byte value) {
+        long index = RawMemory.indexOf(checkRange(this, offset, len), len, value);
+        return index < 0 ? -1 : offset + (int) index;
+    }
+
+    @Override
+    public final int indexOf(int offset, int len, byte[] pattern) {
+        Objects.requireNonNull(pattern);
+        long index = RawMemory.indexOf(checkRange(this, offset, len), len, pattern);
+        return index < 0 ? -1 : offset + (int) index;
+    }
+
+    @Override
+    public final void copyTo(long offset, Pointer dst, long dstOffset, long len) {
+        Objects.requireNonNull(dst);
+        if (dst instanceof Memory) {
+            ((Memory) dst).checkWritable();
+        }
+        long src = checkRange(this, offset, len);
+        RawMemory.move(checkRange(dst, dstOffset, len), src, len);
+    }
+
+    @Override
+    public final void fill(long offset, long len, byte value) {
+        checkWritable();
+        RawMemory.fill(checkRange(this, offset, len), len, value);
+    }
+
+    @Override
+    public final int compare(long offset, Pointer other, long otherOffset, long len) {
+        Objects.requireNonNull(other);
+        long a = checkRange(this, offset, len);
+        return RawMemory.compare(a, checkRange(other, otherOffset, len), len);
+    }
+
+    @Override
+    public final long mismatch(long offset, Pointer other, long otherOffset, long len) {
+        Objects.requireNonNull(other);
+        long a = checkRange(this, offset, len);
+        return RawMemory.mismatch(a, checkRange(other, otherOffset, len), len);
+    }
+
+    @Override
+    public final long indexOf(long offset, long len, byte value) {
+        long index = RawMemory.indexOf(checkRange(this, offset, len), len, value);
+        return index < 0 ? -1 : offset + index;
+    }
+
+    @Override
+    public final long indexOf(long offset, long len, byte[] pattern) {
+        Objects.requireNonNull(pattern);
+        long index = RawMemory.indexOf(checkRange(this, offset, len), len, pattern);
+        return index < 0 ? -1 : offset + index;
+    }
+
+    @Nonnull
+    @Override
+    @NotFinal(NotFinal.Reason.EXTENSION_PRESENT)
+    public ByteBuffer asByteBuffer(int offset, int len) {
+        long address = checkRange(this, offset, len);
+        ByteBuffer buffer = NativeLoader.getAccessor().newDirectByteBuffer(address, len);
+        if (!(this instanceof UnboundedDirectMemory)) {
+            // keep this memory alive until the buffer is collected
+            Cleaner.getInstance().register(buffer, new KeepAlive(this));
+        }
+        if (isReadOnly()) {
+            buffer = buffer.asReadOnlyBuffer();
+        }
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
     abstract void putString16(int offset, @Nonnull String value);
 
     abstract String getString16(int offset);
@@ -148,4 +296,22 @@ abstract class Memory implements Pointer {
 
     abstract double getDouble(int offset, InternalType internalType);
 
+    /**
+     * Does nothing but hold the memory, this memory might be already closed
+     * when run.
+     */
+    private static final class KeepAlive implements Runnable {
+
+        @SuppressWarnings("unused")
+        private final Memory memory;
+
+        KeepAlive(Memory memory) {
+            this.memory = memory;
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+
 }
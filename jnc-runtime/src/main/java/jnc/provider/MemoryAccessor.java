@@ -18,6 +18,9 @@ package jnc.provider;
 import javax.annotation.Nonnull;
 
 /**
+ * Raw and typed reads and writes are done in java, see {@link RawMemory} and
+ * {@link TypeAccessor}, bulk and string access is done by jni.
+ *
  * @author zhanhb
  */
 final class MemoryAccessor {
@@ -37,96 +40,96 @@ final class MemoryAccessor {
         return address;
     }
 
-    byte getByte(int offset) {
-        return NA.getRawByte(address + offset);
+    byte getByte(long offset) {
+        return RawMemory.getByte(address + offset);
     }
 
-    void putByte(int offset, byte value) {
-        NA.putRawByte(address + offset, value);
+    void putByte(long offset, byte value) {
+        RawMemory.putByte(address + offset, value);
     }
 
-    short getShort(int offset) {
-        return NA.getRawShort(address + offset);
+    short getShort(long offset) {
+        return RawMemory.getShort(address + offset);
     }
 
-    void putShort(int offset, short value) {
-        NA.putRawShort(address + offset, value);
+    void putShort(long offset, short value) {
+        RawMemory.putShort(address + offset, value);
     }
 
-    int getInt(int offset) {
-        return NA.getRawInt(address + offset);
+    int getInt(long offset) {
+        return RawMemory.getInt(address + offset);
     }
 
-    void putInt(int offset, int value) {
-        NA.putRawInt(address + offset, value);
+    void putInt(long offset, int value) {
+        RawMemory.putInt(address + offset, value);
     }
 
-    long getLong(int offset) {
-        return NA.getRawLong(address + offset);
+    long getLong(long offset) {
+        return RawMemory.getLong(address + offset);
     }
 
-    void putLong(int offset, long value) {
-        NA.putRawLong(address + offset, value);
+    void putLong(long offset, long value) {
+        RawMemory.putLong(address + offset, value);
     }
 
-    float getFloat(int offset) {
-        return NA.getRawFloat(address + offset);
+    float getFloat(long offset) {
+        return RawMemory.getFloat(address + offset);
     }
 
-    void putFloat(int offset, float value) {
-        NA.putRawFloat(address + offset, value);
+    void putFloat(long offset, float value) {
+        RawMemory.putFloat(address + offset, value);
     }
 
-    double getDouble(int offset) {
-        return NA.getRawDouble(address + offset);
+    double getDouble(long offset) {
+        return RawMemory.getDouble(address + offset);
     }
 
-    void putDouble(int offset, double value) {
-        NA.putRawDouble(address + offset, value);
+    void putDouble(long offset, double value) {
+        RawMemory.putDouble(address + offset, value);
     }
 
-    long getAddress(int offset) {
-        return NA.getAddress(address + offset);
+    long getAddress(long offset) {
+        return RawMemory.getAddress(address + offset);
     }
 
-    void putAddress(int offset, long value) {
-        NA.putAddress(address + offset, value);
+    void putAddress(long offset, long value) {
+        RawMemory.putAddress(address + offset, value);
     }
 
     void putInt(int offset, InternalType internalType, int value) {
-        NA.putInt(address + offset, internalType.address(), value);
+        internalType.typeAccessor().putInt(address + offset, value);
     }
 
     void putLong(int offset, InternalType internalType, long value) {
-        NA.putLong(address + offset, internalType.address(), value);
+        internalType.typeAccessor().putLong(address + offset, value);
     }
 
     void putFloat(int offset, InternalType internalType, float value) {
-        NA.putFloat(address + offset, internalType.address(), value);
+        internalType.typeAccessor().putFloat(address + offset, value);
     }
 
     void putDouble(int offset, InternalType internalType, double value) {
-        NA.putDouble(address + offset, internalType.address(), value);
+        internalType.typeAccessor().putDouble(address + offset, value);
     }
 
     boolean getBoolean(int offset, InternalType internalType) {
-        return NA.getBoolean(address + offset, internalType.address());
+        return internalType.typeAccessor().getBoolean(address + offset);
     }
 
     int getInt(int offset, InternalType internalType) {
-        return NA.getInt(address + offset, internalType.address());
+        return internalType.typeAccessor().getInt(address + offset);
     }
 
     long getLong(int offset, InternalType internalType) {
-        return NA.getLong(address + offset, internalType.address());
+        return internalType.typeAccessor().getLong(address + offset);
     }
 
     float getFloat(int offset, InternalType internalType) {
-        return NA.getFloat(address + offset, internalType.address());
+        return internalType.typeAccessor().getFloat(address + offset);
     }
 
     double getDouble(int offset, InternalType internalType) {
-        return NA.getDouble(address + offset, internalType.address());
+        return internalType.typeAccessor().getDouble(address + offset);
     }
 
     void putBytes(int offset, byte[] bytes, int off, int len) {
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Size class slabs for small blocks. A slab is a chunk of
+ * {@link #SLAB_SIZE} bytes split into blocks of the same size, it is freed
+ * once all of its blocks are released, except one empty slab kept for each
+ * size class.
+ *
+ * A few blocks of each size class are cached in stripes selected by the id
+ * of the current thread, so most allocations and releases only take the
+ * uncontended lock of a stripe, not the lock of the size class. The stripes
+ * are not held by the threads, a thread local would keep the class loader of
+ * this library reachable from the threads of a pool which outlive it.
+ *
+ * The lifetime of the blocks is tracked by leases instead of each block, a
+ * lease records at most {@link #LEASE_SIZE} consecutive allocations of a
+ * stripe and is registered to the cleaner once. A block is recycled when
+ * released, the blocks not released are recycled after the lease is
+ * collected, which is after all the memory allocated from it is collected.
+ * So memory kept reachable also keeps the blocks of its lease which are
+ * collected but not released, a lease holds at most {@link #LEASE_BYTES}
+ * bytes to bound that, a larger allocation takes a lease of its own.
+ *
+ * @author zhanhb
+ */
+final class MemoryPool {
+
+    @VisibleForTesting
+    static final int MAX_BLOCK = 4096;
+    private static final int MIN_SHIFT = 4;
+    @VisibleForTesting
+    static final int SLAB_SIZE = 64 * 1024;
+    @VisibleForTesting
+    static final int CACHE_SIZE = 32;
+    private static final int BATCH = CACHE_SIZE / 2;
+    // one bit of a long for each allocation
+    @VisibleForTesting
+    static final int LEASE_SIZE = Long.SIZE;
+    @VisibleForTesting
+    static final int LEASE_BYTES = 16 * 1024;
+
+    private static final NativeAccessor NA = NativeLoader.getAccessor();
+    private static final Cleaner CLEANER = Cleaner.getInstance();
+    private static final SizeClass[] CLASSES;
+    private static final Cache[] CACHES;
+
+    static {
+        SizeClass[] classes = new SizeClass[sizeClass(MAX_BLOCK) + 1];
+        for (int i = 0; i < classes.length; ++i) {
+            classes[i] = new SizeClass(1 << (i + MIN_SHIFT));
+        }
+        CLASSES = classes;
+        // power of two not less than the number of processors
+        int processors = Runtime.getRuntime().availableProcessors();
+        Cache[] caches = new Cache[Integer.highestOneBit(Math.max(processors, 1) * 2 - 1)];
+        for (int i = 0; i < caches.length; ++i) {
+            caches[i] = new Cache();
+        }
+        CACHES = caches;
+    }
+
+    /**
+     * @return index of the size class, or -1 if the size is too large
+     */
+    static int sizeClass(long size) {
+        if (size > MAX_BLOCK) {
+            return -1;
+        }
+        if (size <= 1 << MIN_SHIFT) {
+            return 0;
+        }
+        return 32 - MIN_SHIFT - Integer.numberOfLeadingZeros((int) size - 1);
+    }
+
+    @VisibleForTesting
+    static SizeClass getSizeClass(int index) {
+        return CLASSES[index];
+    }
+
+    /**
+     * @param sizeClass index of the size class, or -1 to allocate
+     * {@code size} bytes from the system
+     * @return the memory, not zeroed
+     */
+    static PooledMemory allocate(int sizeClass, long size) {
+        return cache().allocate(sizeClass, size);
+    }
+
+    private static void release(int sizeClass, Slab slab, long address) {
+        cache().release(sizeClass, slab, address);
+    }
+
+    private static Cache cache() {
+        return CACHES[(int) Thread.currentThread().getId() & (CACHES.length - 1)];
+    }
+
+    /**
+     * Referenced by the memory allocated, the blocks not released are recycled
+     * after the lease is collected.
+     */
+    static final class Lease {
+
+        private final Entries entries = new Entries();
+
+        boolean isReleased(int index) {
+            return entries.isReleased(index);
+        }
+
+        void release(int index) {
+            entries.release(index);
+        }
+    }
+
+    private static final class Entries implements Runnable {
+
+        private static final AtomicLongFieldUpdater<Entries> UPDATER
+                = AtomicLongFieldUpdater.newUpdater(Entries.class, "released");
+        private final long[] addresses = new long[LEASE_SIZE];
+        private final Slab[] slabs = new Slab[LEASE_SIZE];
+        private final int[] sizeClasses = new int[LEASE_SIZE];
+        // written by the stripe which owns the lease
+        private volatile int count;
+        // accessed by the stripe which owns the lease only
+        private long bytes;
+        // bit set of the allocations released
+        private volatile long released;
+
+        int add(int sizeClass, Slab slab, long address, long size) {
+            int index = count;
+            bytes += size;
+            addresses[index] = address;
+            slabs[index] = slab;
+            sizeClasses[index] = sizeClass;
+            count = index + 1;
+            return index;
+        }
+
+        /**
+         * @param size bytes taken by the allocation, the whole block for a
+         * size class
+         */
+        boolean canAdd(long size) {
+            int n = count;
+            return n == 0 || n < LEASE_SIZE && size <= LEASE_BYTES - bytes;
+        }
+
+        boolean isReleased(int index) {
+            return (released & 1L << index) != 0;
+        }
+
+        void release(int index) {
+            long bit = 1L << index;
+            long prev;
+            do {
+                prev = released;
+                if ((prev & bit) != 0) {
+                    return;
+                }
+            } while (!UPDATER.compareAndSet(this, prev, prev | bit));
+            free(index);
+        }
+
+        private void free(int index) {
+            int sizeClass = sizeClasses[index];
+            if (sizeClass < 0) {
+                NA.freeMemory(addresses[index]);
+            } else {
+                MemoryPool.release(sizeClass, slabs[index], addresses[index]);
+            }
+        }
+
+        // run after the lease is collected
+        @Override
+        public void run() {
+            long prev = UPDATER.getAndSet(this, -1L);
+            for (int i = 0, n = count; i < n; ++i) {
+                if ((prev & 1L << i) == 0) {
+                    free(i);
+                }
+            }
+        }
+    }
+
+    @VisibleForTesting
+    @SuppressWarnings("PackageVisibleInnerClass")
+    static final class SizeClass {
+
+        private final int blockSize;
+        private final int blocks;
+        // slabs with at least one free block
+        private final ArrayDeque<Slab> partial = new ArrayDeque<>();
+        private int slabs;
+        private int emptySlabs;
+
+        SizeClass(int blockSize) {
+            this.blockSize = blockSize;
+            this.blocks = SLAB_SIZE / blockSize;
+        }
+
+        @VisibleForTesting
+        synchronized int slabs() {
+            return slabs;
+        }
+
+        synchronized void take(long[] addresses, Slab[] owners, int n) {
+            for (int i = 0; i < n; ++i) {
+                Slab slab = partial.peekFirst();
+                if (slab == null) {
+                    slab = new Slab(NA.allocateMemory(SLAB_SIZE), blocks);
+                    partial.addFirst(slab);
+                    ++slabs;
+                } else if (slab.top == blocks) {
+                    --emptySlabs;
+                }
+                addresses[i] = slab.base + (long) slab.free[--slab.top] * blockSize;
+                owners[i] = slab;
+                if (slab.top == 0) {
+                    partial.pollFirst();
+                }
+            }
+        }
+
+        synchronized void give(long[] addresses, Slab[] owners, int from, int to) {
+            for (int i = from; i < to; ++i) {
+                Slab slab = owners[i];
+                owners[i] = null;
+                if (slab.top == 0) {
+                    partial.addLast(slab);
+                }
+                slab.free[slab.top++] = (int) ((addresses[i] - slab.base) / blockSize);
+                if (slab.top == blocks) {
+                    if (emptySlabs == 0) {
+                        ++emptySlabs;
+                    } else {
+                        // release in bulk, the whole slab is free
+                        partial.remove(slab);
+                        --slabs;
+                        NA.freeMemory(slab.base);
+                    }
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("PackageVisibleInnerClass")
+    static final class Slab {
+
+        final long base;
+        // indexes of the free blocks
+        final int[] free;
+        int top;
+
+        Slab(long base, int blocks) {
+            this.base = base;
+            int[] array = new int[blocks];
+            for (int i = 0; i < blocks; ++i) {
+                array[i] = blocks - 1 - i;
+            }
+            this.free = array;
+            this.top = blocks;
+        }
+    }
+
+    private static final class Cache {
+
+        private final long[][] addresses = new long[CLASSES.length][CACHE_SIZE];
+        private final Slab[][] owners = new Slab[CLASSES.length][CACHE_SIZE];
+        private final int[] counts = new int[CLASSES.length];
+        private Lease lease;
+
+        synchronized PooledMemory allocate(int sizeClass, long size) {
+            long bytes = sizeClass < 0 ? size : CLASSES[sizeClass].blockSize;
+            // before the block is taken, nothing to undo if register fails
+            Lease current = lease;
+            if (current == null || !current.entries.canAdd(bytes)) {
+                current = new Lease();
+                // might run actions releasing blocks to this cache
+                CLEANER.register(current, current.entries);
+                lease = current;
+            }
+            long address;
+            Slab slab = null;
+            if (sizeClass < 0) {
+                address = NA.allocateMemory(size);
+            } else {
+                long[] addrs = addresses[sizeClass];
+                Slab[] slabs = owners[sizeClass];
+                int count = counts[sizeClass];
+                if (count == 0) {
+                    CLASSES[sizeClass].take(addrs, slabs, BATCH);
+                    count = BATCH;
+                }
+                --count;
+                slab = slabs[count];
+                slabs[count] = null;
+                counts[sizeClass] = count;
+                address = addrs[count];
+            }
+            // recorded before the memory is created, recycled with the lease if that fails
+            int index = current.entries.add(sizeClass, slab, address, bytes);
+            return new PooledMemory(address, size, current, index);
+        }
+
+        synchronized void release(int sizeClass, Slab slab, long address) {
+            long[] addrs = addresses[sizeClass];
+            Slab[] slabs = owners[sizeClass];
+            int count = counts[sizeClass];
+            if (count == CACHE_SIZE) {
+                // keep the recently released blocks, which might be hot
+                CLASSES[sizeClass].give(addrs, slabs, 0, BATCH);
+                System.arraycopy(addrs, BATCH, addrs, 0, CACHE_SIZE - BATCH);
+                System.arraycopy(slabs, BATCH, slabs, 0, CACHE_SIZE - BATCH);
+                Arrays.fill(slabs, CACHE_SIZE - BATCH, CACHE_SIZE, null);
+                count = CACHE_SIZE - BATCH;
+            }
+            addrs[count] = address;
+            slabs[count] = slab;
+            counts[sizeClass] = count + 1;
+        }
+    }
+
+}
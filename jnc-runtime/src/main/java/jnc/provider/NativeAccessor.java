@@ -15,6 +15,7 @@
  */
 package jnc.provider;
 
+import java.io.IOException;
 import java.lang.annotation.Native;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -61,10 +62,8 @@ interface NativeAccessor {
     @SuppressWarnings("unused")
     int RTLD_LAZY = 1;
     @Native
-    @SuppressWarnings("unused")
     int RTLD_NOW = 2;
     @Native
-    @SuppressWarnings("unused")
     int RTLD_LOCAL = 4;
     @Native
     @SuppressWarnings("unused")
@@ -75,6 +74,39 @@ interface NativeAccessor {
     @Native
     int CONVENTION_STDCALL = 1;
 
+    /**
+     * Pass as the method id to save the last error in a native thread local,
+     * which can be read by {@link #getLastError()} later.
+     */
+    @Native
+    long LAST_ERROR_THREAD_LOCAL = -1;
+
+    /**
+     * Increase when a native method is added or changed, a library built from
+     * the same source returns it from {@link #getApiVersion()}.
+     */
+    @Native
+    int API_VERSION = 1;
+
+    @Native
+    int MAP_READ_ONLY = 0;
+    @Native
+    int MAP_READ_WRITE = 1;
+    @Native
+    int MAP_PRIVATE = 2;
+
+    @Native
+    @SuppressWarnings("unused")
+    int ADVICE_NORMAL = 0;
+    @Native
+    int ADVICE_SEQUENTIAL = 1;
+    @Native
+    int ADVICE_RANDOM = 2;
+    @Native
+    int ADVICE_WILL_NEED = 3;
+    @Native
+    int ADVICE_DONT_NEED = 4;
+
     /**
      * array index also indicate the type, has null entry
      *
@@ -191,11 +223,95 @@ interface NativeAccessor {
      * @throws IllegalArgumentException n&lt;0
      * @throws NullPointerException n&gt;0 and either dst or src is zero
      */
-    @SuppressWarnings("unused")
     void copyMemory(long dst, long src, long n);
 
+    /**
+     * copy memory, the regions may overlap
+     *
+     * @throws IllegalArgumentException n&lt;0
+     * @throws NullPointerException n&gt;0 and either dst or src is zero
+     */
+    void moveMemory(long dst, long src, long n);
+
+    void setMemory(long address, long n, byte value);
+
+    /**
+     * @return -1, 0 or 1 as memcmp returns a negative, zero or positive value
+     */
+    int compareMemory(long a, long b, long n);
+
+    /**
+     * @return index of the first different byte, or -1 if all the bytes are
+     * same
+     */
+    long mismatchMemory(long a, long b, long n);
+
+    /**
+     * @return index of the first byte found, or -1 if not found
+     */
+    long indexOfByte(long address, long n, byte value);
+
+    /**
+     * @return index of the first occurrence of the pattern, or -1 if not found
+     */
+    long indexOfBytes(long address, long n, byte[] pattern);
+
     void freeMemory(long address);
 
+    /**
+     * allocate memory of specified size, the content is not initialized
+     *
+     * @throws IllegalArgumentException size&lt;0
+     */
+    long allocateUninitializedMemory(long size) throws OutOfMemoryError;
+
+    /**
+     * Same as realloc, the address must be allocated by
+     * {@link #allocateMemory(long)} or
+     * {@link #allocateUninitializedMemory(long)}. The memory is untouched if
+     * failed to reallocate.
+     *
+     * @return the new address
+     * @throws NullPointerException address is zero
+     * @throws IllegalArgumentException size&lt;0
+     */
+    long reallocateMemory(long address, long size) throws OutOfMemoryError;
+
+    /**
+     * allocate clean memory of specified size and alignment, which must be
+     * freed by {@link #freeAlignedMemory(long)}
+     *
+     * @param alignment power of two
+     * @throws IllegalArgumentException size&lt;0 or alignment is not power of
+     * two
+     */
+    long allocateAlignedMemory(long size, long alignment) throws OutOfMemoryError;
+
+    void freeAlignedMemory(long address);
+
+    int getPageSize();
+
+    /**
+     * map a region of the file, the file is extended if the region exceeds
+     * the size of the file and the mode is {@link #MAP_READ_WRITE}.
+     *
+     * @param mode one of the {@code MAP_*} constants
+     * @return the address of the region, not necessarily page aligned
+     * @throws IllegalArgumentException offset&lt;0 or length&lt;=0
+     * @throws IOException if the file can't be opened or mapped
+     */
+    long mapFile(String path, long offset, long length, int mode) throws IOException;
+
+    void unmapFile(long address, long length);
+
+    void syncFile(long address, long length) throws IOException;
+
+    /**
+     * @param advice one of the {@code ADVICE_*} constants, only a hint and
+     * might be ignored
+     */
+    void adviseFile(long address, long length, int advice);
+
     /**
      * align<<32|size
      */
@@ -209,6 +325,56 @@ interface NativeAccessor {
 
     long invoke(long cif, long function, long base, @Nullable int[] offsets, Object obj, long methodId);
 
+    /**
+     * invoke with arguments packed in a java array, one slot per argument,
+     * already converted to the parameter type.
+     *
+     * @param values argument slots, the length must not be less than the
+     * argument count of the cif
+     */
+    long invokePacked(long cif, long function, long[] values, @Nullable Object obj, long methodId);
+
+    /**
+     * Same as {@link #invokePacked}, except that the non null elements of
+     * arrays are primitive arrays passed without copying. The slot of an
+     * array holds the signature of its component type, such as {@code 'B'}
+     * for {@code byte[]}.
+     */
+    long invokeCritical(long cif, long function, long[] values, Object[] arrays, @Nullable Object obj, long methodId);
+
+    /**
+     * Direct calls for functions with at most six parameters, all of which
+     * are integral types or pointers no larger than a pointer. Arguments are
+     * passed as is, the result is not narrowed to the return type.
+     */
+    long invoke_J(long function, @Nullable Object obj, long methodId);
+
+    long invokeJ_J(long function, long a0, @Nullable Object obj, long methodId);
+
+    long invokeJJ_J(long function, long a0, long a1, @Nullable Object obj, long methodId);
+
+    long invokeJJJ_J(long function, long a0, long a1, long a2, @Nullable Object obj, long methodId);
+
+    long invokeJJJJ_J(long function, long a0, long a1, long a2, long a3, @Nullable Object obj, long methodId);
+
+    long invokeJJJJJ_J(long function, long a0, long a1, long a2, long a3, long a4, @Nullable Object obj, long methodId);
+
+    long invokeJJJJJJ_J(long function, long a0, long a1, long a2, long a3, long a4, long a5, @Nullable Object obj, long methodId);
+
+    /**
+     * @return the last error saved by the calls on current thread with method
+     * id {@link #LAST_ERROR_THREAD_LOCAL}
+     */
+    int getLastError();
+
+    /**
+     * Libraries built before {@link #API_VERSION} is introduced don't have
+     * this method.
+     *
+     * @return {@link #API_VERSION} of the source the library is built from
+     */
+    int getApiVersion();
+
     @SuppressWarnings("unused")
     void invokeStruct(long cif, long function, long base, @Nullable int[] offsets, long struct, Object obj, long methodId);
 
@@ -27,7 +27,7 @@ final class NativeLibrary implements Library {
     private static final NativeAccessor NA = NativeLoader.getAccessor();
     private static final Cleaner CLEANER = Cleaner.getInstance();
 
-    static NativeLibrary open(Platform platform, @Nullable String libName, @SuppressWarnings("SameParameterValue") int mode) {
+    static NativeLibrary open(Platform platform, @Nullable String libName, int mode) {
         Dlclose dlclose = new Dlclose(platform, libName, mode);
         try {
             return new NativeLibrary(dlclose);
@@ -57,6 +57,35 @@ final class NativeLoader {
         return NATIVE_ACCESSOR;
     }
 
+    /**
+     * Check whether an optional native method exists in the loaded library,
+     * libraries built from an older source might not have it. The probe
+     * should call the method with a null address, so the native side throws
+     * {@code NullPointerException} without doing anything.
+     */
+    static boolean isSupported(Runnable probe) {
+        try {
+            probe.run();
+            return true;
+        } catch (NullPointerException ex) {
+            return true;
+        } catch (UnsatisfiedLinkError | JniLoadingException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Whether the loaded library is built from the same source, so all the
+     * optional native methods are expected to exist.
+     */
+    static boolean isUpToDate() {
+        try {
+            return NATIVE_ACCESSOR.getApiVersion() == NativeAccessor.API_VERSION;
+        } catch (UnsatisfiedLinkError | JniLoadingException ex) {
+            return false;
+        }
+    }
+
     @VisibleForTesting
     NativeAccessor createProxy(Throwable t) {
         return ProxyBuilder.builder()
@@ -1,5 +1,6 @@
 package jnc.provider;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
@@ -177,9 +178,54 @@ enum NativeMethods implements NativeAccessor {
     @Override
     public final native void copyMemory(long dst, long src, long n);
 
+    @Override
+    public final native void moveMemory(long dst, long src, long n);
+
+    @Override
+    public final native void setMemory(long address, long n, byte value);
+
+    @Override
+    public final native int compareMemory(long a, long b, long n);
+
+    @Override
+    public final native long mismatchMemory(long a, long b, long n);
+
+    @Override
+    public final native long indexOfByte(long address, long n, byte value);
+
+    @Override
+    public final native long indexOfBytes(long address, long n, byte[] pattern);
+
     @Override
     public final native void freeMemory(long address);
 
+    @Override
+    public final native long allocateUninitializedMemory(long size);
+
+    @Override
+    public final native long reallocateMemory(long address, long size);
+
+    @Override
+    public final native long allocateAlignedMemory(long size, long alignment);
+
+    @Override
+    public final native void freeAlignedMemory(long address);
+
+    @Override
+    public final native int getPageSize();
+
+    @Override
+    public final native long mapFile(String path, long offset, long length, int mode) throws IOException;
+
+    @Override
+    public final native void unmapFile(long address, long length);
+
+    @Override
+    public final native void syncFile(long address, long length) throws IOException;
+
+    @Override
+    public final native void adviseFile(long address, long length, int advice);
+
     /**
      * {@inheritDoc}
      */
@@ -195,6 +241,39 @@ enum NativeMethods implements NativeAccessor {
     @Override
     public final native long invoke(long cif, long function, long base, @Nullable int[] offsets, Object obj, long methodId);
 
+    @Override
+    public final native long invokePacked(long cif, long function, long[] values, @Nullable Object obj, long methodId);
+
+    @Override
+    public final native long invokeCritical(long cif, long function, long[] values, Object[] arrays, @Nullable Object obj, long methodId);
+
+    @Override
+    public final native long invoke_J(long function, @Nullable Object obj, long methodId);
+
+    @Override
+    public final native long invokeJ_J(long function, long a0, @Nullable Object obj, long methodId);
+
+    @Override
+    public final native long invokeJJ_J(long function, long a0, long a1, @Nullable Object obj, long methodId);
+
+    @Override
+    public final native long invokeJJJ_J(long function, long a0, long a1, long a2, @Nullable Object obj, long methodId);
+
+    @Override
+    public final native long invokeJJJJ_J(long function, long a0, long a1, long a2, long a3, @Nullable Object obj, long methodId);
+
+    @Override
+    public final native long invokeJJJJJ_J(long function, long a0, long a1, long a2, long a3, long a4, @Nullable Object obj, long methodId);
+
+    @Override
+    public final native long invokeJJJJJJ_J(long function, long a0, long a1, long a2, long a3, long a4, long a5, @Nullable Object obj, long methodId);
+
+    @Override
+    public final native int getLastError();
+
+    @Override
+    public final native int getApiVersion();
+
     @Override
     public final native void invokeStruct(long cif, long function, long base, @Nullable int[] offsets, long struct, Object obj, long methodId);
 
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.util.function.IntConsumer;
+import javax.annotation.Nullable;
+import jnc.foreign.Pointer;
+
+/**
+ * Arguments are converted in java and kept in a java array, the native
+ * function is called with a single jni call.
+ *
+ * @author zhanhb
+ */
+final class PackedCallContext extends BaseCallContext {
+
+    private static final NativeAccessor NA = NativeLoader.getAccessor();
+    private static final long[] EMPTY = {};
+    private static final boolean CRITICAL = NativeLoader.isSupported(
+            () -> NA.invokeCritical(0, 0, EMPTY, new Object[0], null, 0));
+
+    private final long[] values;
+    private final InternalType[] params;
+    // must keep a strong reference to cif, see CifCallContext
+    private final Pointer cif;
+    // primitive arrays passed without copying, null if there is none
+    @Nullable
+    private Object[] arrays;
+
+    PackedCallContext(InternalType[] params, Pointer cif, @Nullable IntConsumer lastErrorHandler) {
+        super(lastErrorHandler);
+        this.values = params.length != 0 ? new long[params.length] : EMPTY;
+        this.params = params;
+        this.cif = cif;
+    }
+
+    @Override
+    public void putInt(int i, int value) {
+        switch (params[i].nativeType()) {
+            case FLOAT:
+                values[i] = Float.floatToRawIntBits(value);
+                break;
+            case DOUBLE:
+                values[i] = Double.doubleToRawLongBits(value);
+                break;
+            default:
+                values[i] = value;
+                break;
+        }
+    }
+
+    @Override
+    public void putLong(int i, long value) {
+        switch (params[i].nativeType()) {
+            case FLOAT:
+                values[i] = Float.floatToRawIntBits(value);
+                break;
+            case DOUBLE:
+                values[i] = Double.doubleToRawLongBits(value);
+                break;
+            default:
+                values[i] = value;
+                break;
+        }
+    }
+
+    @Override
+    public void putFloat(int i, float value) {
+        switch (params[i].nativeType()) {
+            case FLOAT:
+                values[i] = Float.floatToRawIntBits(value);
+                break;
+            case DOUBLE:
+                values[i] = Double.doubleToRawLongBits(value);
+                break;
+            default:
+                values[i] = (long) value;
+                break;
+        }
+    }
+
+    @Override
+    public void putDouble(int i, double value) {
+        switch (params[i].nativeType()) {
+            case FLOAT:
+                values[i] = Float.floatToRawIntBits((float) value);
+                break;
+            case DOUBLE:
+                values[i] = Double.doubleToRawLongBits(value);
+                break;
+            default:
+                values[i] = (long) value;
+                break;
+        }
+    }
+
+    @Override
+    public boolean putCriticalArray(int i, Object array, char signature) {
+        if (!CRITICAL) {
+            return false;
+        }
+        Object[] a = arrays;
+        if (a == null) {
+            a = new Object[params.length];
+            arrays = a;
+        }
+        a[i] = array;
+        values[i] = signature;
+        return true;
+    }
+
+    @Override
+    public long invoke(long function) {
+        Object[] a = arrays;
+        long result = a != null
+                ? NA.invokeCritical(cif.address(), function, values, a,
+                        lastErrorHandler(), lastErrorMethodId())
+                : NA.invokePacked(cif.address(), function, values,
+                        lastErrorHandler(), lastErrorMethodId());
+        finish();
+        return result;
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
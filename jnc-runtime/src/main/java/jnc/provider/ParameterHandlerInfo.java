@@ -23,6 +23,10 @@ interface ParameterHandlerInfo {
 
     ParameterPutter<?> getPutter(Class<?> type);
 
+    default ParameterPutter<?> getPutter(Class<?> type, AnnotationContext ac) {
+        return getPutter(type);
+    }
+
     InternalType getType(Class<?> type, TypeFactory typeFactory, AnnotationContext ac);
 
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+/**
+ * Memory allocated from {@link MemoryPool}, the block is recycled when closed
+ * or after the lease is collected. The block might be allocated again once
+ * closed, so access after closed fails fast instead of touching the memory
+ * of another allocation.
+ *
+ * @author zhanhb
+ */
+final class PooledMemory extends GuardedMemory implements AutoCloseable {
+
+    static PooledMemory allocate(long size) throws OutOfMemoryError {
+        return allocate(size, true);
+    }
+
+    static PooledMemory allocate(long size, boolean zero) throws OutOfMemoryError {
+        if (size < 0) {
+            throw new IllegalArgumentException();
+        }
+        int sizeClass = MemoryPool.sizeClass(size);
+        PooledMemory memory = MemoryPool.allocate(sizeClass, size);
+        if (zero && sizeClass >= 0) {
+            // the block might be used before
+            RawMemory.fill(memory.address(), size, (byte) 0);
+        }
+        return memory;
+    }
+
+    private final MemoryPool.Lease lease;
+    private final int index;
+
+    PooledMemory(long address, long size, MemoryPool.Lease lease, int index) {
+        super(new SizedDirectMemory(address, size));
+        this.lease = lease;
+        this.index = index;
+    }
+
+    @Override
+    void checkOpen() {
+        if (lease.isReleased(index)) {
+            throw new IllegalStateException("closed");
+        }
+    }
+
+    @Override
+    Slice newSlice(SizedDirectMemory target) {
+        return new Slice(this, target);
+    }
+
+    @VisibleForTesting
+    MemoryPool.Lease getLease() {
+        return lease;
+    }
+
+    /**
+     * This memory is closed after the content is copied to the result.
+     */
+    PooledMemory reallocate(long newSize) throws OutOfMemoryError {
+        checkOpen();
+        PooledMemory result = allocate(newSize, false);
+        RawMemory.move(result.address(), address(), Math.min(capacity(), newSize));
+        close();
+        return result;
+    }
+
+    @Override
+    public void close() {
+        lease.release(index);
+    }
+
+    /**
+     * A slice shares the state of the memory, and keeps it reachable.
+     */
+    private static final class Slice extends GuardedMemory {
+
+        private final PooledMemory memory;
+
+        Slice(PooledMemory memory, SizedDirectMemory target) {
+            super(target);
+            this.memory = memory;
+        }
+
+        @Override
+        void checkOpen() {
+            memory.checkOpen();
+        }
+
+        @Override
+        Slice newSlice(SizedDirectMemory target) {
+            return new Slice(memory, target);
+        }
+
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import jnc.foreign.Arena;
+import jnc.foreign.MappedPointer;
+import jnc.foreign.MemoryManager;
+import jnc.foreign.Pointer;
+
+/**
+ * @author zhanhb
+ */
+@ParametersAreNonnullByDefault
+enum PooledMemoryManager implements MemoryManager {
+
+    INSTANCE;
+
+    // slabs are allocated by malloc, blocks of any size class keep the alignment
+    private static final long ALIGNMENT = 16;
+
+    @Nonnull
+    @Override
+    public Pointer allocate(long size) {
+        return PooledMemory.allocate(size);
+    }
+
+    @Nonnull
+    @Override
+    public Pointer allocateUninitialized(long size) {
+        return PooledMemory.allocate(size, false);
+    }
+
+    @Nonnull
+    @Override
+    public Pointer reallocate(Pointer pointer, long newSize) {
+        if (!(pointer instanceof PooledMemory)) {
+            throw new IllegalArgumentException("pointer is not allocated by this memory manager");
+        }
+        return ((PooledMemory) pointer).reallocate(newSize);
+    }
+
+    @Nonnull
+    @Override
+    public Pointer allocateWithAlign(long size, long alignment) {
+        if (alignment > ALIGNMENT || alignment <= 0 || (alignment & (alignment - 1)) != 0) {
+            return DefaultMemoryManager.INSTANCE.allocateWithAlign(size, alignment);
+        }
+        return PooledMemory.allocate(size);
+    }
+
+    @Override
+    public int getPageSize() {
+        return AllocatedMemory.PAGE_SIZE;
+    }
+
+    @Nonnull
+    @Override
+    public Pointer allocateString(String string, Charset charset) {
+        byte[] bytes = string.getBytes(charset);
+        int terminatorLength = CharsetUtil.getTerminatorLength(charset);
+        // fully overwritten by the string and terminator
+        PooledMemory memory = PooledMemory.allocate(bytes.length + terminatorLength, false);
+        memory.putString(0, string, charset);
+        return memory;
+    }
+
+    @Nonnull
+    @Override
+    public Pointer wrap(ByteBuffer buffer) {
+        return DirectBufferPointer.wrap(buffer);
+    }
+
+    @Nonnull
+    @Override
+    public MappedPointer map(Path path, long offset, long length, FileChannel.MapMode mode) throws IOException {
+        return MappedMemory.map(path, offset, length, mode);
+    }
+
+    @Nonnull
+    @Override
+    public Arena newArena() {
+        return new DefaultArena();
+    }
+
+}
@@ -17,31 +17,46 @@ package jnc.provider;
 
 import java.lang.reflect.Array;
 import jnc.foreign.Pointer;
+import jnc.foreign.annotation.Critical;
+import jnc.foreign.annotation.In;
+import jnc.foreign.annotation.Out;
 
 /**
+ * Arrays are copied to a native memory before the call and copied back after
+ * the call. Parameter annotated with {@link In} is not copied back, and with
+ * {@link Out} is not copied to the native memory. Parameter annotated with
+ * {@link Critical} is passed without copying if the call context supports it.
  *
  * @author zhanhb
  */
 final class PrimitiveArrayHandler<T> implements ParameterHandlerInfo, ParameterPutter<T> {
 
     static <T> PrimitiveArrayHandler<T> of(
+            Class<T> type,
             ArrayMemoryCopy<T> toNative,
             ArrayMemoryCopy<T> fromNative,
             int unit,
             InternalType pointerType) {
-        return new PrimitiveArrayHandler<>(toNative, fromNative, unit, pointerType);
+        // [B => B
+        char signature = type.getName().charAt(1);
+        return new PrimitiveArrayHandler<>(signature, toNative, fromNative, unit, pointerType);
     }
 
+    private final char signature;
     private final ArrayMemoryCopy<T> toNative;
     private final ArrayMemoryCopy<T> fromNative;
     private final int unit;
     private final InternalType pointerType;
+    private final ParameterPutter<T> in = (context, index, array) -> put(context, index, array, true, false);
+    private final ParameterPutter<T> out = (context, index, array) -> put(context, index, array, false, true);
 
     private PrimitiveArrayHandler(
+            char signature,
             ArrayMemoryCopy<T> toNative,
             ArrayMemoryCopy<T> fromNative,
             int unit,
             InternalType pointerType) {
+        this.signature = signature;
         this.toNative = toNative;
         this.fromNative = fromNative;
         this.unit = unit;
@@ -53,14 +68,33 @@ final class PrimitiveArrayHandler<T> implements ParameterHandlerInfo, ParameterP
         return this;
     }
 
+    @Override
+    public ParameterPutter<?> getPutter(Class<?> type, AnnotationContext ac) {
+        boolean isIn = ac.isAnnotationPresent(In.class);
+        boolean isOut = ac.isAnnotationPresent(Out.class);
+        ParameterPutter<T> putter = isIn == isOut ? this : isIn ? in : out;
+        if (ac.isAnnotationPresent(Critical.class)) {
+            return (ParameterPutter<T>) (context, index, array) -> {
+                if (array == null || !context.putCriticalArray(index, array, signature)) {
+                    putter.doPut(context, index, array);
+                }
+            };
+        }
+        return putter;
+    }
+
     @Override
     public InternalType getType(Class<?> type, TypeFactory typeFactory, AnnotationContext ac) {
         return pointerType;
     }
 
     @Override
-    @SuppressWarnings("NestedAssignment")
     public void doPut(CallContext context, int index, T array) {
+        put(context, index, array, true, true);
+    }
+
+    @SuppressWarnings("NestedAssignment")
+    private void put(CallContext context, int index, T array, boolean copyIn, boolean copyOut) {
         int len;
         if (array == null) {
             context.putLong(index, 0);
@@ -70,8 +104,16 @@ final class PrimitiveArrayHandler<T> implements ParameterHandlerInfo, ParameterP
             int offset = 0;
             int off = 0;
             Pointer memory = AllocatedMemory.allocate((long) len * unit);
-            toNative.handle(memory, offset, array, off, len);
-            context.onFinish(() -> fromNative.handle(memory, offset, array, off, len)).putLong(index, memory.address());
+            if (copyIn) {
+                toNative.handle(memory, offset, array, off, len);
+            }
+            if (copyOut) {
+                context.onFinish(() -> fromNative.handle(memory, offset, array, off, len));
+            } else {
+                // keep a strong reference to the memory until the call finishes
+                context.onFinish(memory::address);
+            }
+            context.putLong(index, memory.address());
         }
     }
 
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.util.Arrays;
+
+/**
+ * Raw access of native memory by address, through {@link UnsafeAccess} when
+ * it is enabled, or else by jni.
+ *
+ * Bulk operations are done by memmove, memset, memcmp and memchr, or by
+ * copying chunks of the memory to java if the native library doesn't have
+ * them.
+ *
+ * @author zhanhb
+ */
+@SuppressWarnings("UtilityClassWithoutPrivateConstructor")
+final class RawMemory {
+
+    private static final NativeAccessor NA = NativeLoader.getAccessor();
+    // the bulk operations are added to the native library together
+    private static final boolean BULK = NativeLoader.isSupported(() -> NA.setMemory(0, 0, (byte) 0));
+    private static final int CHUNK = 8192;
+
+    static byte getByte(long address) {
+        return UnsafeAccess.ENABLED ? UnsafeAccess.getByte(address) : NA.getRawByte(address);
+    }
+
+    static void putByte(long address, byte value) {
+        if (UnsafeAccess.ENABLED) {
+            UnsafeAccess.putByte(address, value);
+        } else {
+            NA.putRawByte(address, value);
+        }
+    }
+
+    static short getShort(long address) {
+        return UnsafeAccess.ENABLED ? UnsafeAccess.getShort(address) : NA.getRawShort(address);
+    }
+
+    static void putShort(long address, short value) {
+        if (UnsafeAccess.ENABLED) {
+            UnsafeAccess.putShort(address, value);
+        } else {
+            NA.putRawShort(address, value);
+        }
+    }
+
+    static int getInt(long address) {
+        return UnsafeAccess.ENABLED ? UnsafeAccess.getInt(address) : NA.getRawInt(address);
+    }
+
+    static void putInt(long address, int value) {
+        if (UnsafeAccess.ENABLED) {
+            UnsafeAccess.putInt(address, value);
+        } else {
+            NA.putRawInt(address, value);
+        }
+    }
+
+    static long getLong(long address) {
+        return UnsafeAccess.ENABLED ? UnsafeAccess.getLong(address) : NA.getRawLong(address);
+    }
+
+    static void putLong(long address, long value) {
+        if (UnsafeAccess.ENABLED) {
+            UnsafeAccess.putLong(address, value);
+        } else {
+            NA.putRawLong(address, value);
+        }
+    }
+
+    static float getFloat(long address) {
+        return UnsafeAccess.ENABLED ? UnsafeAccess.getFloat(address) : NA.getRawFloat(address);
+    }
+
+    static void putFloat(long address, float value) {
+        if (UnsafeAccess.ENABLED) {
+            UnsafeAccess.putFloat(address, value);
+        } else {
+            NA.putRawFloat(address, value);
+        }
+    }
+
+    static double getDouble(long address) {
+        return UnsafeAccess.ENABLED ? UnsafeAccess.getDouble(address) : NA.getRawDouble(address);
+    }
+
+    static void putDouble(long address, double value) {
+        if (UnsafeAccess.ENABLED) {
+            UnsafeAccess.putDouble(address, value);
+        } else {
+            NA.putRawDouble(address, value);
+        }
+    }
+
+    static long getAddress(long address) {
+        return UnsafeAccess.ENABLED ? UnsafeAccess.getAddress(address) : NA.getAddress(address);
+    }
+
+    static void putAddress(long address, long value) {
+        if (UnsafeAccess.ENABLED) {
+            UnsafeAccess.putAddress(address, value);
+        } else {
+            NA.putAddress(address, value);
+        }
+    }
+
+    static void move(long dst, long src, long n) {
+        if (BULK) {
+            NA.moveMemory(dst, src, n);
+        } else if (n <= 0 || dst + n <= src || src + n <= dst) {
+            NA.copyMemory(dst, src, n);
+        } else {
+            // every chunk is read before written, copy from the end if the
+            // destination is after the source
+            byte[] buf = new byte[(int) Math.min(n, CHUNK)];
+            boolean forward = dst < src;
+            for (long done = 0; done < n;) {
+                int len = (int) Math.min(n - done, CHUNK);
+                long pos = forward ? done : n - done - len;
+                NA.getBytes(src + pos, buf, 0, len);
+                NA.putBytes(dst + pos, buf, 0, len);
+                done += len;
+            }
+        }
+    }
+
+    static void fill(long address, long n, byte value) {
+        if (BULK) {
+            NA.setMemory(address, n, value);
+            return;
+        }
+        checkLength(n);
+        byte[] buf = new byte[(int) Math.min(n, CHUNK)];
+        Arrays.fill(buf, value);
+        for (long done = 0; done < n;) {
+            int len = (int) Math.min(n - done, CHUNK);
+            NA.putBytes(address + done, buf, 0, len);
+            done += len;
+        }
+    }
+
+    static int compare(long a, long b, long n) {
+        if (BULK) {
+            return NA.compareMemory(a, b, n);
+        }
+        long index = mismatch(a, b, n);
+        return index < 0 ? 0 : Integer.compare(getByte(a + index) & 0xFF, getByte(b + index) & 0xFF);
+    }
+
+    static long mismatch(long a, long b, long n) {
+        if (BULK) {
+            return NA.mismatchMemory(a, b, n);
+        }
+        checkLength(n);
+        int size = (int) Math.min(n, CHUNK);
+        byte[] x = new byte[size];
+        byte[] y = new byte[size];
+        for (long done = 0; done < n;) {
+            int len = (int) Math.min(n - done, CHUNK);
+            NA.getBytes(a + done, x, 0, len);
+            NA.getBytes(b + done, y, 0, len);
+            for (int i = 0; i < len; ++i) {
+                if (x[i] != y[i]) {
+                    return done + i;
+                }
+            }
+            done += len;
+        }
+        return -1;
+    }
+
+    static long indexOf(long address, long n, byte value) {
+        if (BULK) {
+            return NA.indexOfByte(address, n, value);
+        }
+        checkLength(n);
+        byte[] buf = new byte[(int) Math.min(n, CHUNK)];
+        for (long done = 0; done < n;) {
+            int len = (int) Math.min(n - done, CHUNK);
+            NA.getBytes(address + done, buf, 0, len);
+            for (int i = 0; i < len; ++i) {
+                if (buf[i] == value) {
+                    return done + i;
+                }
+            }
+            done += len;
+        }
+        return -1;
+    }
+
+    static long indexOf(long address, long n, byte[] pattern) {
+        if (BULK) {
+            return NA.indexOfBytes(address, n, pattern);
+        }
+        checkLength(n);
+        int plen = pattern.length;
+        if (plen == 0) {
+            return 0;
+        }
+        byte[] buf = new byte[plen];
+        for (long pos = 0, last = n - plen; pos <= last; ++pos) {
+            long found = indexOf(address + pos, last - pos + 1, pattern[0]);
+            if (found < 0) {
+                break;
+            }
+            pos += found;
+            NA.getBytes(address + pos, buf, 0, plen);
+            if (Arrays.equals(buf, pattern)) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    private static void checkLength(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+}
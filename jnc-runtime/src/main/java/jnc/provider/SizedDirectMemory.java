@@ -29,6 +29,22 @@ class SizedDirectMemory extends BaseMemory {
         }
     }
 
+    /**
+     * Same as {@link #checkSize(long, int, int)}, kept small enough to be
+     * inlined, the exception is created in another method. The JIT can hoist
+     * the comparisons out of a counted loop as the capacity is final.
+     */
+    private static void checkIndex(long capacity, long offset, int size) {
+        if (offset < 0 || offset > capacity - size) {
+            throw outOfBounds(capacity, offset, size);
+        }
+    }
+
+    private static IndexOutOfBoundsException outOfBounds(long capacity, long offset, int size) {
+        String format = "capacity of this pointer is %s, but trying to access an object with size=%s at position %s";
+        return new IndexOutOfBoundsException(String.format(format, capacity, size, offset));
+    }
+
     private final long capacity;
 
     SizedDirectMemory(long address, long capacity) {
@@ -132,6 +148,78 @@ class SizedDirectMemory extends BaseMemory {
         return accessor().getDouble(offset);
     }
 
+    @Override
+    public final void putByte(long offset, byte value) {
+        checkIndex(capacity, offset, Byte.BYTES);
+        accessor().putByte(offset, value);
+    }
+
+    @Override
+    public final void putShort(long offset, short value) {
+        checkIndex(capacity, offset, Short.BYTES);
+        accessor().putShort(offset, value);
+    }
+
+    @Override
+    public final void putInt(long offset, int value) {
+        checkIndex(capacity, offset, Integer.BYTES);
+        accessor().putInt(offset, value);
+    }
+
+    @Override
+    public final void putLong(long offset, long value) {
+        checkIndex(capacity, offset, Long.BYTES);
+        accessor().putLong(offset, value);
+    }
+
+    @Override
+    public final void putFloat(long offset, float value) {
+        checkIndex(capacity, offset, Float.BYTES);
+        accessor().putFloat(offset, value);
+    }
+
+    @Override
+    public final void putDouble(long offset, double value) {
+        checkIndex(capacity, offset, Double.BYTES);
+        accessor().putDouble(offset, value);
+    }
+
+    @Override
+    public final byte getByte(long offset) {
+        checkIndex(capacity, offset, Byte.BYTES);
+        return accessor().getByte(offset);
+    }
+
+    @Override
+    public final short getShort(long offset) {
+        checkIndex(capacity, offset, Short.BYTES);
+        return accessor().getShort(offset);
+    }
+
+    @Override
+    public final int getInt(long offset) {
+        checkIndex(capacity, offset, Integer.BYTES);
+        return accessor().getInt(offset);
+    }
+
+    @Override
+    public final long getLong(long offset) {
+        checkIndex(capacity, offset, Long.BYTES);
+        return accessor().getLong(offset);
+    }
+
+    @Override
+    public final float getFloat(long offset) {
+        checkIndex(capacity, offset, Float.BYTES);
+        return accessor().getFloat(offset);
+    }
+
+    @Override
+    public final double getDouble(long offset) {
+        checkIndex(capacity, offset, Double.BYTES);
+        return accessor().getDouble(offset);
+    }
+
     @Override
     public final void putBytes(int offset, byte[] bytes, int off, int len) {
         checkArrayIndex(capacity, offset, len, Byte.BYTES, "byte");
@@ -224,13 +312,21 @@ class SizedDirectMemory extends BaseMemory {
         return new Slice(this, beginIndex, endIndex - beginIndex);
     }
 
+    @NotFinal(NotFinal.Reason.EXTENSION_PRESENT)
+    @Nonnull
+    @Override
+    public Slice slice(long beginIndex, long endIndex) {
+        checkSliceRange(capacity, beginIndex, endIndex);
+        return new Slice(this, beginIndex, endIndex - beginIndex);
+    }
+
     static final class Slice extends SizedDirectMemory {
 
         // a holder to keep reference of the memory
         private final Memory outer;
-        private final int offset;
+        private final long offset;
 
-        Slice(Memory outer, int offset, int capacity) {
+        Slice(Memory outer, long offset, long capacity) {
             super(outer.address() + offset, capacity);
             this.outer = outer;
             this.offset = offset;
@@ -243,6 +339,13 @@ class SizedDirectMemory extends BaseMemory {
             return new Slice(outer, offset + beginIndex, endIndex - beginIndex);
         }
 
+        @Nonnull
+        @Override
+        public Slice slice(long beginIndex, long endIndex) {
+            checkSliceRange(capacity(), beginIndex, endIndex);
+            return new Slice(outer, offset + beginIndex, endIndex - beginIndex);
+        }
+
     }
 
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import jnc.foreign.Pointer;
+import jnc.foreign.Struct;
+
+/**
+ * Raw memory access used by the classes generated by
+ * {@link StructAccessorGenerator}. Generated classes are defined in the
+ * package of the accessor interface, so the methods must be public. They are
+ * instance methods and the only instance is passed to the constructor of the
+ * generated classes, it is not available to anyone else.
+ *
+ * @author zhanhb
+ */
+@SuppressWarnings("unused")
+public final class StructAccess {
+
+    static final StructAccess INSTANCE = new StructAccess();
+
+    /**
+     * @throws IndexOutOfBoundsException if the field is out of the memory
+     */
+    public long address(Pointer pointer, int offset, int size) {
+        if (offset + size > pointer.size()) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", size=" + size + ", capacity=" + pointer.size());
+        }
+        return pointer.address() + offset;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the field is out of the memory
+     */
+    public long address(Struct struct, int offset, int size) {
+        return address(struct.getMemory(), offset, size);
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the field is out of the memory
+     * @throws java.nio.ReadOnlyBufferException if the memory is read only
+     */
+    public long writableAddress(Pointer pointer, int offset, int size) {
+        if (pointer instanceof Memory) {
+            ((Memory) pointer).checkWritable();
+        }
+        return address(pointer, offset, size);
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the field is out of the memory
+     * @throws java.nio.ReadOnlyBufferException if the memory is read only
+     */
+    public long writableAddress(Struct struct, int offset, int size) {
+        return writableAddress(struct.getMemory(), offset, size);
+    }
+
+    public byte getInt8(long address) {
+        return RawMemory.getByte(address);
+    }
+
+    public short getUInt8(long address) {
+        return (short) (RawMemory.getByte(address) & 0xFF);
+    }
+
+    public boolean getBoolean8(long address) {
+        return RawMemory.getByte(address) != 0;
+    }
+
+    public short getInt16(long address) {
+        return RawMemory.getShort(address);
+    }
+
+    public char getUInt16(long address) {
+        return (char) RawMemory.getShort(address);
+    }
+
+    public int getInt32(long address) {
+        return RawMemory.getInt(address);
+    }
+
+    public boolean getBoolean32(long address) {
+        return RawMemory.getInt(address) != 0;
+    }
+
+    public long getInt32AsLong(long address) {
+        return RawMemory.getInt(address);
+    }
+
+    public long getUInt32(long address) {
+        return RawMemory.getInt(address) & 0xFFFFFFFFL;
+    }
+
+    public long getInt64(long address) {
+        return RawMemory.getLong(address);
+    }
+
+    public float getFloat(long address) {
+        return RawMemory.getFloat(address);
+    }
+
+    public double getDouble(long address) {
+        return RawMemory.getDouble(address);
+    }
+
+    public void putInt8(long address, byte value) {
+        RawMemory.putByte(address, value);
+    }
+
+    public void putInt8(long address, short value) {
+        RawMemory.putByte(address, (byte) value);
+    }
+
+    public void putInt8(long address, boolean value) {
+        RawMemory.putByte(address, (byte) (value ? 1 : 0));
+    }
+
+    public void putInt16(long address, short value) {
+        RawMemory.putShort(address, value);
+    }
+
+    public void putInt16(long address, char value) {
+        RawMemory.putShort(address, (short) value);
+    }
+
+    public void putInt32(long address, int value) {
+        RawMemory.putInt(address, value);
+    }
+
+    public void putInt32(long address, boolean value) {
+        RawMemory.putInt(address, value ? 1 : 0);
+    }
+
+    public void putInt32(long address, long value) {
+        RawMemory.putInt(address, (int) value);
+    }
+
+    public void putInt64(long address, long value) {
+        RawMemory.putLong(address, value);
+    }
+
+    public void putFloat(long address, float value) {
+        RawMemory.putFloat(address, value);
+    }
+
+    public void putDouble(long address, double value) {
+        RawMemory.putDouble(address, value);
+    }
+
+    private StructAccess() {
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import jnc.foreign.Pointer;
+import jnc.foreign.Struct;
+import jnc.foreign.support.StructField;
+
+import static jnc.provider.InvokerClassGenerator.*;
+
+/**
+ * Generate a final class implementing an accessor interface of a struct. Each
+ * abstract method reads or writes the field of the same name, at a constant
+ * offset from the address, through the {@link StructAccess} passed to the
+ * constructor, so the jit compiles the access to a single load or store.
+ *
+ * A getter takes the address, which is a {@code long}, a {@link Pointer} or a
+ * {@link Struct}, which is checked against the size of the memory, and
+ * returns the type the field gets. A setter takes the address and the value
+ * the field sets, and returns void, the memory of a {@link Pointer} or a
+ * {@link Struct} is also checked to be writable.
+ *
+ * @author zhanhb
+ */
+final class StructAccessorGenerator {
+
+    private static final NativeAccessor NA = NativeLoader.getAccessor();
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private static final String STRUCT_ACCESS = "jnc/provider/StructAccess";
+    private static final String STRUCT_ACCESS_DESCRIPTOR = "L" + STRUCT_ACCESS + ";";
+    private static final String FIELD_NAME = "access";
+
+    private static final int LADD = 0x61;
+    private static final int I2L = 0x85;
+
+    static <T> T newInstance(Class<T> accessorInterface, Map<String, StructField> fields) {
+        if (!accessorInterface.isInterface()) {
+            throw new IllegalArgumentException(accessorInterface + " is not an interface");
+        }
+        ClassLoader loader = accessorInterface.getClassLoader();
+        if (loader == null) {
+            throw new IllegalArgumentException("class loader of " + accessorInterface + " is null");
+        }
+        List<Method> methods = abstractMethods(accessorInterface);
+        String name = accessorInterface.getName() + "$$Accessor$" + SEQUENCE.incrementAndGet();
+        String internalName = name.replace('.', '/');
+        byte[] bytes = new StructAccessorGenerator(internalName, accessorInterface, methods, fields).generate();
+        Class<?> klass = NA.defineClass(internalName, loader, bytes);
+        try {
+            return accessorInterface.cast(klass.getConstructor(StructAccess.class).newInstance(StructAccess.INSTANCE));
+        } catch (InvocationTargetException ex) {
+            throw new IllegalStateException(ex.getTargetException());
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * @return name of the method of {@link StructAccess} which gets the field
+     */
+    private static String getter(StructField field) {
+        Class<?> type = field.getJavaType();
+        switch (field.getType().nativeType()) {
+            case SINT8:
+                return type == byte.class ? "getInt8" : null;
+            case UINT8:
+                return type == short.class ? "getUInt8" : type == boolean.class ? "getBoolean8" : null;
+            case SINT16:
+                return type == short.class ? "getInt16" : null;
+            case UINT16:
+                return type == char.class ? "getUInt16" : null;
+            case SINT32:
+                return type == int.class ? "getInt32"
+                        : type == boolean.class ? "getBoolean32"
+                        : type == long.class ? "getInt32AsLong" : null;
+            case UINT32:
+                return type == long.class ? "getUInt32" : null;
+            case SINT64:
+            case UINT64:
+                return type == long.class ? "getInt64" : null;
+            case FLOAT:
+                return type == float.class ? "getFloat" : null;
+            case DOUBLE:
+                return type == double.class ? "getDouble" : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return name of the method of {@link StructAccess} which sets the
+     * field, there is one for each getter
+     */
+    private static String setter(StructField field) {
+        switch (field.getType().nativeType()) {
+            case FLOAT:
+                return "putFloat";
+            case DOUBLE:
+                return "putDouble";
+            default:
+                return "putInt" + field.getType().size() * 8;
+        }
+    }
+
+    private final ConstantPool pool = new ConstantPool();
+    private final String className;
+    private final Class<?> interfaceClass;
+    private final List<Method> methods;
+    private final Map<String, StructField> fields;
+
+    private StructAccessorGenerator(String className, Class<?> interfaceClass,
+            List<Method> methods, Map<String, StructField> fields) {
+        this.className = className;
+        this.interfaceClass = interfaceClass;
+        this.methods = methods;
+        this.fields = fields;
+    }
+
+    private byte[] generate() {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(pool.classInfo(className));
+            out.writeShort(pool.classInfo(OBJECT));
+            out.writeShort(1);
+            out.writeShort(pool.classInfo(internalName(interfaceClass)));
+
+            out.writeShort(1);
+            out.writeShort(ACC_PRIVATE | ACC_FINAL);
+            out.writeShort(pool.utf8(FIELD_NAME));
+            out.writeShort(pool.utf8(STRUCT_ACCESS_DESCRIPTOR));
+            out.writeShort(0);
+
+            out.writeShort(methods.size() + 1);
+            Code constructor = new Code(pool);
+            constructor.load(ALOAD, 0);
+            constructor.op(INVOKESPECIAL).u2(pool.methodRef(OBJECT, "<init>", "()V"));
+            constructor.load(ALOAD, 0).load(ALOAD, 1);
+            constructor.op(PUTFIELD).u2(pool.fieldRef(className, FIELD_NAME, STRUCT_ACCESS_DESCRIPTOR));
+            constructor.op(RETURN);
+            writeMethod(out, pool, "<init>", "(" + STRUCT_ACCESS_DESCRIPTOR + ")V", constructor, 2, 2);
+            for (Method method : methods) {
+                writeAccessor(out, method);
+            }
+            out.writeShort(0);
+            return toClassFile(pool, body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeAccessor(DataOutputStream out, Method method) throws IOException {
+        StructField field = fields.get(method.getName());
+        if (field == null) {
+            throw new IllegalArgumentException("no field named '" + method.getName() + "' for method " + method);
+        }
+        String getter = getter(field);
+        if (getter == null) {
+            throw new IllegalArgumentException("unsupported field '" + method.getName() + "' for method " + method);
+        }
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Class<?> returnType = method.getReturnType();
+        Class<?> javaType = field.getJavaType();
+        boolean get = parameterTypes.length == 1 && returnType == javaType;
+        boolean set = parameterTypes.length == 2 && returnType == void.class && parameterTypes[1] == javaType;
+        if (!get && !set) {
+            throw new IllegalArgumentException("expect method " + method + " to get or set " + javaType);
+        }
+
+        Code code = new Code(pool);
+        int access = pool.fieldRef(className, FIELD_NAME, STRUCT_ACCESS_DESCRIPTOR);
+        code.load(ALOAD, 0).op(GETFIELD).u2(access);
+        Class<?> base = parameterTypes[0];
+        int offset = field.getOffset();
+        if (base == long.class) {
+            code.load(LLOAD, 1);
+            if (offset != 0) {
+                code.push(offset).op(I2L).op(LADD);
+            }
+        } else if (base == Pointer.class || Struct.class.isAssignableFrom(base)) {
+            Class<?> owner = base == Pointer.class ? Pointer.class : Struct.class;
+            code.load(ALOAD, 0).op(GETFIELD).u2(access).load(ALOAD, 1)
+                    .push(offset).push(field.getType().size())
+                    .op(INVOKEVIRTUAL).u2(pool.methodRef(STRUCT_ACCESS, get ? "address" : "writableAddress",
+                            "(" + descriptor(owner) + "II)J"));
+        } else {
+            throw new IllegalArgumentException("expect the first parameter of method " + method
+                    + " to be long, Pointer or Struct");
+        }
+        int locals = 1 + slots(base);
+        String descriptor;
+        if (get) {
+            descriptor = "(J)" + descriptor(javaType);
+            code.op(INVOKEVIRTUAL).u2(pool.methodRef(STRUCT_ACCESS, getter, descriptor));
+        } else {
+            code.load(loadOpcode(javaType), locals);
+            locals += slots(javaType);
+            descriptor = "(J" + descriptor(javaType) + ")V";
+            code.op(INVOKEVIRTUAL).u2(pool.methodRef(STRUCT_ACCESS, setter(field), descriptor));
+        }
+        code.op(returnOpcode(returnType));
+        // the access, the address, and the value or the bounds of the field
+        writeMethod(out, pool, method.getName(), methodDescriptor(method), code, 5, locals);
+    }
+
+}
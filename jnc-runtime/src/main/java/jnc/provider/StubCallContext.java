@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.util.function.IntConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * Call context for functions whose parameters and result are all integral
+ * types or pointers no larger than a pointer, the function is called without
+ * libffi. Arguments are kept in fields, so there is no allocation other than
+ * the context itself.
+ *
+ * @author zhanhb
+ * @see CifContainer#isDirect(InternalType, InternalType[])
+ */
+final class StubCallContext extends BaseCallContext {
+
+    private static final NativeAccessor NA = NativeLoader.getAccessor();
+
+    // extend the value to 64 bits as if it is converted to the type
+    static long extend(InternalType type, long value) {
+        switch (type.nativeType()) {
+            case SINT8:
+                return (byte) value;
+            case UINT8:
+                return value & 0xFF;
+            case SINT16:
+                return (short) value;
+            case UINT16:
+                return value & 0xFFFF;
+            case SINT32:
+                return (int) value;
+            case UINT32:
+                return value & 0xFFFFFFFFL;
+            case VOID:
+                return 0;
+            case POINTER:
+                return type.size() == 4 ? value & 0xFFFFFFFFL : value;
+            default:
+                return value;
+        }
+    }
+
+    private final InternalType retType;
+    private final InternalType[] params;
+    private long a0, a1, a2, a3, a4, a5;
+
+    StubCallContext(InternalType retType, InternalType[] params, @Nullable IntConsumer lastErrorHandler) {
+        super(lastErrorHandler);
+        this.retType = retType;
+        this.params = params;
+    }
+
+    private void put(int i, long value) {
+        long v = extend(params[i], value);
+        switch (i) {
+            case 0:
+                a0 = v;
+                break;
+            case 1:
+                a1 = v;
+                break;
+            case 2:
+                a2 = v;
+                break;
+            case 3:
+                a3 = v;
+                break;
+            case 4:
+                a4 = v;
+                break;
+            case 5:
+                a5 = v;
+                break;
+            default:
+                throw new IndexOutOfBoundsException(String.valueOf(i));
+        }
+    }
+
+    @Override
+    public void putInt(int i, int value) {
+        put(i, value);
+    }
+
+    @Override
+    public void putLong(int i, long value) {
+        put(i, value);
+    }
+
+    @Override
+    public void putFloat(int i, float value) {
+        put(i, (long) value);
+    }
+
+    @Override
+    public void putDouble(int i, double value) {
+        put(i, (long) value);
+    }
+
+    @Override
+    public long invoke(long function) {
+        Object obj = lastErrorHandler();
+        long methodId = lastErrorMethodId();
+        long result;
+        switch (params.length) {
+            case 0:
+                result = NA.invoke_J(function, obj, methodId);
+                break;
+            case 1:
+                result = NA.invokeJ_J(function, a0, obj, methodId);
+                break;
+            case 2:
+                result = NA.invokeJJ_J(function, a0, a1, obj, methodId);
+                break;
+            case 3:
+                result = NA.invokeJJJ_J(function, a0, a1, a2, obj, methodId);
+                break;
+            case 4:
+                result = NA.invokeJJJJ_J(function, a0, a1, a2, a3, obj, methodId);
+                break;
+            case 5:
+                result = NA.invokeJJJJJ_J(function, a0, a1, a2, a3, a4, obj, methodId);
+                break;
+            case 6:
+                result = NA.invokeJJJJJJ_J(function, a0, a1, a2, a3, a4, a5, obj, methodId);
+                break;
+            default:
+                throw new AssertionError();
+        }
+        finish();
+        return extend(retType, result);
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import jnc.foreign.NativeType;
+
+/**
+ * Typed access of native memory. Values are converted as if they are cast to
+ * or from the c type, the same as the native switch on the ffi type does,
+ * but the conversion is resolved once per type.
+ *
+ * @author zhanhb
+ */
+enum TypeAccessor {
+
+    VOID {
+        @Override
+        long load(long address) {
+            return 0;
+        }
+
+        @Override
+        void store(long address, long value) {
+        }
+
+        @Override
+        void putFloat(long address, float value) {
+        }
+
+        @Override
+        void putDouble(long address, double value) {
+        }
+
+        @Override
+        float getFloat(long address) {
+            return 0;
+        }
+
+        @Override
+        double getDouble(long address) {
+            return 0;
+        }
+    },
+    FLOAT {
+        @Override
+        long load(long address) {
+            return toLong(RawMemory.getFloat(address));
+        }
+
+        @Override
+        void store(long address, long value) {
+            RawMemory.putFloat(address, value);
+        }
+
+        @Override
+        void putInt(long address, int value) {
+            RawMemory.putFloat(address, value);
+        }
+
+        @Override
+        void putFloat(long address, float value) {
+            RawMemory.putFloat(address, value);
+        }
+
+        @Override
+        void putDouble(long address, double value) {
+            RawMemory.putFloat(address, (float) value);
+        }
+
+        @Override
+        boolean getBoolean(long address) {
+            return RawMemory.getFloat(address) != 0;
+        }
+
+        @Override
+        int getInt(long address) {
+            return toInt(RawMemory.getFloat(address));
+        }
+
+        @Override
+        float getFloat(long address) {
+            return RawMemory.getFloat(address);
+        }
+
+        @Override
+        double getDouble(long address) {
+            return RawMemory.getFloat(address);
+        }
+    },
+    DOUBLE {
+        @Override
+        long load(long address) {
+            return toLong(RawMemory.getDouble(address));
+        }
+
+        @Override
+        void store(long address, long value) {
+            RawMemory.putDouble(address, value);
+        }
+
+        @Override
+        void putInt(long address, int value) {
+            RawMemory.putDouble(address, value);
+        }
+
+        @Override
+        void putFloat(long address, float value) {
+            RawMemory.putDouble(address, value);
+        }
+
+        @Override
+        void putDouble(long address, double value) {
+            RawMemory.putDouble(address, value);
+        }
+
+        @Override
+        boolean getBoolean(long address) {
+            return RawMemory.getDouble(address) != 0;
+        }
+
+        @Override
+        int getInt(long address) {
+            return toInt(RawMemory.getDouble(address));
+        }
+
+        @Override
+        float getFloat(long address) {
+            return (float) RawMemory.getDouble(address);
+        }
+
+        @Override
+        double getDouble(long address) {
+            return RawMemory.getDouble(address);
+        }
+    },
+    UINT8 {
+        @Override
+        long load(long address) {
+            return RawMemory.getByte(address) & 0xFF;
+        }
+
+        @Override
+        void store(long address, long value) {
+            RawMemory.putByte(address, (byte) value);
+        }
+    },
+    SINT8 {
+        @Override
+        long load(long address) {
+            return RawMemory.getByte(address);
+        }
+
+        @Override
+        void store(long address, long value) {
+            RawMemory.putByte(address, (byte) value);
+        }
+    },
+    UINT16 {
+        @Override
+        long load(long address) {
+            return RawMemory.getShort(address) & 0xFFFF;
+        }
+
+        @Override
+        void store(long address, long value) {
+            RawMemory.putShort(address, (short) value);
+        }
+    },
+    SINT16 {
+        @Override
+        long load(long address) {
+            return RawMemory.getShort(address);
+        }
+
+        @Override
+        void store(long address, long value) {
+            RawMemory.putShort(address, (short) value);
+        }
+    },
+    UINT32 {
+        @Override
+        long load(long address) {
+            return RawMemory.getInt(address) & 0xFFFFFFFFL;
+        }
+
+        @Override
+        void store(long address, long value) {
+            RawMemory.putInt(address, (int) value);
+        }
+    },
+    SINT32 {
+        @Override
+        long load(long address) {
+            return RawMemory.getInt(address);
+        }
+
+        @Override
+        void store(long address, long value) {
+            RawMemory.putInt(address, (int) value);
+        }
+    },
+    UINT64 {
+        @Override
+        long load(long address) {
+            return RawMemory.getLong(address);
+        }
+
+        @Override
+        void store(long address, long value) {
+            RawMemory.putLong(address, value);
+        }
+
+        @Override
+        void putFloat(long address, float value) {
+            store(address, toUnsigned(value));
+        }
+
+        @Override
+        void putDouble(long address, double value) {
+            store(address, toUnsigned(value));
+        }
+
+        @Override
+        float getFloat(long address) {
+            return unsignedToFloat(load(address));
+        }
+
+        @Override
+        double getDouble(long address) {
+            return unsignedToDouble(load(address));
+        }
+    },
+    SINT64 {
+        @Override
+        long load(long address) {
+            return RawMemory.getLong(address);
+        }
+
+        @Override
+        void store(long address, long value) {
+            RawMemory.putLong(address, value);
+        }
+    },
+    POINTER {
+        @Override
+        long load(long address) {
+            return RawMemory.getAddress(address);
+        }
+
+        @Override
+        void store(long address, long value) {
+            RawMemory.putAddress(address, value);
+        }
+    };
+
+    private static final double TWO_POW_31 = 0x1p31;
+    private static final double TWO_POW_63 = 0x1p63;
+
+    static TypeAccessor of(NativeType nativeType) {
+        return valueOf(nativeType.name());
+    }
+
+    // Out of range values are undefined behavior in c, x86 converts them to
+    // the minimum value, and so does the native implementation.
+    private static int toInt(double value) {
+        return value < TWO_POW_31 ? (int) value : Integer.MIN_VALUE;
+    }
+
+    private static long toLong(double value) {
+        return value < TWO_POW_63 ? (long) value : Long.MIN_VALUE;
+    }
+
+    private static long toUnsigned(double value) {
+        return value < TWO_POW_63 ? toLong(value) : toLong(value - TWO_POW_63) ^ Long.MIN_VALUE;
+    }
+
+    // keep the lowest bit when halving the value to round correctly
+    private static float unsignedToFloat(long value) {
+        return value >= 0 ? value : ((value >>> 1) | (value & 1)) * 2f;
+    }
+
+    private static double unsignedToDouble(long value) {
+        return value >= 0 ? value : ((value >>> 1) | (value & 1)) * 2.0;
+    }
+
+    /**
+     * @return the value extended to 64 bits
+     */
+    abstract long load(long address);
+
+    /**
+     * Store the value, truncated to the size of the type.
+     */
+    abstract void store(long address, long value);
+
+    void putInt(long address, int value) {
+        store(address, value);
+    }
+
+    void putLong(long address, long value) {
+        store(address, value);
+    }
+
+    void putFloat(long address, float value) {
+        store(address, toLong(value));
+    }
+
+    void putDouble(long address, double value) {
+        store(address, toLong(value));
+    }
+
+    boolean getBoolean(long address) {
+        return load(address) != 0;
+    }
+
+    int getInt(long address) {
+        return (int) load(address);
+    }
+
+    long getLong(long address) {
+        return load(address);
+    }
+
+    float getFloat(long address) {
+        return load(address);
+    }
+
+    double getDouble(long address) {
+        return load(address);
+    }
+
+}
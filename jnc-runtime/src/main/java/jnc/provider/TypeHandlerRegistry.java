@@ -1,5 +1,6 @@
 package jnc.provider;
 
+import java.nio.ByteBuffer;
 import jnc.foreign.NativeType;
 import jnc.foreign.Pointer;
 import jnc.foreign.Struct;
@@ -7,15 +8,20 @@ import jnc.foreign.byref.ByReference;
 
 final class TypeHandlerRegistry implements TypeHandlerFactory {
 
+    // convert in java and copy with a single native call
     private static void putBooleanArray(Pointer memory, int offset, boolean[] array, int off, int len) {
-        for (int i = off; i < len; i++) {
-            memory.putByte(offset + i, (byte) (array[i] ? 1 : 0));
+        byte[] bytes = new byte[len];
+        for (int i = 0; i < len; i++) {
+            bytes[i] = (byte) (array[off + i] ? 1 : 0);
         }
+        memory.putBytes(offset, bytes, 0, len);
     }
 
     private static void getBooleanArray(Pointer memory, int offset, boolean[] array, int off, int len) {
-        for (int i = off; i < len; i++) {
-            array[i] = memory.getByte(offset + i) != 0;
+        byte[] bytes = new byte[len];
+        memory.getBytes(offset, bytes, 0, len);
+        for (int i = 0; i < len; i++) {
+            array[off + i] = bytes[i] != 0;
         }
     }
 
@@ -45,6 +51,7 @@ final class TypeHandlerRegistry implements TypeHandlerFactory {
 
         addInheritedParameterTypeHandler(Struct.class, new StructHandler(pointerType));
         addInheritedParameterTypeHandler(Pointer.class, pointerHandler);
+        addInheritedParameterTypeHandler(ByteBuffer.class, new ByteBufferHandler(pointerType));
         addInheritedParameterTypeHandler(ByReference.class, new ByReferenceHandler(pointerType));
         addInheritedParameterTypeHandler(Enum.class, EnumHandlers.INSTANCE);
 
@@ -60,7 +67,7 @@ final class TypeHandlerRegistry implements TypeHandlerFactory {
 
     private <T> void addPrimitiveArrayParameterTypeHandler(
             Class<T> type, ArrayMemoryCopy<T> toNative, ArrayMemoryCopy<T> fromNative, int unit, InternalType pointerType) {
-        addExactParameterTypeHandler(type, PrimitiveArrayHandler.of(toNative, fromNative, unit, pointerType));
+        addExactParameterTypeHandler(type, PrimitiveArrayHandler.of(type, toNative, fromNative, unit, pointerType));
     }
 
     private <T> void addPrimaryTypeHandler(
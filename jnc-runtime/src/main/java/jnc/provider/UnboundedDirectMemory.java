@@ -101,6 +101,66 @@ final class UnboundedDirectMemory extends Memory implements NativeObject, Pointe
         return accessor().getDouble(offset);
     }
 
+    @Override
+    public final void putByte(long offset, byte value) {
+        accessor().putByte(offset, value);
+    }
+
+    @Override
+    public final void putShort(long offset, short value) {
+        accessor().putShort(offset, value);
+    }
+
+    @Override
+    public final void putInt(long offset, int value) {
+        accessor().putInt(offset, value);
+    }
+
+    @Override
+    public final void putLong(long offset, long value) {
+        accessor().putLong(offset, value);
+    }
+
+    @Override
+    public final void putFloat(long offset, float value) {
+        accessor().putFloat(offset, value);
+    }
+
+    @Override
+    public final void putDouble(long offset, double value) {
+        accessor().putDouble(offset, value);
+    }
+
+    @Override
+    public final byte getByte(long offset) {
+        return accessor().getByte(offset);
+    }
+
+    @Override
+    public final short getShort(long offset) {
+        return accessor().getShort(offset);
+    }
+
+    @Override
+    public final int getInt(long offset) {
+        return accessor().getInt(offset);
+    }
+
+    @Override
+    public final long getLong(long offset) {
+        return accessor().getLong(offset);
+    }
+
+    @Override
+    public final float getFloat(long offset) {
+        return accessor().getFloat(offset);
+    }
+
+    @Override
+    public final double getDouble(long offset) {
+        return accessor().getDouble(offset);
+    }
+
     @Override
     void putInt(int offset, InternalType internalType, int value) {
         accessor().putInt(offset, internalType, value);
@@ -262,6 +322,16 @@ final class UnboundedDirectMemory extends Memory implements NativeObject, Pointe
         return new SizedDirectMemory.Slice(this, beginIndex, endIndex - beginIndex);
     }
 
+    @Nonnull
+    @Override
+    public Pointer slice(long beginIndex, long endIndex) {
+        if (beginIndex > endIndex) {
+            String msg = "begin " + beginIndex + ", end " + endIndex;
+            throw new IndexOutOfBoundsException(msg);
+        }
+        return new SizedDirectMemory.Slice(this, beginIndex, endIndex - beginIndex);
+    }
+
     @Nullable
     @Override
     public Pointer getPointer(int offset) {
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import jnc.foreign.Platform;
+
+/**
+ * Raw memory access through {@code sun.misc.Unsafe}, which is intrinsified by
+ * the jit, so a field read costs a single load instead of a jni transition.
+ *
+ * Unsafe can't be referenced from the sources directly, the methods are looked
+ * up reflectively and invoked through constant method handles, which the jit
+ * inlines to the intrinsic. If anything is missing, or the self test fails,
+ * {@link #ENABLED} is false and callers should use the jni methods.
+ *
+ * @author zhanhb
+ */
+@SuppressWarnings("UtilityClassWithoutPrivateConstructor")
+final class UnsafeAccess {
+
+    static final boolean ENABLED;
+
+    private static final MethodHandle GET_BYTE;
+    private static final MethodHandle PUT_BYTE;
+    private static final MethodHandle GET_SHORT;
+    private static final MethodHandle PUT_SHORT;
+    private static final MethodHandle GET_INT;
+    private static final MethodHandle PUT_INT;
+    private static final MethodHandle GET_LONG;
+    private static final MethodHandle PUT_LONG;
+    private static final MethodHandle GET_FLOAT;
+    private static final MethodHandle PUT_FLOAT;
+    private static final MethodHandle GET_DOUBLE;
+    private static final MethodHandle PUT_DOUBLE;
+    private static final MethodHandle GET_ADDRESS;
+    private static final MethodHandle PUT_ADDRESS;
+
+    static {
+        MethodHandle[] handles = lookup();
+        if (handles != null) {
+            GET_BYTE = handles[0];
+            PUT_BYTE = handles[1];
+            GET_SHORT = handles[2];
+            PUT_SHORT = handles[3];
+            GET_INT = handles[4];
+            PUT_INT = handles[5];
+            GET_LONG = handles[6];
+            PUT_LONG = handles[7];
+            GET_FLOAT = handles[8];
+            PUT_FLOAT = handles[9];
+            GET_DOUBLE = handles[10];
+            PUT_DOUBLE = handles[11];
+            GET_ADDRESS = handles[12];
+            PUT_ADDRESS = handles[13];
+        } else {
+            GET_BYTE = PUT_BYTE = GET_SHORT = PUT_SHORT = GET_INT = PUT_INT
+                    = GET_LONG = PUT_LONG = GET_FLOAT = PUT_FLOAT
+                    = GET_DOUBLE = PUT_DOUBLE = GET_ADDRESS = PUT_ADDRESS = null;
+        }
+        ENABLED = handles != null && selfTest();
+    }
+
+    @SuppressWarnings({"BroadCatchBlock", "TooBroadCatch"})
+    private static MethodHandle[] lookup() {
+        // unsafe tolerates unaligned access only on the architectures we know
+        if (DefaultPlatform.INSTANCE.getArch() == Platform.Arch.UNKNOWN) {
+            return null;
+        }
+        try {
+            Class<?> klass = Class.forName("sun.misc.Unsafe");
+            Field field = klass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            if (unsafe == null) {
+                return null;
+            }
+            Class<?>[] types = {byte.class, short.class, int.class, long.class, float.class, double.class};
+            String[] names = {"Byte", "Short", "Int", "Long", "Float", "Double", "Address"};
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle[] handles = new MethodHandle[names.length * 2];
+            for (int i = 0; i < names.length; ++i) {
+                Class<?> type = i < types.length ? types[i] : long.class;
+                handles[2 * i] = lookup.findVirtual(klass, "get" + names[i],
+                        MethodType.methodType(type, long.class)).bindTo(unsafe);
+                handles[2 * i + 1] = lookup.findVirtual(klass, "put" + names[i],
+                        MethodType.methodType(void.class, long.class, type)).bindTo(unsafe);
+            }
+            return handles;
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings({"BroadCatchBlock", "TooBroadCatch"})
+    private static boolean selfTest() {
+        NativeAccessor na = NativeLoader.getAccessor();
+        long address = na.allocateMemory(16);
+        try {
+            putLong(address, 0x0102030405060708L);
+            putAddress(address + 8, address);
+            return na.getRawLong(address) == 0x0102030405060708L
+                    && getLong(address) == 0x0102030405060708L
+                    && na.getAddress(address + 8) == address
+                    && getAddress(address + 8) == address;
+        } catch (Throwable t) {
+            return false;
+        } finally {
+            na.freeMemory(address);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        throw new AssertionError(t);
+    }
+
+    static byte getByte(long address) {
+        try {
+            return (byte) GET_BYTE.invokeExact(address);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void putByte(long address, byte value) {
+        try {
+            PUT_BYTE.invokeExact(address, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static short getShort(long address) {
+        try {
+            return (short) GET_SHORT.invokeExact(address);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void putShort(long address, short value) {
+        try {
+            PUT_SHORT.invokeExact(address, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int getInt(long address) {
+        try {
+            return (int) GET_INT.invokeExact(address);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void putInt(long address, int value) {
+        try {
+            PUT_INT.invokeExact(address, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long getLong(long address) {
+        try {
+            return (long) GET_LONG.invokeExact(address);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void putLong(long address, long value) {
+        try {
+            PUT_LONG.invokeExact(address, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static float getFloat(long address) {
+        try {
+            return (float) GET_FLOAT.invokeExact(address);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void putFloat(long address, float value) {
+        try {
+            PUT_FLOAT.invokeExact(address, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static double getDouble(long address) {
+        try {
+            return (double) GET_DOUBLE.invokeExact(address);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void putDouble(long address, double value) {
+        try {
+            PUT_DOUBLE.invokeExact(address, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Reads a native pointer, unsafe takes care of the pointer size.
+     */
+    static long getAddress(long address) {
+        try {
+            return (long) GET_ADDRESS.invokeExact(address);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void putAddress(long address, long value) {
+        try {
+            PUT_ADDRESS.invokeExact(address, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+}
@@ -21,8 +21,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntConsumer;
+import javax.annotation.Nullable;
 import jnc.foreign.NativeType;
 import jnc.foreign.enums.CallingConvention;
 import jnc.foreign.enums.TypeAlias;
@@ -33,6 +36,10 @@ import jnc.foreign.enums.TypeAlias;
 final class VariadicMethodInvocation implements MethodInvocation {
 
     private static final Map<Class<?>, Receiver> RECEIVER_MAP;
+    // prepared cifs of at most this count of shapes are cached for a method,
+    // the least recently used is evicted
+    @VisibleForTesting
+    static final int MAX_CACHED_SHAPES = 32;
 
     static {
         Map<Class<?>, Receiver> map = new HashMap<>(12);
@@ -61,6 +68,10 @@ final class VariadicMethodInvocation implements MethodInvocation {
     private final AnnotationContext annotationContext;
     private final TypeFactory typeFactory;
     private final TypeHandlerFactory typeHandlerFactory;
+    @Nullable
+    private final IntConsumer lastErrorHandler;
+    // guarded by itself
+    private final ShapeCache cache = new ShapeCache();
 
     VariadicMethodInvocation(
             ParameterPutter<?>[] putters,
@@ -72,7 +83,8 @@ final class VariadicMethodInvocation implements MethodInvocation {
             Class<?> methodVariadicType,
             AnnotationContext variadicAnnotationContext,
             TypeFactory typeFactory,
-            TypeHandlerFactory typeHandlerFactory) {
+            TypeHandlerFactory typeHandlerFactory,
+            @Nullable IntConsumer lastErrorHandler) {
         this.putters = putters;
         this.convention = convention;
         this.rawConverter = rawConverter;
@@ -83,15 +95,14 @@ final class VariadicMethodInvocation implements MethodInvocation {
         this.annotationContext = variadicAnnotationContext;
         this.typeFactory = typeFactory;
         this.typeHandlerFactory = typeHandlerFactory;
+        this.lastErrorHandler = lastErrorHandler;
     }
 
-    @SuppressWarnings("AssignmentToMethodParameter")
-    private void put(
-            Object[] values, InternalType[] paramTypes, ParameterPutter<?>[] h, int index,
-            Object value, List<Class<? extends Annotation>> annotations) {
+    private void put(InternalType[] paramTypes, ParameterPutter<?>[] h, int index,
+            @Nullable Class<?> valueType, List<Class<? extends Annotation>> annotations) {
         ParameterHandlerInfo info;
         Class<?> type;
-        if (value == null) {
+        if (valueType == null) {
             try {
                 type = methodVariadicType;
                 info = typeHandlerFactory.findParameterTypeInfo(type);
@@ -99,14 +110,13 @@ final class VariadicMethodInvocation implements MethodInvocation {
                 throw new NullPointerException();
             }
         } else {
-            type = value.getClass();
+            type = valueType;
             info = typeHandlerFactory.findParameterTypeInfo(type);
         }
         AnnotationContext ac = AnnotationContext.newMockContext(annotations, annotationContext);
-        values[index] = value;
         InternalType infoType = info.getType(type, typeFactory, ac);
         paramTypes[index] = promotions(infoType);
-        h[index] = info.getPutter(type);
+        h[index] = info.getPutter(type, ac);
         annotations.clear();
     }
 
@@ -131,66 +141,137 @@ final class VariadicMethodInvocation implements MethodInvocation {
     }
 
     @Override
-    @SuppressWarnings("NestedAssignment")
     public Object invoke(Object proxy, Object[] args) throws Throwable {
         // length > 2 is assumed
         final int fixedArgs = args.length - 1;
         final Object variadics = args[fixedArgs];
+        final int variadicLen = variadics != null ? Array.getLength(variadics) : 0;
 
-        int variadicLen;
-        int cur;
-        InternalType[] paramTypes;
-        ParameterPutter<?>[] h;
-        Object[] values;
-
-        if (variadics == null || (variadicLen = Array.getLength(variadics)) == 0) {
-            cur = fixedArgs;
-            paramTypes = ptypes;
-            h = putters;
-            values = Arrays.copyOf(args, fixedArgs);
-        } else {
-            final int maybeTotalLength = fixedArgs + variadicLen;
-
-            cur = fixedArgs;
-            paramTypes = Arrays.copyOf(ptypes, maybeTotalLength);
-            h = Arrays.copyOf(putters, maybeTotalLength);
-            values = Arrays.copyOf(args, maybeTotalLength, Object[].class);
-
+        Object[] values = Arrays.copyOf(args, fixedArgs + variadicLen, Object[].class);
+        // class of the value, null for null value, or the annotation class
+        Object[] shape = new Object[variadicLen];
+        int cur = fixedArgs;
+        if (variadicLen != 0) {
             final Receiver receiver = RECEIVER_MAP.getOrDefault(variadics.getClass(), Array::get);
-
-            final List<Class<? extends Annotation>> annotations = new ArrayList<>(4);
             for (int i = 0; i < variadicLen; ++i) {
                 Object value = receiver.apply(variadics, i);
-                if (value == null) {
-                    put(values, paramTypes, h, cur, null, annotations);
-                    ++cur;
+                if (isAnnotationClass(value)) {
+                    shape[i] = value;
                     continue;
                 }
-                if (value instanceof Class) {
-                    if (((Class<?>) value).isAnnotation()) {
-                        annotations.add(((Class<?>) value).asSubclass(Annotation.class));
-                        continue;
-                    }
-                }
-                put(values, paramTypes, h, cur, value, annotations);
-                ++cur;
+                shape[i] = value != null ? value.getClass() : null;
+                values[cur++] = value;
             }
+        }
 
-            if (cur < maybeTotalLength) {
-                paramTypes = Arrays.copyOf(paramTypes, cur);
-                h = Arrays.copyOf(h, cur);
-                values = Arrays.copyOf(values, cur);
+        Shape key = new Shape(shape);
+        Prepared prepared;
+        synchronized (cache) {
+            prepared = cache.get(key);
+        }
+        if (prepared == null) {
+            // prepare without the lock, might be prepared twice concurrently
+            prepared = prepare(shape, cur);
+            synchronized (cache) {
+                cache.put(key, prepared);
             }
         }
 
-        CallContext context = CifContainer.createVariadic(convention, fixedArgs, retType, paramTypes).newCallContext();
+        ParameterPutter<?>[] h = prepared.putters;
+        try (CallContext context = prepared.container.newCallContext(lastErrorHandler)) {
+            for (int i = 0; i < cur; i++) {
+                @SuppressWarnings("unchecked")
+                ParameterPutter<Object> ph = (ParameterPutter<Object>) h[i];
+                ph.doPut(context, i, values[i]);
+            }
+            return context.invoke(rawConverter, function);
+        }
+    }
 
-        for (int i = 0; i < cur; i++) {
-            @SuppressWarnings("unchecked")
-            ParameterPutter<Object> ph = (ParameterPutter<Object>) h[i];
-            ph.doPut(context, i, values[i]);
+    private static boolean isAnnotationClass(@Nullable Object value) {
+        return value instanceof Class && ((Class<?>) value).isAnnotation();
+    }
+
+    private Prepared prepare(Object[] shape, int total) {
+        int fixedArgs = ptypes.length;
+        InternalType[] paramTypes = Arrays.copyOf(ptypes, total);
+        ParameterPutter<?>[] h = Arrays.copyOf(putters, total);
+        List<Class<? extends Annotation>> annotations = new ArrayList<>(4);
+        int cur = fixedArgs;
+        for (Object s : shape) {
+            if (isAnnotationClass(s)) {
+                annotations.add(((Class<?>) s).asSubclass(Annotation.class));
+                continue;
+            }
+            put(paramTypes, h, cur, (Class<?>) s, annotations);
+            ++cur;
+        }
+        CifContainer container = CifContainer.createVariadic(convention, fixedArgs, retType, paramTypes);
+        return new Prepared(container, h);
+    }
+
+    @VisibleForTesting
+    int cachedShapes() {
+        synchronized (cache) {
+            return cache.size();
         }
-        return context.invoke(rawConverter, function);
+    }
+
+    @VisibleForTesting
+    boolean isCached(Object... shape) {
+        synchronized (cache) {
+            return cache.containsKey(new Shape(shape));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ShapeCache extends LinkedHashMap<Shape, Prepared> {
+
+        ShapeCache() {
+            super(8, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Shape, Prepared> eldest) {
+            return size() > MAX_CACHED_SHAPES;
+        }
+    }
+
+    /**
+     * Classes of the variadic values and the annotations between them.
+     */
+    private static final class Shape {
+
+        private final Object[] classes;
+        private final int hash;
+
+        Shape(Object[] classes) {
+            this.classes = classes;
+            this.hash = Arrays.hashCode(classes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Shape && Arrays.equals(classes, ((Shape) obj).classes);
+        }
+
+    }
+
+    private static final class Prepared {
+
+        final CifContainer container;
+        final ParameterPutter<?>[] putters;
+
+        Prepared(CifContainer container, ParameterPutter<?>[] putters) {
+            this.container = container;
+            this.putters = putters;
+        }
+
     }
 
     private interface Receiver {
@@ -19,7 +19,9 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
 /**
  * @author zhanhb
@@ -40,4 +42,75 @@ public class ForeignTest {
                 .isInstanceOf(UnsupportedOperationException.class);
     }
 
+    /**
+     * Test of getLastError method, of class Foreign.
+     */
+    @Test
+    public void testGetLastError() throws Exception {
+        log.info("getLastError");
+        assumeFalse(Platform.getNativePlatform().getOS().isWindows(), "os.name");
+        Foreign instance = Foreign.getDefault();
+        Libc libc = LibraryLoader.create(Libc.class).load(Platform.getNativePlatform().getLibcName());
+
+        assertThat(libc.close(-1)).isEqualTo(-1);
+        int ebadf = instance.getLastError();
+        assertThat(ebadf).isNotZero();
+
+        // the last error is per thread
+        Thread thread = new Thread(() -> libc.chdir(new byte[]{0}));
+        thread.start();
+        thread.join();
+        assertThat(instance.getLastError()).isEqualTo(ebadf);
+    }
+
+    @Test
+    public void testLastErrorHolder() {
+        log.info("lastErrorHolder");
+        assumeFalse(Platform.getNativePlatform().getOS().isWindows(), "os.name");
+        Foreign instance = Foreign.getDefault();
+        Libc libc = LibraryLoader.create(Libc.class).load(Platform.getNativePlatform().getLibcName());
+
+        assertThat(libc.close(-1)).isEqualTo(-1);
+        int ebadf = instance.getLastError();
+
+        LastErrorHolder holder = new LastErrorHolder();
+        assertThat(libc.chdir(new byte[]{0}, holder)).isEqualTo(-1);
+        int enoent = holder.getValue();
+        assertThat(enoent).isNotZero().isNotEqualTo(ebadf);
+        // not saved for Foreign.getLastError
+        assertThat(instance.getLastError()).isEqualTo(ebadf);
+
+        // null holder falls back to the default
+        assertThat(libc.chdir(new byte[]{0}, null)).isEqualTo(-1);
+        assertThat(instance.getLastError()).isEqualTo(enoent);
+    }
+
+    /**
+     * Test of getCleanerStatistics method, of class Foreign.
+     */
+    @Test
+    public void testGetCleanerStatistics() {
+        log.info("getCleanerStatistics");
+        CleanerStatistics statistics = Foreign.getDefault().getCleanerStatistics();
+        long cleaned = statistics.getCleanedCount();
+        Pointer pointer = Foreign.getDefault().getMemoryManager().allocate(8);
+        assertThat(statistics.getPendingCount()).isPositive();
+        assertThat(pointer.capacity()).isEqualTo(8);
+        assertThat(statistics.getCleanedCount()).isGreaterThanOrEqualTo(cleaned);
+        assertThat(statistics.getLastBatchSize()).isNotNegative();
+        assertThat(statistics.getLastBatchNanos()).isNotNegative();
+        assertThat(statistics.getQueuedCount()).isNotNegative();
+        assertThat(statistics.getMaxLagNanos()).isNotNegative();
+    }
+
+    private interface Libc {
+
+        int close(int fd);
+
+        int chdir(byte[] path);
+
+        int chdir(byte[] path, LastErrorHolder holder);
+
+    }
+
 }
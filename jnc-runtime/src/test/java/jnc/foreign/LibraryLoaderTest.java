@@ -15,11 +15,18 @@
  */
 package jnc.foreign;
 
+import jnc.foreign.annotation.IgnoreLastError;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
 /**
  * @author zhanhb
@@ -41,6 +48,101 @@ public class LibraryLoaderTest {
         assertThatThrownBy(lib::getpid).isExactlyInstanceOf(UnsatisfiedLinkError.class);
     }
 
+    /**
+     * Test of bindEagerly method, of class LibraryLoader.
+     */
+    @Test
+    public void testBindEagerly() throws NoSuchMethodException {
+        log.info("bindEagerly");
+        assumeFalse(Platform.getNativePlatform().getOS().isWindows(), "os.name");
+        String libc = Platform.getNativePlatform().getLibcName();
+        Map<Method, Long> bound = new ConcurrentHashMap<>(4);
+        Libc lazy = LibraryLoader.create(Libc.class).onBind(bound::put).load(libc);
+        assertThat(bound).isEmpty();
+        lazy.close(-1);
+        assertThat(bound).containsOnlyKeys(Libc.class.getMethod("close", int.class));
+
+        bound.clear();
+        Libc eager = LibraryLoader.create(Libc.class).bindEagerly().onBind(bound::put).load(libc);
+        assertThat(bound).containsOnlyKeys(Libc.class.getMethods());
+        assertThat(bound.values()).allMatch(nanos -> nanos >= 0);
+        assertThat(eager.close(-1)).isEqualTo(-1);
+        assertThat(bound).hasSize(2);
+
+        bound.clear();
+        LibraryLoader.create(Libc.class).bindEagerlyInParallel().onBind(bound::put).load(libc);
+        assertThat(bound).containsOnlyKeys(Libc.class.getMethods());
+
+        // fail fast even if deferred
+        LibraryLoader<Missing> loader = LibraryLoader.create(Missing.class).failDeferred();
+        Missing missing = loader.load(libc);
+        assertThatThrownBy(missing::noSuchFunction).isExactlyInstanceOf(UnsatisfiedLinkError.class);
+        assertThatThrownBy(() -> loader.bindEagerly().load(libc))
+                .isExactlyInstanceOf(UnsatisfiedLinkError.class);
+    }
+
+    /**
+     * Test of ignoreLastError method, of class LibraryLoader.
+     */
+    @Test
+    public void testIgnoreLastError() {
+        log.info("ignoreLastError");
+        assumeFalse(Platform.getNativePlatform().getOS().isWindows(), "os.name");
+        Foreign foreign = Foreign.getDefault();
+        String libc = Platform.getNativePlatform().getLibcName();
+        Libc saved = LibraryLoader.create(Libc.class).load(libc);
+        Libc ignored = LibraryLoader.create(Libc.class).ignoreLastError().load(libc);
+
+        assertThat(saved.close(-1)).isEqualTo(-1);
+        int ebadf = foreign.getLastError();
+        assertThat(ebadf).isNotZero();
+
+        // ENOENT is not recorded
+        assertThat(ignored.chdir(new byte[]{0})).isEqualTo(-1);
+        assertThat(foreign.getLastError()).isEqualTo(ebadf);
+
+        // method annotation overrides the load options
+        Chdir chdir = LibraryLoader.create(Chdir.class).ignoreLastError().load(libc);
+        assertThat(chdir.chdir(new byte[]{0})).isEqualTo(-1);
+        int enoent = foreign.getLastError();
+        assertThat(enoent).isNotEqualTo(ebadf).isNotZero();
+
+        // interface annotation overrides the load options
+        LastErrorIgnored annotated = LibraryLoader.create(LastErrorIgnored.class).saveLastError().load(libc);
+        assertThat(annotated.close(-1)).isEqualTo(-1);
+        assertThat(foreign.getLastError()).isEqualTo(enoent);
+    }
+
+    private interface Libc {
+
+        int close(int fd);
+
+        int chdir(byte[] path);
+
+    }
+
+    private interface Missing {
+
+        int close(int fd);
+
+        void noSuchFunction();
+
+    }
+
+    private interface Chdir {
+
+        @IgnoreLastError(false)
+        int chdir(byte[] path);
+
+    }
+
+    @IgnoreLastError
+    private interface LastErrorIgnored {
+
+        int close(int fd);
+
+    }
+
     private interface LibInterface {
 
         @SuppressWarnings("UnusedReturnValue")
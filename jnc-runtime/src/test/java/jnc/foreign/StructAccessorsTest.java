@@ -0,0 +1,232 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.foreign;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author zhanhb
+ */
+public class StructAccessorsTest {
+
+    private static final Accessor ACCESSOR = StructAccessors.create(Fields.class, Accessor.class);
+
+    @Test
+    public void testGet() {
+        Fields fields = new Fields();
+        fields.a.set((byte) -2);
+        fields.b.set((short) 200);
+        fields.d.set((short) -3);
+        fields.e.set((char) 0xFFFF);
+        fields.f.set(-4);
+        fields.g.set(0xFFFFFFFFL);
+        fields.h.set(Long.MIN_VALUE);
+        fields.i.set(1.5f);
+        fields.j.set(-2.5);
+        fields.l.set(-1);
+        fields.base.set(7);
+
+        long address = fields.getMemory().address();
+        assertThat(ACCESSOR.a(address)).isEqualTo((byte) -2);
+        assertThat(ACCESSOR.b(address)).isEqualTo((short) 200);
+        assertThat(ACCESSOR.c(address)).isFalse();
+        assertThat(ACCESSOR.d(address)).isEqualTo((short) -3);
+        assertThat(ACCESSOR.e(address)).isEqualTo((char) 0xFFFF);
+        assertThat(ACCESSOR.f(address)).isEqualTo(-4);
+        assertThat(ACCESSOR.g(address)).isEqualTo(0xFFFFFFFFL);
+        assertThat(ACCESSOR.h(fields.getMemory())).isEqualTo(Long.MIN_VALUE);
+        assertThat(ACCESSOR.i(fields)).isEqualTo(1.5f);
+        assertThat(ACCESSOR.j(address)).isEqualTo(-2.5);
+        assertThat(ACCESSOR.k(address)).isFalse();
+        assertThat(ACCESSOR.l(address)).isEqualTo(-1);
+        assertThat(ACCESSOR.base(fields)).isEqualTo(7);
+    }
+
+    @Test
+    public void testSet() {
+        Fields fields = new Fields();
+        long address = fields.getMemory().address();
+        ACCESSOR.a(address, (byte) -2);
+        ACCESSOR.b(address, (short) 200);
+        ACCESSOR.c(address, true);
+        ACCESSOR.d(address, (short) -3);
+        ACCESSOR.e(address, (char) 0xFFFF);
+        ACCESSOR.f(address, -4);
+        ACCESSOR.g(address, 0xFFFFFFFFL);
+        ACCESSOR.h(fields.getMemory(), Long.MIN_VALUE);
+        ACCESSOR.i(fields, 1.5f);
+        ACCESSOR.j(address, -2.5);
+        ACCESSOR.k(address, true);
+        ACCESSOR.l(address, -1);
+        ACCESSOR.base(fields, 7);
+
+        assertThat(fields.a.get()).isEqualTo((byte) -2);
+        assertThat(fields.b.get()).isEqualTo((short) 200);
+        assertThat(fields.c.get()).isTrue();
+        assertThat(fields.d.get()).isEqualTo((short) -3);
+        assertThat(fields.e.get()).isEqualTo((char) 0xFFFF);
+        assertThat(fields.f.get()).isEqualTo(-4);
+        assertThat(fields.g.get()).isEqualTo(0xFFFFFFFFL);
+        assertThat(fields.h.get()).isEqualTo(Long.MIN_VALUE);
+        assertThat(fields.i.get()).isEqualTo(1.5f);
+        assertThat(fields.j.get()).isEqualTo(-2.5);
+        assertThat(fields.k.get()).isTrue();
+        assertThat(fields.l.get()).isEqualTo(-1);
+        assertThat(fields.base.get()).isEqualTo(7);
+        assertThat(ACCESSOR.twice(fields)).isEqualTo(14);
+    }
+
+    @Test
+    public void testBounds() {
+        Fields fields = new Fields();
+        int offset = Struct.describeField(fields, fields.h).getOffset();
+        jnc.foreign.Pointer pointer = fields.getMemory().slice(0, offset + 7);
+        assertThatThrownBy(() -> ACCESSOR.h(pointer)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> ACCESSOR.h(pointer, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThat(fields.h.get()).isZero();
+        ACCESSOR.h(fields.getMemory().slice(0, offset + 8), 1);
+        assertThat(fields.h.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testIllegal() {
+        assertThatThrownBy(() -> StructAccessors.create(Fields.class, NoSuchField.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("missing");
+        assertThatThrownBy(() -> StructAccessors.create(Fields.class, WrongType.class))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StructAccessors.create(Fields.class, WrongBase.class))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StructAccessors.create(Fields.class, Object.class))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StructAccessors.create(NoDefaultConstructor.class, Accessor.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static class Base extends Struct {
+
+        final int32_t base = new int32_t();
+
+    }
+
+    private static class Fields extends Base {
+
+        final int8_t a = new int8_t();
+        final uint8_t b = new uint8_t();
+        final bool c = new bool();
+        final int16_t d = new int16_t();
+        final uint16_t e = new uint16_t();
+        final int32_t f = new int32_t();
+        final uint32_t g = new uint32_t();
+        final int64_t h = new int64_t();
+        final Float32 i = new Float32();
+        final Float64 j = new Float64();
+        final WBOOL k = new WBOOL();
+        final intptr_t l = new intptr_t();
+        final Pointer m = new Pointer();
+
+    }
+
+    private static class NoDefaultConstructor extends Struct {
+
+        NoDefaultConstructor(int unused) {
+        }
+
+    }
+
+    @SuppressWarnings("UnusedReturnValue")
+    private interface Accessor {
+
+        byte a(long address);
+
+        void a(long address, byte value);
+
+        short b(long address);
+
+        void b(long address, short value);
+
+        boolean c(long address);
+
+        void c(long address, boolean value);
+
+        short d(long address);
+
+        void d(long address, short value);
+
+        char e(long address);
+
+        void e(long address, char value);
+
+        int f(long address);
+
+        void f(long address, int value);
+
+        long g(long address);
+
+        void g(long address, long value);
+
+        long h(jnc.foreign.Pointer pointer);
+
+        void h(jnc.foreign.Pointer pointer, long value);
+
+        float i(Fields fields);
+
+        void i(Fields fields, float value);
+
+        double j(long address);
+
+        void j(long address, double value);
+
+        boolean k(long address);
+
+        void k(long address, boolean value);
+
+        long l(long address);
+
+        void l(long address, long value);
+
+        int base(Struct struct);
+
+        void base(Struct struct, int value);
+
+        default int twice(Struct struct) {
+            return base(struct) * 2;
+        }
+
+    }
+
+    private interface NoSuchField {
+
+        int missing(long address);
+
+    }
+
+    private interface WrongType {
+
+        long f(long address);
+
+    }
+
+    private interface WrongBase {
+
+        int f(int address);
+
+    }
+
+}
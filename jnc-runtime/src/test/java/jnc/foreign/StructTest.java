@@ -138,6 +138,65 @@ public class StructTest {
         }).isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    public void testLayoutCached() {
+        new Wrapper().size();
+        assertNotNull(LayoutCache.of(Wrapper.class).get());
+        assertNotNull(LayoutCache.of(Inner.class).get());
+        Wrapper wrapper = new Wrapper();
+        assertEquals(20, wrapper.size());
+        assertEquals(4, wrapper.alignment());
+        wrapper.inner.getB().setValue(5);
+        assertEquals(5, wrapper.getMemory().getInt(12));
+    }
+
+    @Test
+    public void testLayoutVarying() {
+        assertEquals(8, new Bytes(1).size());
+        Bytes more = new Bytes(5);
+        assertEquals(12, more.nextOffset);
+        assertEquals(12, more.size());
+        assertNull(LayoutCache.of(Bytes.class).get());
+        assertEquals(8, new Bytes(3).size());
+        assertEquals(8, new Bytes(1).size());
+
+        assertEquals(12, new Bytes(6) {
+        }.size());
+
+        // fewer fields than the cached one
+        assertEquals(16, new Longs(2).size());
+        assertEquals(16, new Longs(2).size());
+        assertNotNull(LayoutCache.of(Longs.class).get());
+        assertEquals(8, new Longs(1).size());
+        assertNull(LayoutCache.of(Longs.class).get());
+        assertEquals(16, new Longs(2).size());
+    }
+
+    @Test
+    public void testLayoutNextOffset() {
+        for (int i = 0; i < 3; ++i) {
+            Bytes bytes = new Bytes(2);
+            assertEquals(8, bytes.nextOffset);
+            assertEquals(4, bytes.alignment());
+            assertEquals(8, bytes.size());
+        }
+    }
+
+    @Test
+    public void testLayoutAlignmentInConstructor() {
+        for (int i = 0; i < 3; ++i) {
+            Aligned aligned = new Aligned();
+            assertEquals(1, aligned.first);
+            assertEquals(8, aligned.second);
+            assertEquals(16, aligned.nextOffset);
+            assertEquals(24, aligned.size());
+            assertEquals(8, aligned.alignment());
+            aligned.c.set((byte) 3);
+            assertEquals(3, aligned.getMemory().getByte(16));
+            assertNotNull(LayoutCache.of(Aligned.class).get());
+        }
+    }
+
     private static class Wrapper extends Struct {
 
         final int8_t x = new int8_t();
@@ -184,6 +243,48 @@ public class StructTest {
 
     }
 
+    private static class Bytes extends Struct {
+
+        final int nextOffset;
+
+        Bytes(int n) {
+            for (int i = 0; i < n; ++i) {
+                new int8_t();
+            }
+            new int32_t();
+            nextOffset = nextOffset();
+        }
+
+    }
+
+    private static class Aligned extends Struct {
+
+        final int first;
+        final int second;
+        final int nextOffset;
+        final int8_t c;
+
+        Aligned() {
+            new int8_t();
+            first = alignment();
+            new int64_t();
+            second = alignment();
+            nextOffset = nextOffset();
+            c = new int8_t();
+        }
+
+    }
+
+    private static class Longs extends Struct {
+
+        Longs(int n) {
+            for (int i = 0; i < n; ++i) {
+                new int64_t();
+            }
+        }
+
+    }
+
     private static class SizeTStruct extends Struct {
 
         private final size_t value = new size_t();
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.foreign.support;
+
+import jnc.foreign.Foreign;
+import jnc.foreign.MemoryManager;
+import jnc.foreign.Pointer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author zhanhb
+ */
+public class NativeBufferTest {
+
+    private static void check(MemoryManager memoryManager) {
+        NativeBuffer buffer = new NativeBuffer(memoryManager, 0);
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.pointer().size()).isZero();
+
+        ByteBuffer expect = ByteBuffer.allocate(64);
+        buffer.putByte((byte) 1).putShort((short) 0x1234, ByteOrder.BIG_ENDIAN)
+                .putInt(0x12345678, ByteOrder.LITTLE_ENDIAN).putLong(-2, ByteOrder.BIG_ENDIAN)
+                .putChar('a', ByteOrder.LITTLE_ENDIAN).putFloat(1.5f, ByteOrder.BIG_ENDIAN)
+                .putDouble(-2.5, ByteOrder.LITTLE_ENDIAN).putString("ab中", StandardCharsets.UTF_8);
+        expect.put((byte) 1).putShort((short) 0x1234)
+                .order(ByteOrder.LITTLE_ENDIAN).putInt(0x12345678)
+                .order(ByteOrder.BIG_ENDIAN).putLong(-2)
+                .order(ByteOrder.LITTLE_ENDIAN).putChar('a')
+                .order(ByteOrder.BIG_ENDIAN).putFloat(1.5f)
+                .order(ByteOrder.LITTLE_ENDIAN).putDouble(-2.5)
+                .put("ab中".getBytes(StandardCharsets.UTF_8));
+        byte[] bytes = new byte[expect.position()];
+        Pointer pointer = buffer.pointer();
+        assertThat(pointer.size()).isEqualTo(bytes.length);
+        pointer.getBytes(0, bytes, 0, bytes.length);
+        assertThat(bytes).isEqualTo(Arrays.copyOf(expect.array(), bytes.length));
+
+        buffer.reset().putInt(7).putLong(8);
+        assertThat(buffer.size()).isEqualTo(12);
+        assertThat(buffer.pointer().getInt(0)).isEqualTo(7);
+        assertThat(buffer.pointer().getLong(4)).isEqualTo(8);
+    }
+
+    @Test
+    public void testPut() {
+        check(Foreign.getDefault().getMemoryManager());
+        check(Foreign.getDefault().getPooledMemoryManager());
+    }
+
+    @Test
+    public void testGrow() {
+        NativeBuffer buffer = new NativeBuffer(Foreign.getDefault().getMemoryManager(), 1);
+        for (int i = 0; i < 100000; ++i) {
+            buffer.putInt(i);
+        }
+        assertThat(buffer.capacity()).isGreaterThanOrEqualTo(400000);
+        Pointer pointer = buffer.pointer();
+        for (int i = 0; i < 100000; ++i) {
+            assertThat(pointer.getInt(i * 4)).isEqualTo(i);
+        }
+
+        int capacity = buffer.capacity();
+        buffer.reset().putBytes(new byte[]{1, 2, 3}, 1, 2);
+        assertThat(buffer.capacity()).isEqualTo(capacity);
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.pointer().getShort(0)).isEqualTo(ByteBuffer.wrap(new byte[]{2, 3}).order(ByteOrder.nativeOrder()).getShort());
+
+        assertThat(buffer.reserve(capacity + 1).capacity()).isGreaterThan(capacity);
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testPutPointer() {
+        MemoryManager memoryManager = Foreign.getDefault().getMemoryManager();
+        Pointer src = memoryManager.allocateString("hello", StandardCharsets.US_ASCII);
+        NativeBuffer buffer = new NativeBuffer(memoryManager, 2);
+        buffer.putBytes(src, 1, 4);
+        assertThat(buffer.pointer().getString(0, StandardCharsets.US_ASCII)).isEqualTo("ello");
+        assertThatThrownBy(() -> buffer.putBytes(src, 4, 10)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThat(buffer.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void testPutSelf() {
+        for (MemoryManager memoryManager : Arrays.asList(Foreign.getDefault().getMemoryManager(),
+                Foreign.getDefault().getPooledMemoryManager())) {
+            NativeBuffer buffer = new NativeBuffer(memoryManager, 4);
+            buffer.putBytes(new byte[]{1, 2, 3, 4});
+            // grows while copying from its own memory
+            buffer.putBytes(buffer.pointer(), 1, 3);
+            byte[] bytes = new byte[buffer.size()];
+            buffer.pointer().getBytes(0, bytes, 0, bytes.length);
+            assertThat(bytes).containsExactly(1, 2, 3, 4, 2, 3, 4);
+            assertThatThrownBy(() -> buffer.putBytes(buffer.pointer(), 4, 100))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThat(buffer.size()).isEqualTo(7);
+        }
+    }
+
+    @Test
+    public void testIae() {
+        MemoryManager memoryManager = Foreign.getDefault().getMemoryManager();
+        assertThatThrownBy(() -> new NativeBuffer(memoryManager, -1)).isInstanceOf(IllegalArgumentException.class);
+        NativeBuffer buffer = new NativeBuffer(memoryManager);
+        assertThatThrownBy(() -> buffer.putBytes(new byte[2], 1, 2)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> buffer.putBytes(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> buffer.reserve(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(buffer.size()).isZero();
+    }
+
+}
@@ -1,8 +1,10 @@
 package jnc.provider;
 
+import jnc.foreign.MemoryManager;
 import jnc.foreign.Pointer;
 import org.junit.jupiter.api.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class AllocatedMemoryTest {
@@ -26,4 +28,53 @@ public class AllocatedMemoryTest {
         assertThatThrownBy(() -> memory.putInt(2, 2)).isInstanceOf(IndexOutOfBoundsException.class);
     }
 
+    @Test
+    public void testAlign() {
+        int pageSize = DefaultMemoryManager.INSTANCE.getPageSize();
+        assertThat(Integer.bitCount(pageSize)).isEqualTo(1);
+        for (long alignment : new long[]{1, 16, 32, MemoryManager.CACHE_LINE_SIZE, pageSize}) {
+            for (int i = 0; i < 8; ++i) {
+                Pointer memory = DefaultMemoryManager.INSTANCE.allocateWithAlign(24, alignment);
+                assertThat(memory.address() & (alignment - 1)).isZero();
+                assertThat(memory.capacity()).isEqualTo(24);
+                assertThat(memory.getLong(16)).isZero();
+            }
+        }
+        assertThatThrownBy(() -> AllocatedMemory.allocate(8, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AllocatedMemory.allocate(8, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AllocatedMemory.allocate(-1, 64))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AllocatedMemory.allocate(Long.MAX_VALUE, 64))
+                .isInstanceOf(OutOfMemoryError.class);
+    }
+
+    @Test
+    public void testReallocate() {
+        MemoryManager mm = DefaultMemoryManager.INSTANCE;
+        Pointer memory = mm.allocateUninitialized(8);
+        assertThat(memory.capacity()).isEqualTo(8);
+        memory.putLong(0, 0x0102030405060708L);
+        Pointer grown = mm.reallocate(memory, 1 << 20);
+        assertThat(grown.capacity()).isEqualTo(1 << 20);
+        assertThat(grown.getLong(0)).isEqualTo(0x0102030405060708L);
+        assertThatThrownBy(() -> mm.reallocate(memory, 16))
+                .isInstanceOf(IllegalStateException.class);
+        Pointer shrunk = mm.reallocate(grown, 4);
+        assertThat(shrunk.capacity()).isEqualTo(4);
+        assertThat(shrunk.getInt(0)).isEqualTo((int) 0x0102030405060708L);
+
+        Pointer aligned = mm.allocateWithAlign(8, MemoryManager.CACHE_LINE_SIZE);
+        aligned.putLong(0, 7);
+        Pointer alignedGrown = mm.reallocate(aligned, 4096);
+        assertThat(alignedGrown.address() & (MemoryManager.CACHE_LINE_SIZE - 1)).isZero();
+        assertThat(alignedGrown.getLong(0)).isEqualTo(7);
+
+        assertThatThrownBy(() -> mm.reallocate(shrunk, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mm.reallocate(PooledMemoryManager.INSTANCE.allocate(8), 16))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import jnc.foreign.LibraryLoader;
+import jnc.foreign.Platform;
+import jnc.foreign.annotation.In;
+import jnc.foreign.typedef.size_t;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author zhanhb
+ */
+public class ByteBufferHandlerTest {
+
+    @Test
+    public void testDirect() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        buffer.position(2);
+        Libc.INSTANCE.memset(buffer, 7, 3);
+        assertThat(buffer.get(1)).isZero();
+        assertThat(buffer.get(2)).isEqualTo((byte) 7);
+        assertThat(buffer.get(4)).isEqualTo((byte) 7);
+        assertThat(buffer.get(5)).isZero();
+        // position is not changed
+        assertThat(buffer.position()).isEqualTo(2);
+
+        ByteBuffer slice = buffer.slice();
+        slice.position(3);
+        ByteBuffer src = ByteBuffer.allocateDirect(2);
+        src.put(0, (byte) 1).put(1, (byte) 2);
+        Libc.INSTANCE.memcpy(slice, src, 2);
+        assertThat(buffer.get(5)).isEqualTo((byte) 1);
+        assertThat(buffer.get(6)).isEqualTo((byte) 2);
+
+        assertThat(Libc.INSTANCE.memcmp(buffer, null, 0)).isZero();
+    }
+
+    @Test
+    public void testHeap() {
+        assertThatThrownBy(() -> Libc.INSTANCE.memset(ByteBuffer.allocate(4), 0, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testReadOnly() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4).asReadOnlyBuffer();
+        assertThatThrownBy(() -> Libc.INSTANCE.memset(buffer, 1, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(buffer.get(0)).isZero();
+
+        // accepted if the parameter is only read
+        ByteBuffer dst = ByteBuffer.allocateDirect(4);
+        dst.put(0, (byte) 3);
+        ByteBuffer src = dst.duplicate();
+        src.position(1);
+        assertThat(Libc.INSTANCE.memcmp(buffer, src.asReadOnlyBuffer(), 3)).isZero();
+        assertThat(Libc.INSTANCE.memcmp(buffer, dst.asReadOnlyBuffer(), 1)).isNegative();
+        Libc.INSTANCE.memcpy(dst, buffer, 4);
+        assertThat(dst.get(0)).isZero();
+        assertThatThrownBy(() -> Libc.INSTANCE.memcpy(buffer, dst, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private interface Libc {
+
+        Libc INSTANCE = LibraryLoader.create(Libc.class).load(Platform.getNativePlatform().getLibcName());
+
+        void memset(ByteBuffer dst, int ch, @size_t long n);
+
+        void memcpy(ByteBuffer dst, @In ByteBuffer src, @size_t long n);
+
+        int memcmp(@In ByteBuffer a, @In ByteBuffer b, @size_t long n);
+
+    }
+
+}
@@ -11,7 +11,13 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CifContainerTest {
 
@@ -92,4 +98,82 @@ public class CifContainerTest {
         log.info("pid={}", pid);
     }
 
+    @Test
+    public void testNestedCallContext() throws Throwable {
+        Library libm = NativeLibrary.open(DefaultPlatform.INSTANCE, LIBM, 0);
+        long function = libm.dlsym("atan2");
+        RawConverter<Double> converter = PC.getConverters(double.class).apply(NativeType.DOUBLE);
+        CifContainer container = CifContainer.create(CallingConvention.DEFAULT, TypeInfo.DOUBLE, TypeInfo.DOUBLE, TypeInfo.DOUBLE);
+        long[] stack = ArgumentStack.current();
+        int mark = ArgumentStack.mark(stack);
+
+        CallContext outer = container.newCallContext();
+        outer.putDouble(0, 1);
+        CallContext inner = container.newCallContext();
+        inner.putDouble(0, 0);
+        inner.putDouble(1, -1);
+        outer.putDouble(1, 0);
+        assertEquals(Math.PI, inner.invoke(converter, function), 1e-14);
+        assertEquals(Math.PI / 2, outer.invoke(converter, function), 1e-14);
+        assertEquals(mark, ArgumentStack.mark(stack));
+
+        container.newCallContext().close();
+        assertEquals(mark, ArgumentStack.mark(stack));
+    }
+
+    @Test
+    public void testLargeCallContext() throws Throwable {
+        Library libc = NativeLibrary.open(DefaultPlatform.INSTANCE, LIBC, 0);
+        long function = libc.dlsym("abs");
+        InternalType[] params = new InternalType[ArgumentStack.CAPACITY / 4];
+        Arrays.fill(params, TypeInfo.SINT32);
+        CifContainer container = CifContainer.create(CallingConvention.DEFAULT, TypeInfo.SINT32, params);
+        int mark = ArgumentStack.mark(ArgumentStack.current());
+        CallContext ctx = container.newCallContext();
+        for (int i = 0; i < params.length; ++i) {
+            ctx.putInt(i, -i);
+        }
+        assertEquals(0, (int) ctx.invoke(PC.getConverters(int.class).apply(NativeType.SINT32), function));
+        assertEquals(mark, ArgumentStack.mark(ArgumentStack.current()));
+    }
+
+    @Test
+    public void testShared() {
+        CifContainer container = CifContainer.create(CallingConvention.DEFAULT, TypeInfo.DOUBLE, TypeInfo.DOUBLE, TypeInfo.SINT32);
+        assertSame(container, CifContainer.create(CallingConvention.DEFAULT, TypeInfo.DOUBLE, TypeInfo.DOUBLE, TypeInfo.SINT32));
+        assertSame(container, CifContainer.create(CallingConvention.DEFAULT, true, TypeInfo.DOUBLE,
+                new InternalType[]{TypeInfo.DOUBLE, DefaultForeign.INSTANCE.getTypeFactory().findByAlias(TypeAlias.int32_t)}));
+        assertNotSame(container, CifContainer.create(CallingConvention.DEFAULT, TypeInfo.DOUBLE, TypeInfo.DOUBLE, TypeInfo.SINT64));
+        assertNotSame(container, CifContainer.create(CallingConvention.DEFAULT, TypeInfo.DOUBLE, TypeInfo.DOUBLE));
+        assertNotSame(container, CifContainer.create(CallingConvention.DEFAULT, TypeInfo.FLOAT, TypeInfo.DOUBLE, TypeInfo.SINT32));
+    }
+
+    @Test
+    public void testIsDirect() {
+        InternalType pointer = TypeInfo.POINTER;
+        assertTrue(CifContainer.isDirect(TypeInfo.VOID, new InternalType[0]));
+        assertTrue(CifContainer.isDirect(TypeInfo.SINT32, new InternalType[]{TypeInfo.UINT8, pointer, TypeInfo.SINT16}));
+        assertFalse(CifContainer.isDirect(TypeInfo.DOUBLE, new InternalType[]{TypeInfo.SINT32}));
+        assertFalse(CifContainer.isDirect(TypeInfo.SINT32, new InternalType[]{TypeInfo.FLOAT}));
+        InternalType[] seven = new InternalType[7];
+        Arrays.fill(seven, pointer);
+        assertFalse(CifContainer.isDirect(TypeInfo.VOID, seven));
+        assertTrue(CifContainer.isDirect(TypeInfo.VOID, Arrays.copyOf(seven, 6)));
+    }
+
+    @Test
+    public void testNarrowArguments() throws Throwable {
+        Library libc = NativeLibrary.open(DefaultPlatform.INSTANCE, LIBC, 0);
+        long function = libc.dlsym("abs");
+        CifContainer container = CifContainer.create(CallingConvention.DEFAULT, TypeInfo.SINT32, TypeInfo.SINT8);
+        CallContext ctx = container.newCallContext();
+        ctx.putInt(0, 0xFF);
+        assertEquals(1, ctx.invoke(function));
+
+        container = CifContainer.create(CallingConvention.DEFAULT, TypeInfo.UINT8, TypeInfo.SINT32);
+        ctx = container.newCallContext();
+        ctx.putInt(0, -0x1FF);
+        assertEquals(0xFF, ctx.invoke(function));
+    }
+
 }
@@ -19,6 +19,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -119,4 +120,106 @@ public class CleanerTest {
         assertEquals(nTotal, atomicInteger.get());
     }
 
+    @Test
+    public void testDaemon() {
+        Cleaner.Ref[] lists = {new Cleaner.Ref(), new Cleaner.Ref()};
+        Cleaner cleaner = new Cleaner(lists, 4, true);
+        AtomicInteger executed = new AtomicInteger();
+        int n = 10;
+        for (int i = 0; i < n; ++i) {
+            cleaner.register(new Object(), executed::incrementAndGet);
+        }
+        assertEquals(n, cleaner.getPendingCount());
+        // no more registration, actions are run by the daemon thread
+        assertTrue(SleepUtil.sleepUntil(() -> executed.get() == n));
+        assertTrue(SleepUtil.sleepUntil(() -> cleaner.getCleanedCount() == n));
+        assertEquals(0, cleaner.getPendingCount());
+        assertTrue(cleaner.getLastBatchSize() >= 1 && cleaner.getLastBatchSize() <= 4);
+        assertTrue(cleaner.getLastBatchNanos() >= 0);
+        assertEquals(0, cleaner.getQueuedCount());
+        assertTrue(cleaner.getMaxLagNanos() >= 0);
+        // reset after read
+        assertEquals(0, cleaner.getMaxLagNanos());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testQueued() throws InterruptedException {
+        Cleaner cleaner = new Cleaner(new Cleaner.Ref[]{new Cleaner.Ref()}, 1, true);
+        Semaphore semaphore = new Semaphore(0);
+        AtomicInteger executed = new AtomicInteger();
+        Runnable action = () -> {
+            executed.incrementAndGet();
+            semaphore.acquireUninterruptibly();
+        };
+        Object[] referents = {new Object(), new Object(), new Object()};
+        Cleaner.Ref[] refs = new Cleaner.Ref[referents.length];
+        for (int i = 0; i < referents.length; ++i) {
+            refs[i] = (Cleaner.Ref) cleaner.register(referents[i], action);
+        }
+        referents[0] = null;
+        // the first action blocks the cleaner
+        assertTrue(SleepUtil.sleepUntil(() -> executed.get() == 1));
+        assertEquals(1, cleaner.getQueuedCount());
+        referents[1] = null;
+        referents[2] = null;
+        assertTrue(SleepUtil.sleepUntil(() -> refs[1].isEnqueued() && refs[2].isEnqueued()));
+        TimeUnit.MILLISECONDS.sleep(20);
+        semaphore.release();
+        // both taken from the queue after the first batch
+        assertTrue(SleepUtil.sleepUntil(() -> executed.get() == 2));
+        assertEquals(2, cleaner.getQueuedCount());
+        semaphore.release(2);
+        assertTrue(SleepUtil.sleepUntil(() -> cleaner.getQueuedCount() == 0));
+        assertEquals(3, executed.get());
+        assertTrue(cleaner.getMaxLagNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void testCountExplicit() {
+        Cleaner.Ref list = new Cleaner.Ref();
+        Cleaner cleaner = new Cleaner(list);
+        Object a = new Object(), b = new Object(), c = new Object();
+        Runnable cleanable = cleaner.register(a, () -> {
+        });
+        cleaner.register(b, () -> {
+        });
+        cleaner.register(c, () -> {
+        });
+        assertEquals(3, cleaner.getPendingCount());
+        cleanable.run();
+        cleanable.run();
+        assertEquals(1, cleaner.getCleanedCount());
+        assertEquals(2, cleaner.getPendingCount());
+        cleaner.cleanAll();
+        assertEquals(3, cleaner.getCleanedCount());
+        assertEquals(0, cleaner.getPendingCount());
+    }
+
+    @Test
+    public void testStriped() throws InterruptedException {
+        Cleaner.Ref[] lists = {new Cleaner.Ref(), new Cleaner.Ref(), new Cleaner.Ref(), new Cleaner.Ref()};
+        Cleaner cleaner = new Cleaner(lists, 4, false);
+        Object referent = new Object();
+        AtomicInteger executed = new AtomicInteger();
+        int nThreads = 8;
+        Thread[] threads = new Thread[nThreads];
+        for (int i = 0; i < nThreads; ++i) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100; ++j) {
+                    cleaner.register(referent, executed::incrementAndGet);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        cleaner.cleanAll();
+        assertEquals(nThreads * 100, executed.get());
+        for (Cleaner.Ref list : lists) {
+            assertFalse(list.remove());
+        }
+    }
+
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import jnc.foreign.Arena;
+import jnc.foreign.Pointer;
+import jnc.foreign.Struct;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author zhanhb
+ */
+public class DefaultArenaTest {
+
+    @Test
+    public void testAllocate() {
+        try (Arena arena = DefaultMemoryManager.INSTANCE.newArena()) {
+            Pointer a = arena.allocate(3);
+            Pointer b = arena.allocate(8);
+            assertThat(a.capacity()).isEqualTo(3);
+            assertThat(b.address() - a.address()).isEqualTo(16);
+            assertThat(b.getLong(0)).isZero();
+            b.putLong(0, 7);
+            assertThat(b.getLong(0L)).isEqualTo(7);
+            assertThatThrownBy(() -> a.getInt(0)).isInstanceOf(IndexOutOfBoundsException.class);
+
+            Pointer aligned = arena.allocateWithAlign(10, 256);
+            assertThat(aligned.address() & 255).isZero();
+            assertThat(arena.allocateWithAlign(1, 8).address() & 7).isZero();
+            assertThatThrownBy(() -> arena.allocateWithAlign(1, 3)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> arena.allocate(-1)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    public void testLarge() {
+        try (Arena arena = PooledMemoryManager.INSTANCE.newArena()) {
+            Pointer small = arena.allocate(8);
+            Pointer large = arena.allocate(DefaultArena.CHUNK_SIZE * 2);
+            assertThat(large.capacity()).isEqualTo(DefaultArena.CHUNK_SIZE * 2);
+            assertThat(large.getLong(DefaultArena.CHUNK_SIZE * 2 - 8)).isZero();
+            // the current chunk is still used
+            assertThat(arena.allocate(8).address()).isEqualTo(small.address() + 16);
+        }
+    }
+
+    @Test
+    public void testClose() {
+        Arena arena = DefaultMemoryManager.INSTANCE.newArena();
+        Pointer pointer = arena.allocateString("abc", StandardCharsets.UTF_8);
+        Pointer slice = pointer.slice(1, 4);
+        assertThat(pointer.getString(0, StandardCharsets.UTF_8)).isEqualTo("abc");
+        assertThat(slice.getStringUTF(0)).isEqualTo("bc");
+        assertThat(arena.isOpen()).isTrue();
+        arena.close();
+        arena.close();
+        assertThat(arena.isOpen()).isFalse();
+        assertThatThrownBy(() -> pointer.getByte(0)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(pointer::address).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> slice.putInt(0, Integer.BYTES)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> pointer.fill(0, 1, (byte) 0)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> arena.allocate(1)).isInstanceOf(IllegalStateException.class);
+        assertThat(pointer.capacity()).isEqualTo(4);
+    }
+
+    @Test
+    public void testAsByteBuffer() {
+        try (Arena arena = DefaultMemoryManager.INSTANCE.newArena()) {
+            Pointer pointer = arena.allocate(8);
+            assertThatThrownBy(() -> pointer.asByteBuffer(0, 8)).isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> pointer.slice(0, 4).asByteBuffer(0, 4)).isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @Test
+    public void testStruct() {
+        try (Arena arena = DefaultMemoryManager.INSTANCE.newArena()) {
+            Pair pair = arena.allocateStruct(new Pair());
+            assertThat(pair.getMemory().capacity()).isEqualTo(pair.size());
+            pair.setSecond(5);
+            assertThat(pair.getMemory().getInt(4)).isEqualTo(5);
+            assertThatThrownBy(() -> arena.allocateStruct(pair)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private static class Pair extends Struct {
+
+        final int32_t first = new int32_t();
+        final int32_t second = new int32_t();
+
+        void setSecond(int value) {
+            second.set(value);
+        }
+
+    }
+
+}
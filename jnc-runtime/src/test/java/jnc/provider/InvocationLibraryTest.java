@@ -26,6 +26,7 @@ import java.lang.reflect.Method;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -112,6 +113,47 @@ public class InvocationLibraryTest {
         }
     }
 
+    @Test
+    public void testUnsupportedReturnType() {
+        // no raw converter for the return type
+        TypeHandlerFactory factory = new TypeHandlerFactory() {
+            @Override
+            public ParameterHandlerInfo findParameterTypeInfo(Class<?> type) {
+                return THR.findParameterTypeInfo(type);
+            }
+
+            @Override
+            public InvokerHandlerInfo findReturnTypeInfo(Class<?> returnType) {
+                InvokerHandlerInfo info = THR.findReturnTypeInfo(returnType);
+                return new InvokerHandlerInfo() {
+                    @Override
+                    public InternalType getType(Class<?> type, TypeFactory tf, AnnotationContext ac) {
+                        return info.getType(type, tf, ac);
+                    }
+
+                    @Override
+                    public RawConverter<?> getRawConverter(Class<?> type, InternalType retType) {
+                        return null;
+                    }
+                };
+            }
+        };
+        UnsupportedReturnType lazy = InvocationLibrary.create(UnsupportedReturnType.class, DUMMY_LIB,
+                LoadOptions.empty().build(), typeFactory, factory);
+        assertThatThrownBy(lazy::get).isInstanceOf(IllegalStateException.class);
+        // validated when bound eagerly too
+        assertThatThrownBy(() -> InvocationLibrary.create(UnsupportedReturnType.class, DUMMY_LIB,
+                LoadOptions.builder().bindEagerly().build(), typeFactory, factory))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("unsupported return type");
+    }
+
+    public interface UnsupportedReturnType {
+
+        int get();
+
+    }
+
     private interface NoConvention {
 
         @Stdcall
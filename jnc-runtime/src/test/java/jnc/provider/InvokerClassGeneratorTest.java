@@ -0,0 +1,265 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import jnc.foreign.LibraryLoader;
+import jnc.foreign.Platform;
+import jnc.foreign.Pointer;
+import jnc.foreign.TestLibs;
+import jnc.foreign.enums.CallingConvention;
+import jnc.foreign.typedef.size_t;
+import jnc.foreign.typedef.uint8_t;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @author zhanhb
+ */
+public class InvokerClassGeneratorTest {
+
+    private static final int ACC_VARARGS = 0x0080;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    @Test
+    public void testGenerated() {
+        assertThat(Proxy.isProxyClass(Libc.INSTANCE.getClass())).isFalse();
+        assertThat(Libc.INSTANCE.getClass().getName()).startsWith(Libc.class.getName());
+        assertThat(Libc.INSTANCE).isEqualTo(Libc.INSTANCE);
+        assertThat(Libc.INSTANCE.toString()).isNotNull();
+    }
+
+    @Test
+    public void testPrimitives() {
+        assertThat(Libm.INSTANCE.sqrt(16)).isEqualTo(4.0);
+        assertThat(Libm.INSTANCE.sqrtf(2.25f)).isEqualTo(1.5f);
+        assertThat(Libm.INSTANCE.atan2(1, 0)).isEqualTo(Math.PI / 2);
+        assertThat(Libc.INSTANCE.abs(-5)).isEqualTo(5);
+        assertThat(Libc.INSTANCE.labs(-5L)).isEqualTo(5L);
+        assertThat(Libc.INSTANCE.toupper('a')).isEqualTo((byte) 'A');
+        assertThat(Libc.INSTANCE.isdigit('1')).isTrue();
+        assertThat(Libc.INSTANCE.isdigit('a')).isFalse();
+    }
+
+    @Test
+    public void testObjects() {
+        byte[] bytes = "abcde".getBytes(StandardCharsets.UTF_8);
+        Pointer memory = DefaultMemoryManager.INSTANCE.allocate(8);
+        assertThat(Libc.INSTANCE.memcpy(memory, bytes, 3).address()).isEqualTo(memory.address());
+        assertThat(memory.getStringUTF(0)).isEqualTo("abc");
+        Libc.INSTANCE.memset(memory, 'x', 2);
+        assertThat(memory.getStringUTF(0)).isEqualTo("xxc");
+    }
+
+    @Test
+    public void testVariadic() {
+        byte[] bytes = new byte[20];
+        byte[] format = "%d %s\u0000".getBytes(StandardCharsets.UTF_8);
+        byte[] arg = "x\u0000".getBytes(StandardCharsets.UTF_8);
+        int n = Libc.INSTANCE.sprintf(bytes, format, 12, arg);
+        assertThat(new String(bytes, 0, n, StandardCharsets.UTF_8)).isEqualTo("12 x");
+    }
+
+    @Test
+    public void testDefaultMethod() {
+        assertThat(Libc.INSTANCE.twice(-3)).isEqualTo(6);
+    }
+
+    @Test
+    public void testLazyBinding() {
+        assertThatThrownBy(Libc.INSTANCE::noSuchFunction).isInstanceOf(UnsatisfiedLinkError.class);
+    }
+
+    @Test
+    public void testUndeclaredException() {
+        Library libc = NativeLibrary.open(DefaultPlatform.INSTANCE, Platform.getNativePlatform().getLibcName(), 0);
+        long abs = libc.dlsym("abs");
+        RawConverter<Object> converter = result -> {
+            throw new IOException("converted " + result);
+        };
+        Function<Method, MethodInvocation> resolver = method -> method.isVarArgs() ? new MethodInvocation() {
+            @Override
+            public CallingConvention getCallingConvention() {
+                return CallingConvention.DEFAULT;
+            }
+
+            @Override
+            public Object invoke(Object obj, Object[] args) throws Throwable {
+                throw new IOException("variadic");
+            }
+        } : new FixedMethodInvocation(new ParameterPutter<?>[1], CallingConvention.DEFAULT, converter,
+                abs, TypeInfo.SINT32, new InternalType[]{TypeInfo.SINT32}, false, null);
+        Thrower thrower = InvokerClassGenerator.newInstance(Thrower.class, resolver);
+
+        assertThatThrownBy(() -> thrower.undeclared(-3)).isExactlyInstanceOf(UndeclaredThrowableException.class)
+                .hasCauseExactlyInstanceOf(IOException.class)
+                .satisfies(t -> assertThat(t.getCause()).hasMessage("converted 3"));
+        assertThatThrownBy(() -> thrower.declared(-3)).isExactlyInstanceOf(IOException.class);
+        assertThatThrownBy(() -> thrower.variadic(1, 2L, 3.0)).isExactlyInstanceOf(UndeclaredThrowableException.class)
+                .hasCauseExactlyInstanceOf(IOException.class);
+    }
+
+    /**
+     * The generated class is verified when defined, with the most argument
+     * slots a method can have, long and double arguments, and more fields
+     * than a byte can index.
+     */
+    @Test
+    public void testVerifyLarge() throws Exception {
+        // classes not defined by the bootstrap loader are verified unless disabled,
+        // the tests run with -Xverify:all
+        List<String> arguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        assumeTrue(!arguments.contains("-Xverify:none") && !arguments.contains("-XX:-BytecodeVerificationRemote"),
+                "bytecode verification is disabled");
+        int methods = 300;
+        // with this and one more argument, 255 slots at most
+        int pairs = 63;
+        StringBuilder wide = new StringBuilder("(");
+        for (int i = 0; i < pairs; ++i) {
+            wide.append("JD");
+        }
+        String interfaceName = "jnc/provider/Wide" + System.nanoTime();
+        InvokerClassGenerator.ConstantPool pool = new InvokerClassGenerator.ConstantPool();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeShort(InvokerClassGenerator.ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT);
+        out.writeShort(pool.classInfo(interfaceName));
+        out.writeShort(pool.classInfo(InvokerClassGenerator.OBJECT));
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(methods + 2);
+        for (int i = 0; i < methods; ++i) {
+            writeAbstractMethod(out, pool, "m" + i, "(I)I", 0);
+        }
+        writeAbstractMethod(out, pool, "fixed", wide + "J)D", 0);
+        writeAbstractMethod(out, pool, "variadic", wide + "I[Ljava/lang/Object;)Ljava/lang/Object;", ACC_VARARGS);
+        out.writeShort(0);
+        byte[] bytes = InvokerClassGenerator.toClassFile(pool, body);
+        Class<?> klass = NativeLoader.getAccessor().defineClass(interfaceName,
+                InvokerClassGeneratorTest.class.getClassLoader(), bytes);
+
+        Library libc = NativeLibrary.open(DefaultPlatform.INSTANCE, Platform.getNativePlatform().getLibcName(), 0);
+        long abs = libc.dlsym("abs");
+        Object instance = InvokerClassGenerator.newInstance(klass, method -> method.isVarArgs() ? new MethodInvocation() {
+            @Override
+            public CallingConvention getCallingConvention() {
+                return CallingConvention.DEFAULT;
+            }
+
+            @Override
+            public Object invoke(Object obj, Object[] args) {
+                return args;
+            }
+        } : new FixedMethodInvocation(new ParameterPutter<?>[1], CallingConvention.DEFAULT, result -> (int) result,
+                abs, TypeInfo.SINT32, new InternalType[]{TypeInfo.SINT32}, false, null));
+        assertThat(klass.getMethod("m" + (methods - 1), int.class).invoke(instance, -5)).isEqualTo(5);
+        assertThat(klass.getMethod("m0", int.class).invoke(instance, -6)).isEqualTo(6);
+
+        Class<?>[] types = new Class<?>[pairs * 2 + 2];
+        Object[] args = new Object[pairs * 2 + 2];
+        for (int i = 0; i < pairs; ++i) {
+            types[2 * i] = long.class;
+            types[2 * i + 1] = double.class;
+            args[2 * i] = (long) i << 32 | i;
+            args[2 * i + 1] = i + 0.5;
+        }
+        types[pairs * 2] = int.class;
+        args[pairs * 2] = -1;
+        types[pairs * 2 + 1] = Object[].class;
+        args[pairs * 2 + 1] = new Object[]{"last"};
+        Object[] received = (Object[]) klass.getMethod("variadic", types).invoke(instance, args);
+        assertThat(received).hasSize(args.length);
+        assertThat(Arrays.copyOf(received, pairs * 2 + 1)).containsExactly(Arrays.copyOf(args, pairs * 2 + 1));
+        assertThat((Object[]) received[pairs * 2 + 1]).containsExactly("last");
+    }
+
+    private static void writeAbstractMethod(DataOutputStream out, InvokerClassGenerator.ConstantPool pool,
+            String name, String descriptor, int flags) throws IOException {
+        out.writeShort(InvokerClassGenerator.ACC_PUBLIC | ACC_ABSTRACT | flags);
+        out.writeShort(pool.utf8(name));
+        out.writeShort(pool.utf8(descriptor));
+        out.writeShort(0);
+    }
+
+    private interface Thrower {
+
+        Object undeclared(int value);
+
+        Object declared(int value) throws IOException;
+
+        void variadic(int value, Object... args);
+
+    }
+
+    @SuppressWarnings("UnusedReturnValue")
+    private interface Libc {
+
+        Libc INSTANCE = LibraryLoader.create(Libc.class).load(Platform.getNativePlatform().getLibcName());
+
+        int abs(int value);
+
+        long labs(long value);
+
+        @uint8_t
+        byte toupper(int ch);
+
+        boolean isdigit(int ch);
+
+        Pointer memcpy(Pointer dst, byte[] src, @size_t long n);
+
+        void memset(Pointer dst, int ch, @size_t long n);
+
+        int sprintf(byte[] target, byte[] format, Object... args);
+
+        void noSuchFunction();
+
+        default int twice(int value) {
+            return abs(value) * 2;
+        }
+
+        @Override
+        String toString();
+
+    }
+
+    private interface Libm {
+
+        Libm INSTANCE = LibraryLoader.create(Libm.class).load(TestLibs.getStandardMath());
+
+        double sqrt(double value);
+
+        float sqrtf(float value);
+
+        double atan2(double x, double y);
+
+    }
+
+}
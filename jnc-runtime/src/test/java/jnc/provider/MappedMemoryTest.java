@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import jnc.foreign.MappedPointer;
+import jnc.foreign.MemoryManager;
+import jnc.foreign.Pointer;
+import jnc.foreign.Struct;
+import jnc.foreign.StructAccessors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @author zhanhb
+ */
+public class MappedMemoryTest {
+
+    private final MemoryManager mm = DefaultMemoryManager.INSTANCE;
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    public void setUp() {
+        NativeSupport.assumeSupported(MappedMemory.isSupported(), "map file not supported");
+    }
+
+    @Test
+    public void testReadWrite() throws IOException {
+        Path file = dir.resolve("rw");
+        Files.write(file, new byte[]{1, 2, 3, 4});
+        try (MappedPointer pointer = mm.map(file, 1, 3, MapMode.READ_ONLY)) {
+            assertThat(pointer.capacity()).isEqualTo(3);
+            assertThat(pointer.getByte(0)).isEqualTo((byte) 2);
+            assertThat(pointer.getByte(2)).isEqualTo((byte) 4);
+            assertThatThrownBy(() -> pointer.getByte(3)).isInstanceOf(IndexOutOfBoundsException.class);
+            pointer.advise(MappedPointer.Advice.SEQUENTIAL);
+        }
+        try (MappedPointer pointer = mm.map(file, 2, 6, MapMode.READ_WRITE)) {
+            pointer.putByte(0, (byte) 5);
+            pointer.putInt(2, 0x01020304);
+            pointer.sync();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        assertThat(bytes).hasSize(8);
+        assertThat(bytes[2]).isEqualTo((byte) 5);
+        assertThat(ByteBuffer.wrap(bytes, 4, 4).order(ByteOrder.nativeOrder()).getInt())
+                .isEqualTo(0x01020304);
+    }
+
+    @Test
+    public void testPrivate() throws IOException {
+        Path file = dir.resolve("private");
+        Files.write(file, new byte[]{1, 2});
+        try (MappedPointer pointer = mm.map(file, 0, 2, MapMode.PRIVATE)) {
+            pointer.putByte(0, (byte) 9);
+            assertThat(pointer.getByte(0)).isEqualTo((byte) 9);
+            pointer.sync();
+        }
+        assertThat(Files.readAllBytes(file)).containsExactly(1, 2);
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        Path file = dir.resolve("close");
+        Files.write(file, new byte[16]);
+        MappedPointer pointer = mm.map(file, 0, 16, MapMode.READ_ONLY);
+        pointer.close();
+        pointer.close();
+        assertThatThrownBy(pointer::sync).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> pointer.advise(MappedPointer.Advice.NORMAL)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> pointer.getByte(0)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> pointer.getLong(8L)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(pointer::address).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testCloseSlice() throws IOException {
+        Path file = dir.resolve("slice");
+        Files.write(file, new byte[16]);
+        MappedPointer pointer = mm.map(file, 0, 16, MapMode.READ_WRITE);
+        Pointer slice = pointer.slice(4, 8);
+        slice.putInt(0, 1);
+        pointer.close();
+        assertThatThrownBy(() -> slice.getInt(0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testReadOnly() throws IOException {
+        Path file = dir.resolve("ro");
+        Files.write(file, new byte[]{1, 2, 3, 4});
+        try (MappedPointer pointer = mm.map(file, 0, 4, MapMode.READ_ONLY)) {
+            assertThatThrownBy(() -> pointer.putByte(0, (byte) 0)).isInstanceOf(ReadOnlyBufferException.class);
+            assertThatThrownBy(() -> pointer.putInt(0L, 0)).isInstanceOf(ReadOnlyBufferException.class);
+            assertThatThrownBy(() -> pointer.putBytes(0, new byte[2], 0, 2)).isInstanceOf(ReadOnlyBufferException.class);
+            assertThatThrownBy(() -> pointer.putStringUTF(0, "")).isInstanceOf(ReadOnlyBufferException.class);
+            assertThatThrownBy(() -> pointer.fill(0, 4, (byte) 0)).isInstanceOf(ReadOnlyBufferException.class);
+            assertThatThrownBy(() -> pointer.slice(1, 3).putShort(0, (short) 0)).isInstanceOf(ReadOnlyBufferException.class);
+            Pointer memory = mm.allocate(4);
+            assertThatThrownBy(() -> memory.copyTo(0, pointer, 0, 4)).isInstanceOf(ReadOnlyBufferException.class);
+            assertThat(pointer.asByteBuffer(0, 4).isReadOnly()).isTrue();
+            assertThat(pointer.asByteBuffer(0, 4).order()).isEqualTo(ByteOrder.nativeOrder());
+            pointer.copyTo(0, memory, 0, 4);
+            assertThat(memory.getByte(3)).isEqualTo((byte) 4);
+        }
+        assertThat(Files.readAllBytes(file)).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    public void testStructAccessor() throws IOException {
+        Path file = dir.resolve("struct");
+        Files.write(file, new byte[]{1, 2, 3, 4});
+        Accessor accessor = StructAccessors.create(Value.class, Accessor.class);
+        try (MappedPointer pointer = mm.map(file, 0, 4, MapMode.READ_ONLY)) {
+            int expect = pointer.getInt(0);
+            assertThat(accessor.value(pointer)).isEqualTo(expect);
+            assertThatThrownBy(() -> accessor.value(pointer, 0)).isInstanceOf(ReadOnlyBufferException.class);
+            assertThatThrownBy(() -> accessor.value(pointer.slice(0, 4), 0)).isInstanceOf(ReadOnlyBufferException.class);
+            assertThat(pointer.getInt(0)).isEqualTo(expect);
+        }
+        try (MappedPointer pointer = mm.map(file, 0, 4, MapMode.READ_WRITE)) {
+            accessor.value(pointer, 5);
+            assertThat(pointer.getInt(0)).isEqualTo(5);
+        }
+    }
+
+    @Test
+    public void testIllegal() throws IOException {
+        Path file = dir.resolve("small");
+        Files.write(file, new byte[4]);
+        assertThatThrownBy(() -> mm.map(file, 0, 0, MapMode.READ_ONLY)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mm.map(file, -1, 1, MapMode.READ_ONLY)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mm.map(file, 2, 4, MapMode.READ_ONLY)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> mm.map(dir.resolve("missing"), 0, 1, MapMode.READ_ONLY)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testLarge() throws IOException {
+        assumeTrue(TypeInfo.POINTER.size() == Long.BYTES, "64 bit only");
+        Path file = Files.createFile(dir.resolve("large"));
+        long offset = 3L << 30;
+        // the file is sparse, no space is allocated for the pages not touched
+        try (MappedPointer pointer = mm.map(file, 0, offset + 8, MapMode.READ_WRITE)) {
+            assertThat(pointer.capacity()).isEqualTo(offset + 8);
+            assertThat(pointer.size()).isEqualTo(Integer.MAX_VALUE);
+            pointer.putLong(offset, 0x0102030405060708L);
+            assertThat(pointer.getLong(offset)).isEqualTo(0x0102030405060708L);
+            assertThat(pointer.slice(offset, offset + 8).getLong(0)).isEqualTo(0x0102030405060708L);
+            assertThatThrownBy(() -> pointer.getByte(offset + 8)).isInstanceOf(IndexOutOfBoundsException.class);
+            // bulk operations beyond 2GB
+            assertThat(pointer.indexOf(offset - 8, 16, (byte) 0x08)).isIn(offset, offset + 7);
+            pointer.fill(offset - 8, 8, (byte) 1);
+            pointer.copyTo(offset - 8, pointer, offset - 16, 8);
+            assertThat(pointer.getLong(offset - 16)).isEqualTo(0x0101010101010101L);
+            assertThat(pointer.mismatch(offset - 16, pointer, offset - 8, 8)).isEqualTo(-1);
+            assertThat(pointer.compare(offset - 8, pointer, offset, 8)).isNotZero();
+            assertThatThrownBy(() -> pointer.fill(offset, 9, (byte) 0)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+        assertThat(Files.size(file)).isEqualTo(offset + 8);
+    }
+
+    private static class Value extends Struct {
+
+        final int32_t value = new int32_t();
+
+    }
+
+    private interface Accessor {
+
+        int value(Pointer pointer);
+
+        void value(Pointer pointer, int value);
+
+    }
+
+}
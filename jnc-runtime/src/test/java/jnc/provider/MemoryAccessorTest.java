@@ -122,6 +122,41 @@ public class MemoryAccessorTest {
         testStringBase(this::testString16, 3);
     }
 
+    @Test
+    public void testRaw() {
+        SizedDirectMemory memory = AllocatedMemory.allocate(32);
+        MemoryAccessor accessor = new MemoryAccessor(memory.address());
+        NativeAccessor na = NativeLoader.getAccessor();
+        long address = memory.address();
+
+        accessor.putByte(1, (byte) 0x81);
+        assertEquals((byte) 0x81, na.getRawByte(address + 1));
+        accessor.putShort(3, (short) 0x8182);
+        assertEquals((short) 0x8182, na.getRawShort(address + 3));
+        accessor.putInt(5, 0x81828384);
+        assertEquals(0x81828384, na.getRawInt(address + 5));
+        accessor.putLong(9, 0x8182838485868788L);
+        assertEquals(0x8182838485868788L, na.getRawLong(address + 9));
+        accessor.putFloat(17, 1.5f);
+        assertEquals(1.5f, na.getRawFloat(address + 17));
+        accessor.putDouble(21, -2.25);
+        assertEquals(-2.25, na.getRawDouble(address + 21));
+
+        na.putRawLong(address, 0x0102030405060708L);
+        assertEquals(0x0102030405060708L, accessor.getLong(0));
+        assertEquals(na.getRawInt(address + 1), accessor.getInt(1));
+        assertEquals(na.getRawShort(address + 2), accessor.getShort(2));
+        assertEquals(na.getRawByte(address + 3), accessor.getByte(3));
+        na.putRawDouble(address + 8, Math.PI);
+        assertEquals(Math.PI, accessor.getDouble(8));
+        na.putRawFloat(address + 16, (float) Math.E);
+        assertEquals((float) Math.E, accessor.getFloat(16));
+
+        accessor.putAddress(24, address);
+        assertEquals(address, na.getAddress(address + 24));
+        assertEquals(address, accessor.getAddress(24));
+    }
+
     @Test
     public void testLimit() {
         Pointer pointer = AllocatedMemory.allocate(16);
@@ -3,8 +3,11 @@ package jnc.provider;
 import jnc.foreign.Pointer;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class MemoryTest {
@@ -38,4 +41,133 @@ public class MemoryTest {
         }
     }
 
+    @Test
+    public void testCopyTo() {
+        int size = 20000;
+        Pointer memory = AllocatedMemory.allocate(size);
+        for (int i = 0; i < size; ++i) {
+            memory.putByte(i, (byte) i);
+        }
+        Pointer copy = AllocatedMemory.allocate(size);
+        memory.copyTo(0, copy, 0, size);
+        assertEquals(-1, memory.mismatch(0, copy, 0, size));
+
+        // overlapping regions, both directions
+        memory.copyTo(0, memory, 3, size - 3);
+        assertEquals(-1, memory.mismatch(3, copy, 0, size - 3));
+        memory.copyTo(3, memory, 0, size - 3);
+        assertEquals(-1, memory.mismatch(0, copy, 0, size - 3));
+
+        assertThatThrownBy(() -> memory.copyTo(1, copy, 0, size)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> memory.copyTo(0, copy, 1, size)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> memory.copyTo(0, copy, 0, -1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void testFill() {
+        int size = 20000;
+        Pointer memory = AllocatedMemory.allocate(size + 2);
+        memory.fill(1, size, (byte) 0x81);
+        assertEquals(0, memory.getByte(0));
+        assertEquals(0, memory.getByte(size + 1));
+        assertEquals(1, memory.indexOf(0, size + 2, (byte) 0x81));
+        assertEquals(size + 1, memory.indexOf(1, size + 1, (byte) 0));
+        memory.fill(0, 0, (byte) 1);
+        assertEquals(0, memory.getByte(0));
+        assertThatThrownBy(() -> memory.fill(3, size, (byte) 0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void testCompare() {
+        int size = 10000;
+        Pointer a = AllocatedMemory.allocate(size);
+        Pointer b = AllocatedMemory.allocate(size);
+        assertEquals(0, a.compare(0, b, 0, size));
+        assertEquals(-1, a.mismatch(0, b, 0, size));
+        b.putByte(9000, (byte) 0x80);
+        assertEquals(-1, a.compare(0, b, 0, size));
+        assertEquals(1, b.compare(0, a, 0, size));
+        assertEquals(9000, a.mismatch(0, b, 0, size));
+        assertEquals(8999, a.mismatch(1, b, 1, size - 1));
+        assertEquals(0, a.compare(0, b, 0, 9000));
+        a.putByte(13, (byte) 1);
+        assertEquals(1, a.compare(0, b, 0, size));
+        assertEquals(13, a.mismatch(0, b, 0, size));
+        assertEquals(0, a.compare(0, b, 0, 0));
+        assertEquals(-1, a.mismatch(0, b, 0, 0));
+        assertThatThrownBy(() -> a.compare(0, b, 1, size)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void testLongOffset() {
+        long size = 100;
+        Pointer memory = AllocatedMemory.allocate(size);
+        Pointer copy = AllocatedMemory.allocate(size);
+        memory.fill(10L, size - 10, (byte) 7);
+        assertEquals(10, memory.indexOf(0L, size, (byte) 7));
+        assertEquals(95, memory.indexOf(95L, 5L, new byte[]{7, 7}));
+        assertEquals(-1, memory.indexOf(0L, 11L, new byte[]{7, 7}));
+        memory.copyTo(0L, copy, 0L, size);
+        assertEquals(-1, memory.mismatch(0L, copy, 0L, size));
+        assertEquals(0, memory.compare(0L, copy, 0L, size));
+        copy.putByte(50L, (byte) 8);
+        assertEquals(50, memory.mismatch(0L, copy, 0L, size));
+        assertEquals(-1, memory.compare(0L, copy, 0L, size));
+        assertThatThrownBy(() -> memory.fill(1L, size, (byte) 0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> memory.copyTo(0L, copy, 1L, size)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> memory.indexOf(-1L, 2L, (byte) 0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void testIndexOf() {
+        byte[] bytes = "GET /index.html HTTP/1.1\r\nHost: x\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+        Pointer memory = AllocatedMemory.allocate(bytes.length);
+        memory.putBytes(0, bytes, 0, bytes.length);
+        byte[] crlf = {'\r', '\n'};
+        byte[] end = {'\r', '\n', '\r', '\n'};
+        assertEquals(3, memory.indexOf(0, bytes.length, (byte) ' '));
+        assertEquals(15, memory.indexOf(4, bytes.length - 4, (byte) ' '));
+        assertEquals(-1, memory.indexOf(0, 3, (byte) ' '));
+        assertEquals(24, memory.indexOf(0, bytes.length, crlf));
+        assertEquals(33, memory.indexOf(25, bytes.length - 25, crlf));
+        assertEquals(33, memory.indexOf(0, bytes.length, end));
+        assertEquals(-1, memory.indexOf(0, 36, end));
+        assertEquals(5, memory.indexOf(5, 0, new byte[0]));
+        assertEquals(-1, memory.indexOf(0, 1, crlf));
+        assertThatThrownBy(() -> memory.indexOf(1, bytes.length, crlf)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void testAsByteBuffer() {
+        Pointer memory = AllocatedMemory.allocate(16);
+        ByteBuffer buffer = memory.asByteBuffer(4, 8);
+        assertEquals(ByteOrder.nativeOrder(), buffer.order());
+        assertEquals(8, buffer.capacity());
+        buffer.putInt(0, 0x12345678);
+        assertEquals(0x12345678, memory.getInt(4));
+        memory.putLong(8, -1);
+        assertEquals(-1, buffer.getInt(4));
+        assertThatThrownBy(() -> memory.asByteBuffer(10, 8)).isInstanceOf(IndexOutOfBoundsException.class);
+
+        Pointer slice = memory.slice(8, 12);
+        assertEquals(4, slice.asByteBuffer(0, 4).capacity());
+    }
+
+    @Test
+    public void testWrap() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(16);
+        buffer.position(4);
+        Pointer memory = DefaultMemoryManager.INSTANCE.wrap(buffer);
+        assertEquals(16, memory.capacity());
+        memory.putInt(0, 0x01020304);
+        assertEquals(0x01020304, buffer.order(ByteOrder.nativeOrder()).getInt(0));
+        memory.putStringUTF(4, "abc");
+        assertEquals('c', buffer.get(6));
+        assertEquals(0x01020304, memory.asByteBuffer(0, 16).getInt(0));
+        assertThatThrownBy(() -> DefaultMemoryManager.INSTANCE.wrap(ByteBuffer.allocate(4)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DefaultMemoryManager.INSTANCE.wrap(buffer.asReadOnlyBuffer()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
 }
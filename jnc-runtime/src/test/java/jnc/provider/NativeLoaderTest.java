@@ -54,6 +54,23 @@ public class NativeLoaderTest {
                 .hasCause(cause);
     }
 
+    /**
+     * The optional native methods fall back silently if missing, they must
+     * exist in a library built from this source.
+     */
+    @Test
+    public void testOptionalMethods() {
+        NativeAccessor na = NativeLoader.getAccessor();
+        NativeSupport.assumeSupported(NativeLoader.isSupported(() -> na.invoke_J(0, null, 0)), "direct invoke");
+        NativeSupport.assumeSupported(NativeLoader.isSupported(() -> na.invokePacked(0, 0, new long[0], null, 0)), "invokePacked");
+        NativeSupport.assumeSupported(NativeLoader.isSupported(() -> na.invokeCritical(0, 0, new long[0], new Object[0], null, 0)), "invokeCritical");
+        NativeSupport.assumeSupported(NativeLoader.isSupported(na::getLastError), "getLastError");
+        NativeSupport.assumeSupported(NativeLoader.isSupported(() -> na.freeAlignedMemory(0)), "aligned memory");
+        NativeSupport.assumeSupported(NativeLoader.isSupported(() -> na.reallocateMemory(0, 0)), "reallocateMemory");
+        NativeSupport.assumeSupported(NativeLoader.isSupported(() -> na.setMemory(0, 0, (byte) 0)), "bulk memory");
+        NativeSupport.assumeSupported(NativeLoader.isSupported(() -> na.adviseFile(0, 0, 0)), "map file");
+    }
+
     @Test
     public void testCreateProxy2() {
         NativeAccessor nativeAccessor = instance.createProxy(new JniLoadingException(message));
@@ -91,6 +91,46 @@ public class NativeMethodsTest {
         assertEquals('A', result);
     }
 
+    @Test
+    public void testInvokePacked() throws Throwable {
+        NativeSupport.assumeSupported(CifContainer.isPacked(), "invokePacked not supported");
+        Library libm = NativeLibrary.open(DefaultPlatform.INSTANCE, LIBM, 0);
+        long ldexp = libm.dlsym("ldexp");
+        CifContainer container = CifContainer.create(CallingConvention.DEFAULT, TypeInfo.DOUBLE, TypeInfo.DOUBLE, TypeInfo.SINT32);
+        CallContext context = container.newCallContext();
+        context.putInt(0, 3);
+        context.putLong(1, -1);
+        assertEquals(1.5, Double.longBitsToDouble(context.invoke(ldexp)));
+
+        context = container.newCallContext();
+        context.putFloat(0, 1.5f);
+        context.putDouble(1, 3.9);
+        assertEquals(12.0, Double.longBitsToDouble(context.invoke(ldexp)));
+    }
+
+    @Test
+    public void testInvokeCritical() throws Throwable {
+        CifContainer container = CifContainer.create(CallingConvention.DEFAULT, false,
+                TypeInfo.POINTER, new InternalType[]{TypeInfo.POINTER, TypeInfo.POINTER, TypeInfo.POINTER});
+        CallContext context = container.newCallContext();
+        NativeSupport.assumeSupported(context.putCriticalArray(0, new int[0], 'I'), "invokeCritical not supported");
+        Library libc = NativeLibrary.open(DefaultPlatform.INSTANCE, LIBC, 0);
+        long memcpy = libc.dlsym("memcpy");
+        int[] dst = new int[3];
+        context.putCriticalArray(0, dst, 'I');
+        context.putCriticalArray(1, new int[]{1, 2, 3}, 'I');
+        context.putLong(2, 8);
+        assertThat(context.invoke(memcpy)).isNotZero();
+        assertArrayEquals(new int[]{1, 2, 0}, dst);
+
+        CallContext illegal = container.newCallContext();
+        illegal.putCriticalArray(0, dst, 'I');
+        illegal.putCriticalArray(1, dst, 'I');
+        illegal.putLong(2, 0);
+        illegal.putCriticalArray(2, dst, 'X');
+        assertThatThrownBy(() -> illegal.invoke(memcpy)).isInstanceOf(IllegalArgumentException.class);
+    }
+
     /**
      * Test of allocateMemory method, of class NativeMethods.
      */
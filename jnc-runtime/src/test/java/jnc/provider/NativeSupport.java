@@ -0,0 +1,37 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Optional native methods are skipped only if the library is built from an
+ * older source, they must be supported by a library built from this source.
+ *
+ * @author zhanhb
+ */
+public interface NativeSupport {
+
+    static void assumeSupported(boolean supported, String message) {
+        if (NativeLoader.isUpToDate()) {
+            assertThat(supported).as(message).isTrue();
+        } else {
+            assumeTrue(supported, message);
+        }
+    }
+
+}
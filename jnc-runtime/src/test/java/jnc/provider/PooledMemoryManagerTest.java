@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import jnc.foreign.Foreign;
+import jnc.foreign.MemoryManager;
+import jnc.foreign.Pointer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author zhanhb
+ */
+public class PooledMemoryManagerTest {
+
+    private final MemoryManager mm = PooledMemoryManager.INSTANCE;
+
+    @Test
+    public void testDefault() {
+        assertThat(Foreign.getDefault().getPooledMemoryManager()).isSameAs(mm);
+    }
+
+    @Test
+    public void testSizeClass() {
+        assertThat(MemoryPool.sizeClass(0)).isEqualTo(0);
+        assertThat(MemoryPool.sizeClass(16)).isEqualTo(0);
+        assertThat(MemoryPool.sizeClass(17)).isEqualTo(1);
+        assertThat(MemoryPool.sizeClass(32)).isEqualTo(1);
+        assertThat(MemoryPool.sizeClass(MemoryPool.MAX_BLOCK)).isEqualTo(8);
+        assertThat(MemoryPool.sizeClass(MemoryPool.MAX_BLOCK + 1)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testRecycle() throws Exception {
+        Pointer pointer = mm.allocate(10);
+        assertThat(pointer.capacity()).isEqualTo(10);
+        assertThat(pointer.getLong(0)).isZero();
+        pointer.putLong(0, -1);
+        long address = pointer.address();
+        Pointer slice = pointer.slice(0, 8);
+        ((AutoCloseable) pointer).close();
+        ((AutoCloseable) pointer).close();
+        assertThatThrownBy(() -> pointer.getLong(0)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> pointer.putLong(0, 0)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(slice::address).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> slice.putByte(0, (byte) 0)).isInstanceOf(IllegalStateException.class);
+
+        Pointer another = mm.allocate(12);
+        assertThat(another.address()).isEqualTo(address);
+        assertThat(another.getLong(0)).isZero();
+        assertThatThrownBy(() -> another.getInt(12)).isInstanceOf(IndexOutOfBoundsException.class);
+        ((AutoCloseable) another).close();
+    }
+
+    @Test
+    public void testLease() throws Exception {
+        Cleaner cleaner = Cleaner.getInstance();
+        List<Pointer> pointers = new ArrayList<>();
+        long pending = cleaner.getPendingCount();
+        for (int i = 0; i < MemoryPool.LEASE_SIZE; ++i) {
+            pointers.add(mm.allocate(8));
+        }
+        // registered once for each lease, not for each allocation
+        assertThat(cleaner.getPendingCount() - pending).isLessThanOrEqualTo(1);
+        for (Pointer pointer : pointers) {
+            ((AutoCloseable) pointer).close();
+        }
+        assertThatThrownBy(() -> mm.reallocate(pointers.get(0), 16)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testLeaseBytes() throws Exception {
+        int perLease = MemoryPool.LEASE_BYTES / MemoryPool.MAX_BLOCK;
+        List<PooledMemory> pointers = new ArrayList<>();
+        for (int i = 0; i < perLease * 3; ++i) {
+            pointers.add((PooledMemory) mm.allocate(MemoryPool.MAX_BLOCK));
+        }
+        Map<MemoryPool.Lease, Integer> counts = new IdentityHashMap<>();
+        for (PooledMemory pointer : pointers) {
+            counts.merge(pointer.getLease(), 1, Integer::sum);
+        }
+        // a reachable pointer keeps at most LEASE_BYTES of its lease
+        assertThat(counts.values()).allMatch(count -> count <= perLease);
+
+        PooledMemory large = (PooledMemory) mm.allocate(MemoryPool.LEASE_BYTES * 4L);
+        PooledMemory small = (PooledMemory) mm.allocate(8);
+        assertThat(small.getLease()).isNotSameAs(large.getLease());
+        assertThat(pointers.get(pointers.size() - 1).getLease()).isNotSameAs(large.getLease());
+        pointers.add(large);
+        pointers.add(small);
+        for (Pointer pointer : pointers) {
+            ((AutoCloseable) pointer).close();
+        }
+    }
+
+    @Test
+    public void testLarge() throws Exception {
+        Pointer pointer = mm.allocate(MemoryPool.MAX_BLOCK + 1);
+        assertThat(pointer.capacity()).isEqualTo(MemoryPool.MAX_BLOCK + 1);
+        assertThat(pointer.getLong(MemoryPool.MAX_BLOCK - 7)).isZero();
+        ((AutoCloseable) pointer).close();
+        assertThatThrownBy(() -> mm.allocate(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testString() {
+        Pointer pointer = mm.allocateString("abc", StandardCharsets.UTF_8);
+        assertThat(pointer.capacity()).isEqualTo(4);
+        assertThat(pointer.getString(0, StandardCharsets.UTF_8)).isEqualTo("abc");
+    }
+
+    @Test
+    public void testReleaseSlab() throws Exception {
+        int blocks = MemoryPool.SLAB_SIZE / MemoryPool.MAX_BLOCK;
+        MemoryPool.SizeClass sizeClass = MemoryPool.getSizeClass(MemoryPool.sizeClass(MemoryPool.MAX_BLOCK));
+        List<Pointer> pointers = new ArrayList<>();
+        for (int i = 0; i < blocks * 4; ++i) {
+            pointers.add(mm.allocate(MemoryPool.MAX_BLOCK));
+        }
+        int slabs = sizeClass.slabs();
+        assertThat(slabs).isGreaterThanOrEqualTo(4);
+        for (Pointer pointer : pointers) {
+            ((AutoCloseable) pointer).close();
+        }
+        // at most CACHE_SIZE blocks are cached by the stripe of this thread
+        assertThat(sizeClass.slabs()).isLessThan(slabs);
+    }
+
+    @Test
+    public void testReallocate() throws Exception {
+        Pointer pointer = mm.allocateUninitialized(8);
+        pointer.putLong(0, 5);
+        Pointer grown = mm.reallocate(pointer, MemoryPool.MAX_BLOCK * 2);
+        assertThat(grown.getLong(0)).isEqualTo(5);
+        assertThat(grown.capacity()).isEqualTo(MemoryPool.MAX_BLOCK * 2);
+        assertThatThrownBy(() -> mm.reallocate(pointer, 16)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> mm.reallocate(DefaultMemoryManager.INSTANCE.allocate(8), 16))
+                .isInstanceOf(IllegalArgumentException.class);
+        ((AutoCloseable) grown).close();
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import jnc.foreign.LibraryLoader;
+import jnc.foreign.Platform;
+import jnc.foreign.annotation.Critical;
+import jnc.foreign.annotation.In;
+import jnc.foreign.annotation.Out;
+import jnc.foreign.typedef.size_t;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author zhanhb
+ */
+public class PrimitiveArrayHandlerTest {
+
+    @Test
+    public void testInOut() {
+        byte[] array = {1, 2, 3, 4};
+        Libc.INSTANCE.memset(array, 9, 2);
+        assertThat(array).containsExactly(9, 9, 3, 4);
+
+        array = new byte[]{1, 2, 3, 4};
+        Libc.INSTANCE.memsetIn(array, 9, 2);
+        assertThat(array).containsExactly(1, 2, 3, 4);
+
+        int[] src = {5, 6, 7};
+        int[] dst = new int[3];
+        Libc.INSTANCE.memcpy(dst, src, 12);
+        assertThat(dst).containsExactly(5, 6, 7);
+        assertThat(src).containsExactly(5, 6, 7);
+    }
+
+    @Test
+    public void testBooleanArray() {
+        boolean[] dst = new boolean[4];
+        Libc.INSTANCE.memcpy(dst, new byte[]{1, 0, 2, 0}, 4);
+        assertThat(dst).containsExactly(true, false, true, false);
+
+        byte[] bytes = new byte[3];
+        Libc.INSTANCE.memcpy(bytes, new boolean[]{false, true, true}, 3);
+        assertThat(bytes).containsExactly(0, 1, 1);
+    }
+
+    @Test
+    public void testCritical() {
+        double[] src = {1.5, 2.5, 3.5};
+        double[] dst = new double[3];
+        Libc.INSTANCE.memcpy(dst, src, 24);
+        assertThat(dst).containsExactly(1.5, 2.5, 3.5);
+
+        byte[] a = {1, 2, 3};
+        assertThat(Libc.INSTANCE.memcmp(a, new byte[]{1, 2, 3}, 3)).isZero();
+        assertThat(Libc.INSTANCE.memcmp(a, new byte[]{1, 2, 4}, 3)).isNegative();
+        assertThat(Libc.INSTANCE.memcmp(a, null, 0)).isZero();
+        assertThat(Libc.INSTANCE.memcmp(new byte[0], new byte[0], 0)).isZero();
+    }
+
+    private interface Libc {
+
+        Libc INSTANCE = LibraryLoader.create(Libc.class).load(Platform.getNativePlatform().getLibcName());
+
+        void memset(byte[] dst, int ch, @size_t long n);
+
+        @Entry("memset")
+        void memsetIn(@In byte[] dst, int ch, @size_t long n);
+
+        void memcpy(@Out int[] dst, @In int[] src, @size_t long n);
+
+        void memcpy(@Out boolean[] dst, @In byte[] src, @size_t long n);
+
+        void memcpy(@Out byte[] dst, @In boolean[] src, @size_t long n);
+
+        void memcpy(@Critical double[] dst, @Critical double[] src, @size_t long n);
+
+        int memcmp(@Critical byte[] a, @Critical byte[] b, @size_t long n);
+
+    }
+
+}
@@ -66,4 +66,32 @@ public class SizedDirectMemoryTest {
         assertThat(slice.slice(1, 6).getStringUTF(offset)).isEqualTo("     ");
     }
 
+    @Test
+    public void testLongOffset() {
+        log.info("long offset");
+        Pointer instance = AllocatedMemory.allocate(16);
+        instance.putLong(8L, 0x0102030405060708L);
+        assertEquals(0x0102030405060708L, instance.getLong(8));
+        assertEquals(0x0102030405060708L, instance.getLong(8L));
+        instance.putChar(0L, 'a');
+        assertEquals('a', instance.getChar(0L));
+        instance.putDouble(0L, 1.5);
+        assertEquals(1.5, instance.getDouble(0L));
+        assertThatThrownBy(() -> instance.getLong(9L))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> instance.getByte(-1L))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> instance.putByte(Long.MAX_VALUE, (byte) 0))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> instance.getByte(1L << 32))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+
+        Pointer slice = instance.slice(8L, 16L);
+        assertThat(slice.capacity()).isEqualTo(8);
+        assertEquals(0x0102030405060708L, slice.getLong(0L));
+        assertThat(slice.slice(4L, 8L).address()).isEqualTo(instance.address() + 12);
+        assertThatThrownBy(() -> instance.slice(8L, 17L))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 zhanhb.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jnc.provider;
+
+import jnc.foreign.NativeType;
+import jnc.foreign.Pointer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compare the conversions with the native implementation.
+ *
+ * @author zhanhb
+ */
+public class TypeAccessorTest {
+
+    private static final NativeAccessor NA = NativeLoader.getAccessor();
+    private static final long[] LONGS = {
+        0, 1, -1, 0x7F, 0x80, 0xFF, 0x100, 0x7FFF, 0x8000, 0xFFFF, 0x10000,
+        Integer.MAX_VALUE, Integer.MIN_VALUE, 0xFFFFFFFFL, 1L << 32, 1L << 40,
+        -(1L << 40), Long.MAX_VALUE, Long.MIN_VALUE, 0x0123456789ABCDEFL, 0xFEDCBA9876543210L
+    };
+    // conversion of values out of range of the target type is undefined in c
+    private static final double[] UNSIGNED = {0, 0.5, 1.5, 100.75, 127};
+    private static final double[] SIGNED = {-0.0, -1.5, -100.25, -128};
+    private static final double[] WIDE = {1e9, 1.5e18, 4e9};
+    private static final double[] HUGE = {1e19, 1.5e19};
+    private static final double[] SPECIAL = {Double.NaN, Double.POSITIVE_INFINITY, -1e300, 1e-45, 3.4e38};
+
+    private final Pointer a = AllocatedMemory.allocate(8);
+    private final Pointer b = AllocatedMemory.allocate(8);
+
+    private void reset() {
+        a.putLong(0, 0);
+        b.putLong(0, 0);
+    }
+
+    private void assertSame(InternalType type, Object value) {
+        assertEquals(a.getLong(0), b.getLong(0), () -> type + " " + value);
+    }
+
+    private void assertGetters(InternalType type, Object value) {
+        TypeAccessor accessor = type.typeAccessor();
+        long address = a.address();
+        long t = type.address();
+        String message = type + " " + value;
+        assertEquals(NA.getBoolean(address, t), accessor.getBoolean(address), message);
+        assertEquals(NA.getInt(address, t), accessor.getInt(address), message);
+        assertEquals(NA.getLong(address, t), accessor.getLong(address), message);
+        assertEquals(NA.getFloat(address, t), accessor.getFloat(address), message);
+        assertEquals(NA.getDouble(address, t), accessor.getDouble(address), message);
+    }
+
+    private void testFloatingPoint(InternalType type, double[] values) {
+        TypeAccessor accessor = type.typeAccessor();
+        for (double value : values) {
+            reset();
+            NA.putDouble(a.address(), type.address(), value);
+            accessor.putDouble(b.address(), value);
+            assertSame(type, value);
+            reset();
+            NA.putFloat(a.address(), type.address(), (float) value);
+            accessor.putFloat(b.address(), (float) value);
+            assertSame(type, value);
+        }
+    }
+
+    @Test
+    public void testPut() {
+        for (NativeType nativeType : NativeType.values()) {
+            InternalType type = TypeInfo.typeFactory.findByNativeType(nativeType);
+            TypeAccessor accessor = type.typeAccessor();
+            for (long value : LONGS) {
+                reset();
+                NA.putLong(a.address(), type.address(), value);
+                accessor.putLong(b.address(), value);
+                assertSame(type, value);
+                reset();
+                NA.putInt(a.address(), type.address(), (int) value);
+                accessor.putInt(b.address(), (int) value);
+                assertSame(type, value);
+            }
+            testFloatingPoint(type, UNSIGNED);
+            if (type.isSigned()) {
+                testFloatingPoint(type, SIGNED);
+            }
+            if (type.size() == 8) {
+                testFloatingPoint(type, WIDE);
+                if (nativeType == NativeType.UINT64) {
+                    testFloatingPoint(type, HUGE);
+                }
+            }
+            if (type.isFloatingPoint()) {
+                testFloatingPoint(type, SPECIAL);
+            }
+        }
+    }
+
+    @Test
+    public void testGet() {
+        for (NativeType nativeType : NativeType.values()) {
+            InternalType type = TypeInfo.typeFactory.findByNativeType(nativeType);
+            if (type.isFloatingPoint()) {
+                continue;
+            }
+            for (long value : LONGS) {
+                a.putLong(0, value);
+                assertGetters(type, value);
+            }
+        }
+        for (InternalType type : new InternalType[]{TypeInfo.FLOAT, TypeInfo.DOUBLE}) {
+            for (double[] values : new double[][]{UNSIGNED, SIGNED, WIDE}) {
+                for (double value : values) {
+                    reset();
+                    type.typeAccessor().putDouble(a.address(), value);
+                    if (Math.abs(value) < Integer.MAX_VALUE) {
+                        assertGetters(type, value);
+                    } else {
+                        assertEquals(NA.getLong(a.address(), type.address()),
+                                type.typeAccessor().getLong(a.address()));
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -36,4 +36,5 @@ interface TypeInfo {
     InternalType FLOAT = typeFactory.findByNativeType(NativeType.FLOAT);
     InternalType DOUBLE = typeFactory.findByNativeType(NativeType.DOUBLE);
     InternalType POINTER = typeFactory.findByNativeType(NativeType.POINTER);
+    InternalType VOID = typeFactory.findByNativeType(NativeType.VOID);
 }
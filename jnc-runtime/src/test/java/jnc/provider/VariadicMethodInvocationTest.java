@@ -16,6 +16,7 @@
 package jnc.provider;
 
 import jnc.foreign.LibraryLoader;
+import jnc.foreign.LoadOptions;
 import jnc.foreign.Platform;
 import jnc.foreign.Pointer;
 import jnc.foreign.typedef.size_t;
@@ -24,6 +25,7 @@ import jnc.foreign.typedef.uint8_t;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -112,6 +114,40 @@ public class VariadicMethodInvocationTest {
         }
     }
 
+    @Test
+    public void testShapeCache() throws Throwable {
+        Library libc = NativeLibrary.open(DefaultPlatform.INSTANCE, Platform.getNativePlatform().getLibcName(), 0);
+        VariadicMethodInvocation invocation = (VariadicMethodInvocation) new InvocationLibrary<>(
+                Libc.class, libc, LoadOptions.empty().build(),
+                DefaultForeign.INSTANCE.getTypeFactory(), DefaultForeign.INSTANCE.getTypeHandlerFactory())
+                .find(Libc.class.getMethod("sprintf", byte[].class, byte[].class, Object[].class));
+        byte[] bytes = new byte[40];
+        byte[] format = "%d %.1f\u0000".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 3; ++i) {
+            Object n = invocation.invoke(null, new Object[]{bytes, format, new Object[]{i, 0.5}});
+            assertThat(new String(bytes, 0, (Integer) n)).isEqualTo(i + " 0.5");
+            n = invocation.invoke(null, new Object[]{bytes, format, new Object[]{uint8_t.class, i, 0.5f}});
+            assertThat(new String(bytes, 0, (Integer) n)).isEqualTo(i + " 0.5");
+        }
+        assertThat(invocation.cachedShapes()).isEqualTo(2);
+
+        // the cache is bounded
+        format = "%d\u0000".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < VariadicMethodInvocation.MAX_CACHED_SHAPES * 2; ++i) {
+            Object[] args = new Object[i + 1];
+            Arrays.fill(args, 7);
+            Object n = invocation.invoke(null, new Object[]{bytes, format, args});
+            assertThat(new String(bytes, 0, (Integer) n)).isEqualTo("7");
+        }
+        assertThat(invocation.cachedShapes()).isEqualTo(VariadicMethodInvocation.MAX_CACHED_SHAPES);
+        // the least recently used shapes are evicted, the recent ones are cached
+        assertThat(invocation.isCached(Integer.class, Double.class)).isFalse();
+        assertThat(invocation.isCached(Integer.class)).isFalse();
+        Object[] last = new Object[VariadicMethodInvocation.MAX_CACHED_SHAPES * 2];
+        Arrays.fill(last, Integer.class);
+        assertThat(invocation.isCached(last)).isTrue();
+    }
+
     private interface Libc {
 
         Libc INSTANCE = LibraryLoader.create(Libc.class).load(Platform.getNativePlatform().getLibcName());
@@ -0,0 +1,71 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+/* Header for class jnc_provider_NativeAccessor */
+
+#ifndef _Included_jnc_provider_NativeAccessor
+#define _Included_jnc_provider_NativeAccessor
+#ifdef __cplusplus
+extern "C" {
+#endif
+#undef jnc_provider_NativeAccessor_TYPE_VOID
+#define jnc_provider_NativeAccessor_TYPE_VOID 0L
+#undef jnc_provider_NativeAccessor_TYPE_FLOAT
+#define jnc_provider_NativeAccessor_TYPE_FLOAT 2L
+#undef jnc_provider_NativeAccessor_TYPE_DOUBLE
+#define jnc_provider_NativeAccessor_TYPE_DOUBLE 3L
+#undef jnc_provider_NativeAccessor_TYPE_UINT8
+#define jnc_provider_NativeAccessor_TYPE_UINT8 5L
+#undef jnc_provider_NativeAccessor_TYPE_SINT8
+#define jnc_provider_NativeAccessor_TYPE_SINT8 6L
+#undef jnc_provider_NativeAccessor_TYPE_UINT16
+#define jnc_provider_NativeAccessor_TYPE_UINT16 7L
+#undef jnc_provider_NativeAccessor_TYPE_SINT16
+#define jnc_provider_NativeAccessor_TYPE_SINT16 8L
+#undef jnc_provider_NativeAccessor_TYPE_UINT32
+#define jnc_provider_NativeAccessor_TYPE_UINT32 9L
+#undef jnc_provider_NativeAccessor_TYPE_SINT32
+#define jnc_provider_NativeAccessor_TYPE_SINT32 10L
+#undef jnc_provider_NativeAccessor_TYPE_UINT64
+#define jnc_provider_NativeAccessor_TYPE_UINT64 11L
+#undef jnc_provider_NativeAccessor_TYPE_SINT64
+#define jnc_provider_NativeAccessor_TYPE_SINT64 12L
+#undef jnc_provider_NativeAccessor_TYPE_STRUCT
+#define jnc_provider_NativeAccessor_TYPE_STRUCT 13L
+#undef jnc_provider_NativeAccessor_TYPE_POINTER
+#define jnc_provider_NativeAccessor_TYPE_POINTER 14L
+#undef jnc_provider_NativeAccessor_RTLD_LAZY
+#define jnc_provider_NativeAccessor_RTLD_LAZY 1L
+#undef jnc_provider_NativeAccessor_RTLD_NOW
+#define jnc_provider_NativeAccessor_RTLD_NOW 2L
+#undef jnc_provider_NativeAccessor_RTLD_LOCAL
+#define jnc_provider_NativeAccessor_RTLD_LOCAL 4L
+#undef jnc_provider_NativeAccessor_RTLD_GLOBAL
+#define jnc_provider_NativeAccessor_RTLD_GLOBAL 8L
+#undef jnc_provider_NativeAccessor_CONVENTION_DEFAULT
+#define jnc_provider_NativeAccessor_CONVENTION_DEFAULT 0L
+#undef jnc_provider_NativeAccessor_CONVENTION_STDCALL
+#define jnc_provider_NativeAccessor_CONVENTION_STDCALL 1L
+#undef jnc_provider_NativeAccessor_LAST_ERROR_THREAD_LOCAL
+#define jnc_provider_NativeAccessor_LAST_ERROR_THREAD_LOCAL -1LL
+#undef jnc_provider_NativeAccessor_API_VERSION
+#define jnc_provider_NativeAccessor_API_VERSION 1L
+#undef jnc_provider_NativeAccessor_MAP_READ_ONLY
+#define jnc_provider_NativeAccessor_MAP_READ_ONLY 0L
+#undef jnc_provider_NativeAccessor_MAP_READ_WRITE
+#define jnc_provider_NativeAccessor_MAP_READ_WRITE 1L
+#undef jnc_provider_NativeAccessor_MAP_PRIVATE
+#define jnc_provider_NativeAccessor_MAP_PRIVATE 2L
+#undef jnc_provider_NativeAccessor_ADVICE_NORMAL
+#define jnc_provider_NativeAccessor_ADVICE_NORMAL 0L
+#undef jnc_provider_NativeAccessor_ADVICE_SEQUENTIAL
+#define jnc_provider_NativeAccessor_ADVICE_SEQUENTIAL 1L
+#undef jnc_provider_NativeAccessor_ADVICE_RANDOM
+#define jnc_provider_NativeAccessor_ADVICE_RANDOM 2L
+#undef jnc_provider_NativeAccessor_ADVICE_WILL_NEED
+#define jnc_provider_NativeAccessor_ADVICE_WILL_NEED 3L
+#undef jnc_provider_NativeAccessor_ADVICE_DONT_NEED
+#define jnc_provider_NativeAccessor_ADVICE_DONT_NEED 4L
+#ifdef __cplusplus
+}
+#endif
+#endif
@@ -0,0 +1,773 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+/* Header for class jnc_provider_NativeMethods */
+
+#ifndef _Included_jnc_provider_NativeMethods
+#define _Included_jnc_provider_NativeMethods
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getTypes
+ * Signature: ()[[J
+ */
+JNIEXPORT jobjectArray JNICALL Java_jnc_provider_NativeMethods_getTypes
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    dlopen
+ * Signature: (Ljava/lang/String;I)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_dlopen
+  (JNIEnv *, jobject, jstring, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    dlsym
+ * Signature: (JLjava/lang/String;)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_dlsym
+  (JNIEnv *, jobject, jlong, jstring);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    dlclose
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_dlclose
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getRawByte
+ * Signature: (J)B
+ */
+JNIEXPORT jbyte JNICALL Java_jnc_provider_NativeMethods_getRawByte
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putRawByte
+ * Signature: (JB)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putRawByte
+  (JNIEnv *, jobject, jlong, jbyte);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getRawShort
+ * Signature: (J)S
+ */
+JNIEXPORT jshort JNICALL Java_jnc_provider_NativeMethods_getRawShort
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putRawShort
+ * Signature: (JS)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putRawShort
+  (JNIEnv *, jobject, jlong, jshort);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getRawInt
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_jnc_provider_NativeMethods_getRawInt
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putRawInt
+ * Signature: (JI)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putRawInt
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getRawLong
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_getRawLong
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putRawLong
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putRawLong
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getRawFloat
+ * Signature: (J)F
+ */
+JNIEXPORT jfloat JNICALL Java_jnc_provider_NativeMethods_getRawFloat
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putRawFloat
+ * Signature: (JF)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putRawFloat
+  (JNIEnv *, jobject, jlong, jfloat);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getRawDouble
+ * Signature: (J)D
+ */
+JNIEXPORT jdouble JNICALL Java_jnc_provider_NativeMethods_getRawDouble
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putRawDouble
+ * Signature: (JD)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putRawDouble
+  (JNIEnv *, jobject, jlong, jdouble);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putInt
+ * Signature: (JJI)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putInt
+  (JNIEnv *, jobject, jlong, jlong, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putLong
+ * Signature: (JJJ)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putLong
+  (JNIEnv *, jobject, jlong, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putFloat
+ * Signature: (JJF)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putFloat
+  (JNIEnv *, jobject, jlong, jlong, jfloat);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putDouble
+ * Signature: (JJD)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putDouble
+  (JNIEnv *, jobject, jlong, jlong, jdouble);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getBoolean
+ * Signature: (JJ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_jnc_provider_NativeMethods_getBoolean
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getInt
+ * Signature: (JJ)I
+ */
+JNIEXPORT jint JNICALL Java_jnc_provider_NativeMethods_getInt
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getLong
+ * Signature: (JJ)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_getLong
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getFloat
+ * Signature: (JJ)F
+ */
+JNIEXPORT jfloat JNICALL Java_jnc_provider_NativeMethods_getFloat
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getDouble
+ * Signature: (JJ)D
+ */
+JNIEXPORT jdouble JNICALL Java_jnc_provider_NativeMethods_getDouble
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putStringUTF
+ * Signature: (JLjava/lang/String;)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putStringUTF
+  (JNIEnv *, jobject, jlong, jstring);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getStringUTF
+ * Signature: (JJ)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_jnc_provider_NativeMethods_getStringUTF
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putStringChar16
+ * Signature: (JLjava/lang/String;)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putStringChar16
+  (JNIEnv *, jobject, jlong, jstring);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getStringChar16
+ * Signature: (JJ)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_jnc_provider_NativeMethods_getStringChar16
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getStringUTFLength
+ * Signature: (Ljava/lang/String;)I
+ */
+JNIEXPORT jint JNICALL Java_jnc_provider_NativeMethods_getStringUTFLength
+  (JNIEnv *, jobject, jstring);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getStringLength
+ * Signature: (JJI)I
+ */
+JNIEXPORT jint JNICALL Java_jnc_provider_NativeMethods_getStringLength
+  (JNIEnv *, jobject, jlong, jlong, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putAddress
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putAddress
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getAddress
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_getAddress
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getBytes
+ * Signature: (J[BII)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_getBytes
+  (JNIEnv *, jobject, jlong, jbyteArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putBytes
+ * Signature: (J[BII)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putBytes
+  (JNIEnv *, jobject, jlong, jbyteArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getShortArray
+ * Signature: (J[SII)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_getShortArray
+  (JNIEnv *, jobject, jlong, jshortArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putShortArray
+ * Signature: (J[SII)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putShortArray
+  (JNIEnv *, jobject, jlong, jshortArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getCharArray
+ * Signature: (J[CII)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_getCharArray
+  (JNIEnv *, jobject, jlong, jcharArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putCharArray
+ * Signature: (J[CII)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putCharArray
+  (JNIEnv *, jobject, jlong, jcharArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getIntArray
+ * Signature: (J[III)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_getIntArray
+  (JNIEnv *, jobject, jlong, jintArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putIntArray
+ * Signature: (J[III)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putIntArray
+  (JNIEnv *, jobject, jlong, jintArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getLongArray
+ * Signature: (J[JII)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_getLongArray
+  (JNIEnv *, jobject, jlong, jlongArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putLongArray
+ * Signature: (J[JII)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putLongArray
+  (JNIEnv *, jobject, jlong, jlongArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getFloatArray
+ * Signature: (J[FII)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_getFloatArray
+  (JNIEnv *, jobject, jlong, jfloatArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putFloatArray
+ * Signature: (J[FII)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putFloatArray
+  (JNIEnv *, jobject, jlong, jfloatArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getDoubleArray
+ * Signature: (J[DII)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_getDoubleArray
+  (JNIEnv *, jobject, jlong, jdoubleArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    putDoubleArray
+ * Signature: (J[DII)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_putDoubleArray
+  (JNIEnv *, jobject, jlong, jdoubleArray, jint, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    initAlias
+ * Signature: (Ljava/util/Map;)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_initAlias
+  (JNIEnv *, jobject, jobject);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    allocateMemory
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_allocateMemory
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    copyMemory
+ * Signature: (JJJ)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_copyMemory
+  (JNIEnv *, jobject, jlong, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    moveMemory
+ * Signature: (JJJ)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_moveMemory
+  (JNIEnv *, jobject, jlong, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    setMemory
+ * Signature: (JJB)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_setMemory
+  (JNIEnv *, jobject, jlong, jlong, jbyte);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    compareMemory
+ * Signature: (JJJ)I
+ */
+JNIEXPORT jint JNICALL Java_jnc_provider_NativeMethods_compareMemory
+  (JNIEnv *, jobject, jlong, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    mismatchMemory
+ * Signature: (JJJ)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_mismatchMemory
+  (JNIEnv *, jobject, jlong, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    indexOfByte
+ * Signature: (JJB)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_indexOfByte
+  (JNIEnv *, jobject, jlong, jlong, jbyte);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    indexOfBytes
+ * Signature: (JJ[B)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_indexOfBytes
+  (JNIEnv *, jobject, jlong, jlong, jbyteArray);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    freeMemory
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_freeMemory
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    allocateUninitializedMemory
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_allocateUninitializedMemory
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    reallocateMemory
+ * Signature: (JJ)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_reallocateMemory
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    allocateAlignedMemory
+ * Signature: (JJ)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_allocateAlignedMemory
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    freeAlignedMemory
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_freeAlignedMemory
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getPageSize
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_jnc_provider_NativeMethods_getPageSize
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    mapFile
+ * Signature: (Ljava/lang/String;JJI)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_mapFile
+  (JNIEnv *, jobject, jstring, jlong, jlong, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    unmapFile
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_unmapFile
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    syncFile
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_syncFile
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    adviseFile
+ * Signature: (JJI)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_adviseFile
+  (JNIEnv *, jobject, jlong, jlong, jint);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getCifInfo
+ * Signature: ()J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_getCifInfo
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    prepareInvoke
+ * Signature: (JIIJJ)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_prepareInvoke
+  (JNIEnv *, jobject, jlong, jint, jint, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    prepareInvokeVariadic
+ * Signature: (JIIIJJ)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_prepareInvokeVariadic
+  (JNIEnv *, jobject, jlong, jint, jint, jint, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invoke
+ * Signature: (JJJ[ILjava/lang/Object;J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_invoke
+  (JNIEnv *, jobject, jlong, jlong, jlong, jintArray, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokePacked
+ * Signature: (JJ[JLjava/lang/Object;J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_invokePacked
+  (JNIEnv *, jobject, jlong, jlong, jlongArray, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeCritical
+ * Signature: (JJ[J[Ljava/lang/Object;Ljava/lang/Object;J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_invokeCritical
+  (JNIEnv *, jobject, jlong, jlong, jlongArray, jobjectArray, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invoke_J
+ * Signature: (JLjava/lang/Object;J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_invoke_1J
+  (JNIEnv *, jobject, jlong, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeJ_J
+ * Signature: (JJLjava/lang/Object;J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_invokeJ_1J
+  (JNIEnv *, jobject, jlong, jlong, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeJJ_J
+ * Signature: (JJJLjava/lang/Object;J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_invokeJJ_1J
+  (JNIEnv *, jobject, jlong, jlong, jlong, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeJJJ_J
+ * Signature: (JJJJLjava/lang/Object;J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_invokeJJJ_1J
+  (JNIEnv *, jobject, jlong, jlong, jlong, jlong, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeJJJJ_J
+ * Signature: (JJJJJLjava/lang/Object;J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_invokeJJJJ_1J
+  (JNIEnv *, jobject, jlong, jlong, jlong, jlong, jlong, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeJJJJJ_J
+ * Signature: (JJJJJJLjava/lang/Object;J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_invokeJJJJJ_1J
+  (JNIEnv *, jobject, jlong, jlong, jlong, jlong, jlong, jlong, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeJJJJJJ_J
+ * Signature: (JJJJJJJLjava/lang/Object;J)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_invokeJJJJJJ_1J
+  (JNIEnv *, jobject, jlong, jlong, jlong, jlong, jlong, jlong, jlong, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getLastError
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_jnc_provider_NativeMethods_getLastError
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getApiVersion
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_jnc_provider_NativeMethods_getApiVersion
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeStruct
+ * Signature: (JJJ[IJLjava/lang/Object;J)V
+ */
+JNIEXPORT void JNICALL Java_jnc_provider_NativeMethods_invokeStruct
+  (JNIEnv *, jobject, jlong, jlong, jlong, jintArray, jlong, jobject, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    defineClass
+ * Signature: (Ljava/lang/String;Ljava/lang/ClassLoader;[B)Ljava/lang/Class;
+ */
+JNIEXPORT jclass JNICALL Java_jnc_provider_NativeMethods_defineClass
+  (JNIEnv *, jobject, jstring, jobject, jbyteArray);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    findClass
+ * Signature: (Ljava/lang/String;)Ljava/lang/Class;
+ */
+JNIEXPORT jclass JNICALL Java_jnc_provider_NativeMethods_findClass
+  (JNIEnv *, jobject, jstring);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    fromReflectedMethod
+ * Signature: (Ljava/lang/reflect/Method;)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_fromReflectedMethod
+  (JNIEnv *, jobject, jobject);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    fromReflectedField
+ * Signature: (Ljava/lang/reflect/Field;)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_fromReflectedField
+  (JNIEnv *, jobject, jobject);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    toReflectedMethod
+ * Signature: (Ljava/lang/Class;JZ)Ljava/lang/reflect/Method;
+ */
+JNIEXPORT jobject JNICALL Java_jnc_provider_NativeMethods_toReflectedMethod
+  (JNIEnv *, jobject, jclass, jlong, jboolean);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    toReflectedField
+ * Signature: (Ljava/lang/Class;JZ)Ljava/lang/reflect/Field;
+ */
+JNIEXPORT jobject JNICALL Java_jnc_provider_NativeMethods_toReflectedField
+  (JNIEnv *, jobject, jclass, jlong, jboolean);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    allocateInstance
+ * Signature: (Ljava/lang/Class;)Ljava/lang/Object;
+ */
+JNIEXPORT jobject JNICALL Java_jnc_provider_NativeMethods_allocateInstance
+  (JNIEnv *, jobject, jclass);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getMethodId
+ * Signature: (Ljava/lang/Class;Ljava/lang/String;Ljava/lang/String;)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_getMethodId
+  (JNIEnv *, jobject, jclass, jstring, jstring);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getFieldId
+ * Signature: (Ljava/lang/Class;Ljava/lang/String;Ljava/lang/String;)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_getFieldId
+  (JNIEnv *, jobject, jclass, jstring, jstring);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getStaticMethodId
+ * Signature: (Ljava/lang/Class;Ljava/lang/String;Ljava/lang/String;)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_getStaticMethodId
+  (JNIEnv *, jobject, jclass, jstring, jstring);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getStaticFieldId
+ * Signature: (Ljava/lang/Class;Ljava/lang/String;Ljava/lang/String;)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_getStaticFieldId
+  (JNIEnv *, jobject, jclass, jstring, jstring);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    newDirectByteBuffer
+ * Signature: (JJ)Ljava/nio/ByteBuffer;
+ */
+JNIEXPORT jobject JNICALL Java_jnc_provider_NativeMethods_newDirectByteBuffer
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getDirectBufferAddress
+ * Signature: (Ljava/nio/ByteBuffer;)J
+ */
+JNIEXPORT jlong JNICALL Java_jnc_provider_NativeMethods_getDirectBufferAddress
+  (JNIEnv *, jobject, jobject);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
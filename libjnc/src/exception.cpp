@@ -2,6 +2,7 @@
 
 const char *jnc_array_index_out_of_bounds = "java/lang/ArrayIndexOutOfBoundsException";
 const char *jnc_illegal_argument = "java/lang/IllegalArgumentException";
+const char *jnc_io_exception = "java/io/IOException";
 const char *jnc_null_pointer = "java/lang/NullPointerException";
 const char *jnc_out_of_memory = "java/lang/OutOfMemoryError";
 const char *jnc_unknown_error = "java/lang/UnknownError";
@@ -4,6 +4,7 @@
 
 #define ArrayIndexOutOfBounds   jnc_array_index_out_of_bounds
 #define IllegalArgument         jnc_illegal_argument
+#define IOException             jnc_io_exception
 #define NullPointer             jnc_null_pointer
 #define OutOfMemory             jnc_out_of_memory
 #define UnknownError            jnc_unknown_error
@@ -14,6 +15,7 @@ EXTERNC {
 #endif
 JNC_SYMBOL_HIDDEN extern const char *jnc_array_index_out_of_bounds;
 JNC_SYMBOL_HIDDEN extern const char *jnc_illegal_argument;
+JNC_SYMBOL_HIDDEN extern const char *jnc_io_exception;
 JNC_SYMBOL_HIDDEN extern const char *jnc_null_pointer;
 JNC_SYMBOL_HIDDEN extern const char *jnc_out_of_memory;
 JNC_SYMBOL_HIDDEN extern const char *jnc_unknown_error;
@@ -4,6 +4,7 @@
 #include <windows.h>
 #else
 #include <errno.h> // NOLINT(modernize-deprecated-headers)
+#include <pthread.h>
 #define GetLastError() errno
 #endif
 
@@ -20,9 +21,60 @@ Java_jnc_provider_NativeMethods_getCifInfo(JNIEnv *, jobject) {
     return (jlong)((uint64_t(uint32_t(align)) << 32) | uint32_t(size));
 }
 
+/*
+ * thread_local requires os x 10.7, keep the error in the thread specific
+ * storage instead. The key is created when the library is loaded.
+ */
+#ifdef _WIN32
+static const DWORD lastErrorKey = TlsAlloc();
+
+static int getSavedError() {
+    return int(intptr_t(TlsGetValue(lastErrorKey)));
+}
+
+static void setSavedError(int error) {
+    TlsSetValue(lastErrorKey, reinterpret_cast<LPVOID>(intptr_t(error)));
+}
+#else /* _WIN32 */
+static pthread_key_t createKey() {
+    pthread_key_t key;
+    pthread_key_create(&key, nullptr);
+    return key;
+}
+
+static const pthread_key_t lastErrorKey = createKey();
+
+static int getSavedError() {
+    return int(intptr_t(pthread_getspecific(lastErrorKey)));
+}
+
+static void setSavedError(int error) {
+    pthread_setspecific(lastErrorKey, reinterpret_cast<void *>(intptr_t(error)));
+}
+#endif /* _WIN32 */
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getLastError
+ * Signature: ()I
+ */
+EXTERNC JNIEXPORT jint JNICALL
+Java_jnc_provider_NativeMethods_getLastError(JNIEnv *, jobject) {
+    return getSavedError();
+}
+
+/*
+ * Save the error to the native thread local if methodId is
+ * LAST_ERROR_THREAD_LOCAL, otherwise call obj.accept(error) if neither of
+ * obj and methodId is null.
+ */
 static void saveLastError(JNIEnv *env, jobject obj, jlong methodId, int error) {
+    if (likely(methodId == jnc_provider_NativeAccessor_LAST_ERROR_THREAD_LOCAL)) {
+        setSavedError(error);
+        return;
+    }
     jmethodID method = j2p(methodId, jmethodID);
-    if (likely(obj != nullptr && method != nullptr)) {
+    if (obj != nullptr && method != nullptr) {
         jvalue v;
         v.i = error;
         env->CallVoidMethodA(obj, method, &v);
@@ -136,23 +188,8 @@ union result_t {
     jvalue jv;
 };
 
-/*
- * Class:     jnc_provider_NativeMethods
- * Method:    invoke
- * Signature: (JJJ[ILjava/lang/Object;J)J
- */
-EXTERNC JNIEXPORT jlong JNICALL
-Java_jnc_provider_NativeMethods_invoke(
-        JNIEnv *env, jobject, jlong lcif, jlong jfun,
-        jlong base, jintArray offsets, jobject obj,
-        jlong methodId) {
-    ffi_cif *pcif = j2c(lcif, ffi_cif);
-    void (*pfunction)(void) = FFI_FN(j2vp(jfun));
-    checkNullPointer(env, pcif, 0);
-    checkNullPointer(env, pfunction, 0);
-    auto rtypetype = pcif->rtype->type;
-    auto rtypesize = pcif->rtype->size;
-    switch (rtypetype) {
+static bool checkReturnType(JNIEnv *env, ffi_cif *pcif) {
+    switch (pcif->rtype->type) {
         case JNC_TYPE(VOID):
         case JNC_TYPE(FLOAT):
         case JNC_TYPE(DOUBLE):
@@ -165,11 +202,79 @@ Java_jnc_provider_NativeMethods_invoke(
         case JNC_TYPE(UINT64):
         case JNC_TYPE(SINT64):
         case JNC_TYPE(POINTER):
-            break;
+            return true;
         default:
             throwByName(env, IllegalArgument, nullptr);
-            return 0;
+            return false;
+    }
+}
+
+struct no_op {
+
+    void operator()() const {
+    }
+
+};
+
+/*
+ * afterCall is called right after the function returns and the last error
+ * is retrieved, before any jni call.
+ */
+template<class AfterCall = no_op>
+static jlong call(JNIEnv *env, ffi_cif *pcif, void (*pfunction)(void),
+        void **pavalues, jobject obj, jlong methodId,
+        AfterCall afterCall = AfterCall()) {
+    auto rtypetype = pcif->rtype->type;
+    auto rtypesize = pcif->rtype->size;
+    result_t result = {};
+    // typeof pcif->rtype->size is size_t, no need to check not less than 0
+    if (unlikely(rtypesize > sizeof (result))) {
+        afterCall();
+        throwByName(env, UnknownError, nullptr);
+        return 0;
+    }
+    void * retAddr = &result;
+    ffi_call(pcif, pfunction, retAddr, pavalues);
+    int error = GetLastError();
+    afterCall();
+    saveLastError(env, obj, methodId, error);
+    switch (rtypetype) {
+        case JNC_TYPE(VOID): return 0;
+        case JNC_TYPE(FLOAT): return converter<float>()(*reinterpret_cast<float*> (retAddr));
+        case JNC_TYPE(DOUBLE): return converter<double>()(*reinterpret_cast<double*> (retAddr));
+        case JNC_TYPE(UINT8): return converter<uint8_t>()(*reinterpret_cast<uint8_t*> (retAddr));
+        case JNC_TYPE(SINT8): return converter<int8_t>()(*reinterpret_cast<int8_t*> (retAddr));
+        case JNC_TYPE(UINT16): return converter<uint16_t>()(*reinterpret_cast<uint16_t*> (retAddr));
+        case JNC_TYPE(SINT16): return converter<int16_t>()(*reinterpret_cast<int16_t*> (retAddr));
+        case JNC_TYPE(UINT32): return converter<uint32_t>()(*reinterpret_cast<uint32_t*> (retAddr));
+        case JNC_TYPE(SINT32): return converter<int32_t>()(*reinterpret_cast<int32_t*> (retAddr));
+        case JNC_TYPE(UINT64): return converter<uint64_t>()(*reinterpret_cast<uint64_t*> (retAddr));
+        case JNC_TYPE(SINT64): return converter<int64_t>()(*reinterpret_cast<int64_t*> (retAddr));
+        case JNC_TYPE(POINTER): return p2j(*reinterpret_cast<void**> (retAddr));
+        default:
+            // fall through
+            // we have checked the values before
+            ;
     }
+    throwByName(env, UnknownError, nullptr);
+    return 0;
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invoke
+ * Signature: (JJJ[ILjava/lang/Object;J)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_invoke(
+        JNIEnv *env, jobject, jlong lcif, jlong jfun,
+        jlong base, jintArray offsets, jobject obj,
+        jlong methodId) {
+    ffi_cif *pcif = j2c(lcif, ffi_cif);
+    void (*pfunction)(void) = FFI_FN(j2vp(jfun));
+    checkNullPointer(env, pcif, 0);
+    checkNullPointer(env, pfunction, 0);
+    if (unlikely(!checkReturnType(env, pcif))) return 0;
     uint32_t cnt = base && offsets ?
             CALLJNI(env, GetArrayLength, offsets) : 0;
     void ** pavalues;
@@ -186,31 +291,310 @@ Java_jnc_provider_NativeMethods_invoke(
     } else {
         pavalues = nullptr;
     }
-    result_t result = {};
-    // typeof pcif->rtype->size is size_t, no need to check not less than 0
-    if (likely(rtypesize <= sizeof (result))) {
-        void * retAddr = &result;
-        ffi_call(pcif, pfunction, retAddr, pavalues);
-        saveLastError(env, obj, methodId, GetLastError());
-        switch (rtypetype) {
-            case JNC_TYPE(VOID): return 0;
-            case JNC_TYPE(FLOAT): return converter<float>()(*reinterpret_cast<float*> (retAddr));
-            case JNC_TYPE(DOUBLE): return converter<double>()(*reinterpret_cast<double*> (retAddr));
-            case JNC_TYPE(UINT8): return converter<uint8_t>()(*reinterpret_cast<uint8_t*> (retAddr));
-            case JNC_TYPE(SINT8): return converter<int8_t>()(*reinterpret_cast<int8_t*> (retAddr));
-            case JNC_TYPE(UINT16): return converter<uint16_t>()(*reinterpret_cast<uint16_t*> (retAddr));
-            case JNC_TYPE(SINT16): return converter<int16_t>()(*reinterpret_cast<int16_t*> (retAddr));
-            case JNC_TYPE(UINT32): return converter<uint32_t>()(*reinterpret_cast<uint32_t*> (retAddr));
-            case JNC_TYPE(SINT32): return converter<int32_t>()(*reinterpret_cast<int32_t*> (retAddr));
-            case JNC_TYPE(UINT64): return converter<uint64_t>()(*reinterpret_cast<uint64_t*> (retAddr));
-            case JNC_TYPE(SINT64): return converter<int64_t>()(*reinterpret_cast<int64_t*> (retAddr));
-            case JNC_TYPE(POINTER): return p2j(*reinterpret_cast<void**> (retAddr));
-            default:
-                // fall through
-                // we have checked the values before
-                ;
+    return call(env, pcif, pfunction, pavalues, obj, methodId);
+}
+
+/*
+ * Every argument takes a slot of the array, converted to the parameter type
+ * already, and stored in the low order bytes of the slot.
+ *
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokePacked
+ * Signature: (JJ[JLjava/lang/Object;J)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_invokePacked(
+        JNIEnv *env, jobject, jlong lcif, jlong jfun,
+        jlongArray values, jobject obj, jlong methodId) {
+    ffi_cif *pcif = j2c(lcif, ffi_cif);
+    void (*pfunction)(void) = FFI_FN(j2vp(jfun));
+    checkNullPointer(env, pcif, 0);
+    checkNullPointer(env, pfunction, 0);
+    if (unlikely(!checkReturnType(env, pcif))) return 0;
+    uint32_t cnt = pcif->nargs;
+    void ** pavalues;
+    if (likely(cnt != 0)) {
+        checkNullPointer(env, values, 0);
+        if (unlikely(uint32_t(CALLJNI(env, GetArrayLength, values)) < cnt)) {
+            throwByName(env, ArrayIndexOutOfBounds, nullptr);
+            return 0;
         }
+        static_assert(alignof (jlong) % alignof (void *) == 0,
+                "align of long is not multiple of align of pointer, will got unaligned access");
+        auto unit = sizeof (jlong) + sizeof (void *);
+        jlong* slots = static_cast<jlong*> (alloca(cnt * unit));
+        pavalues = (void**) (void*) &slots[cnt];
+        CALLJNI(env, GetLongArrayRegion, values, 0, cnt, slots);
+        ffi_type ** atypes = pcif->arg_types;
+        for (uint32_t i = 0; i != cnt; ++i) {
+#if defined(__BYTE_ORDER__) && __BYTE_ORDER__ == __ORDER_BIG_ENDIAN__
+            pavalues[i] = reinterpret_cast<char*> (&slots[i]) + sizeof (jlong) - atypes[i]->size;
+#else
+            (void) atypes;
+            pavalues[i] = &slots[i];
+#endif
+        }
+    } else {
+        pavalues = nullptr;
     }
-    throwByName(env, UnknownError, nullptr);
-    return 0;
+    return call(env, pcif, pfunction, pavalues, obj, methodId);
+}
+
+/*
+ * A primitive array argument of invokeCritical.
+ */
+struct critical_array {
+    jarray array;
+    // signature of the component type, such as 'B' for byte[]
+    jlong signature;
+    jlong *slot;
+    void *elements;
+    // elements is a malloc'd copy of the array
+    bool copied;
+};
+
+static size_t componentSize(jlong signature) {
+    switch (signature) {
+        case 'Z': case 'B': return 1;
+        case 'C': case 'S': return 2;
+        case 'I': case 'F': return 4;
+        case 'J': case 'D': return 8;
+        default: return 0;
+    }
+}
+
+static void getArrayRegion(JNIEnv *env, const critical_array &a, jsize len) {
+    switch (a.signature) {
+        case 'Z': CALLJNI(env, GetBooleanArrayRegion, (jbooleanArray) a.array, 0, len, (jboolean*) a.elements); break;
+        case 'B': CALLJNI(env, GetByteArrayRegion, (jbyteArray) a.array, 0, len, (jbyte*) a.elements); break;
+        case 'C': CALLJNI(env, GetCharArrayRegion, (jcharArray) a.array, 0, len, (jchar*) a.elements); break;
+        case 'S': CALLJNI(env, GetShortArrayRegion, (jshortArray) a.array, 0, len, (jshort*) a.elements); break;
+        case 'I': CALLJNI(env, GetIntArrayRegion, (jintArray) a.array, 0, len, (jint*) a.elements); break;
+        case 'J': CALLJNI(env, GetLongArrayRegion, (jlongArray) a.array, 0, len, (jlong*) a.elements); break;
+        case 'F': CALLJNI(env, GetFloatArrayRegion, (jfloatArray) a.array, 0, len, (jfloat*) a.elements); break;
+        case 'D': CALLJNI(env, GetDoubleArrayRegion, (jdoubleArray) a.array, 0, len, (jdouble*) a.elements); break;
+        default: break;
+    }
+}
+
+static void setArrayRegion(JNIEnv *env, const critical_array &a, jsize len) {
+    switch (a.signature) {
+        case 'Z': CALLJNI(env, SetBooleanArrayRegion, (jbooleanArray) a.array, 0, len, (jboolean*) a.elements); break;
+        case 'B': CALLJNI(env, SetByteArrayRegion, (jbyteArray) a.array, 0, len, (jbyte*) a.elements); break;
+        case 'C': CALLJNI(env, SetCharArrayRegion, (jcharArray) a.array, 0, len, (jchar*) a.elements); break;
+        case 'S': CALLJNI(env, SetShortArrayRegion, (jshortArray) a.array, 0, len, (jshort*) a.elements); break;
+        case 'I': CALLJNI(env, SetIntArrayRegion, (jintArray) a.array, 0, len, (jint*) a.elements); break;
+        case 'J': CALLJNI(env, SetLongArrayRegion, (jlongArray) a.array, 0, len, (jlong*) a.elements); break;
+        case 'F': CALLJNI(env, SetFloatArrayRegion, (jfloatArray) a.array, 0, len, (jfloat*) a.elements); break;
+        case 'D': CALLJNI(env, SetDoubleArrayRegion, (jdoubleArray) a.array, 0, len, (jdouble*) a.elements); break;
+        default: break;
+    }
+}
+
+static void releaseArrays(JNIEnv *env, critical_array *arrays, uint32_t n) {
+    for (uint32_t k = n; k-- != 0;) {
+        critical_array &a = arrays[k];
+        if (a.copied) {
+            setArrayRegion(env, a, CALLJNI(env, GetArrayLength, a.array));
+            free(a.elements);
+        } else {
+            CALLJNI(env, ReleasePrimitiveArrayCritical, a.array, a.elements, 0);
+        }
+    }
+}
+
+/*
+ * Same as invokePacked, except that a non null element of arrays is a
+ * primitive array passed as a pointer to its elements, the slot of it holds
+ * the signature of the component type. The arrays are pinned with
+ * GetPrimitiveArrayCritical during the call, or copied to malloc'd memory
+ * if the vm refuses to pin them. The function must not block or call back
+ * into java.
+ *
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeCritical
+ * Signature: (JJ[J[Ljava/lang/Object;Ljava/lang/Object;J)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_invokeCritical(
+        JNIEnv *env, jobject, jlong lcif, jlong jfun,
+        jlongArray values, jobjectArray arrays, jobject obj, jlong methodId) {
+    ffi_cif *pcif = j2c(lcif, ffi_cif);
+    void (*pfunction)(void) = FFI_FN(j2vp(jfun));
+    checkNullPointer(env, pcif, 0);
+    checkNullPointer(env, pfunction, 0);
+    checkNullPointer(env, values, 0);
+    checkNullPointer(env, arrays, 0);
+    if (unlikely(!checkReturnType(env, pcif))) return 0;
+    uint32_t cnt = pcif->nargs;
+    if (unlikely(uint32_t(CALLJNI(env, GetArrayLength, values)) < cnt
+            || uint32_t(CALLJNI(env, GetArrayLength, arrays)) < cnt)) {
+        throwByName(env, ArrayIndexOutOfBounds, nullptr);
+        return 0;
+    }
+    if (unlikely(cnt == 0)) {
+        return call(env, pcif, pfunction, nullptr, obj, methodId);
+    }
+    static_assert(alignof (jlong) % alignof (void *) == 0,
+            "align of long is not multiple of align of pointer, will got unaligned access");
+    auto unit = sizeof (jlong) + sizeof (void *);
+    jlong* slots = static_cast<jlong*> (alloca(cnt * unit));
+    void ** pavalues = (void**) (void*) &slots[cnt];
+    critical_array *critical = static_cast<critical_array*> (alloca(cnt * sizeof (critical_array)));
+    CALLJNI(env, GetLongArrayRegion, values, 0, cnt, slots);
+    if (unlikely(CALLJNI(env, EnsureLocalCapacity, jint(cnt)) != JNI_OK)) return 0;
+    ffi_type ** atypes = pcif->arg_types;
+    uint32_t n = 0;
+    for (uint32_t i = 0; i != cnt; ++i) {
+#if defined(__BYTE_ORDER__) && __BYTE_ORDER__ == __ORDER_BIG_ENDIAN__
+        pavalues[i] = reinterpret_cast<char*> (&slots[i]) + sizeof (jlong) - atypes[i]->size;
+#else
+        (void) atypes;
+        pavalues[i] = &slots[i];
+#endif
+        jarray array = static_cast<jarray> (CALLJNI(env, GetObjectArrayElement, arrays, i));
+        if (array != nullptr) {
+            if (unlikely(componentSize(slots[i]) == 0)) {
+                throwByName(env, IllegalArgument, nullptr);
+                return 0;
+            }
+            critical[n++] = {array, slots[i], &slots[i], nullptr, false};
+        }
+    }
+    uint32_t pinned = 0;
+    for (; pinned != n; ++pinned) {
+        critical_array &a = critical[pinned];
+        void *elements = CALLJNI(env, GetPrimitiveArrayCritical, a.array, nullptr);
+        if (unlikely(elements == nullptr)) break;
+        a.elements = elements;
+        *a.slot = p2j(elements);
+    }
+    if (unlikely(pinned != n)) {
+        // the vm refuses to pin the arrays, copy them instead
+        for (uint32_t k = pinned; k-- != 0;) {
+            CALLJNI(env, ReleasePrimitiveArrayCritical, critical[k].array, critical[k].elements, JNI_ABORT);
+        }
+        CALLJNI(env, ExceptionClear);
+        for (uint32_t k = 0; k != n; ++k) {
+            critical_array &a = critical[k];
+            jsize len = CALLJNI(env, GetArrayLength, a.array);
+            void *elements = malloc(len != 0 ? len * componentSize(a.signature) : 1);
+            if (unlikely(elements == nullptr)) {
+                for (uint32_t j = k; j-- != 0;) free(critical[j].elements);
+                throwByName(env, OutOfMemory, nullptr);
+                return 0;
+            }
+            a.elements = elements;
+            a.copied = true;
+            getArrayRegion(env, a, len);
+            *a.slot = p2j(elements);
+        }
+    }
+    return call(env, pcif, pfunction, pavalues, obj, methodId, [env, critical, n]() {
+        releaseArrays(env, critical, n);
+    });
+}
+
+template<class>
+struct as_intptr {
+    typedef intptr_t type;
+};
+
+/*
+ * Call a function whose parameters are all integral or pointer types no
+ * larger than a pointer, without libffi. Every argument is passed as an
+ * intptr_t, it's up to the caller to extend the arguments and to narrow
+ * the result to the actual types.
+ */
+template<class... Args>
+static jlong invokeDirect(JNIEnv *env, jlong jfun, jobject obj, jlong methodId, Args... args) {
+    typedef intptr_t (*function_t)(typename as_intptr<Args>::type...);
+    function_t pfunction = reinterpret_cast<function_t> (j2vp(jfun));
+    checkNullPointer(env, pfunction, 0);
+    intptr_t result = pfunction(static_cast<intptr_t> (args)...);
+    saveLastError(env, obj, methodId, GetLastError());
+    return result;
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invoke_J
+ * Signature: (JLjava/lang/Object;J)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_invoke_1J(
+        JNIEnv *env, jobject, jlong jfun, jobject obj, jlong methodId) {
+    return invokeDirect(env, jfun, obj, methodId);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeJ_J
+ * Signature: (JJLjava/lang/Object;J)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_invokeJ_1J(
+        JNIEnv *env, jobject, jlong jfun, jlong a0,
+        jobject obj, jlong methodId) {
+    return invokeDirect(env, jfun, obj, methodId, a0);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeJJ_J
+ * Signature: (JJJLjava/lang/Object;J)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_invokeJJ_1J(
+        JNIEnv *env, jobject, jlong jfun, jlong a0, jlong a1,
+        jobject obj, jlong methodId) {
+    return invokeDirect(env, jfun, obj, methodId, a0, a1);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeJJJ_J
+ * Signature: (JJJJLjava/lang/Object;J)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_invokeJJJ_1J(
+        JNIEnv *env, jobject, jlong jfun, jlong a0, jlong a1, jlong a2,
+        jobject obj, jlong methodId) {
+    return invokeDirect(env, jfun, obj, methodId, a0, a1, a2);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeJJJJ_J
+ * Signature: (JJJJJLjava/lang/Object;J)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_invokeJJJJ_1J(
+        JNIEnv *env, jobject, jlong jfun, jlong a0, jlong a1, jlong a2,
+        jlong a3, jobject obj, jlong methodId) {
+    return invokeDirect(env, jfun, obj, methodId, a0, a1, a2, a3);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeJJJJJ_J
+ * Signature: (JJJJJJLjava/lang/Object;J)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_invokeJJJJJ_1J(
+        JNIEnv *env, jobject, jlong jfun, jlong a0, jlong a1, jlong a2,
+        jlong a3, jlong a4, jobject obj, jlong methodId) {
+    return invokeDirect(env, jfun, obj, methodId, a0, a1, a2, a3, a4);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    invokeJJJJJJ_J
+ * Signature: (JJJJJJJLjava/lang/Object;J)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_invokeJJJJJJ_1J(
+        JNIEnv *env, jobject, jlong jfun, jlong a0, jlong a1, jlong a2,
+        jlong a3, jlong a4, jlong a5, jobject obj, jlong methodId) {
+    return invokeDirect(env, jfun, obj, methodId, a0, a1, a2, a3, a4, a5);
 }
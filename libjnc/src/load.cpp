@@ -3,3 +3,13 @@
 EXTERNC JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM *, void *) {
     return JNI_VERSION_1_6;
 }
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getApiVersion
+ * Signature: ()I
+ */
+EXTERNC JNIEXPORT jint JNICALL
+Java_jnc_provider_NativeMethods_getApiVersion(JNIEnv *, jobject) {
+    return jnc_provider_NativeAccessor_API_VERSION;
+}
@@ -0,0 +1,286 @@
+#include "jnc.h"
+
+#define JNC_MAP(name) jnc_provider_NativeAccessor_MAP_##name
+#define JNC_ADVICE(name) jnc_provider_NativeAccessor_ADVICE_##name
+
+#ifdef _WIN32
+#include <windows.h>
+#include <stdio.h>
+
+static void throwIOException(JNIEnv *env) {
+    char msg[64];
+    snprintf(msg, sizeof msg, "error code %lu", (unsigned long) GetLastError());
+    throwByName(env, IOException, msg);
+}
+
+static uint64_t granularity() {
+    SYSTEM_INFO info;
+    GetSystemInfo(&info);
+    return info.dwAllocationGranularity;
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getPageSize
+ * Signature: ()I
+ */
+EXTERNC JNIEXPORT jint JNICALL
+Java_jnc_provider_NativeMethods_getPageSize(JNIEnv *, jobject) {
+    SYSTEM_INFO info;
+    GetSystemInfo(&info);
+    return jint(info.dwPageSize);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    mapFile
+ * Signature: (Ljava/lang/String;JJI)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_mapFile(
+        JNIEnv *env, jobject, jstring path, jlong offset, jlong length, jint mode) {
+    checkNullPointer(env, path, 0);
+    if (unlikely(offset < 0 || length <= 0 || uint64_t(length) > uint64_t(SIZE_MAX)
+            || offset > INT64_MAX - length)) {
+        throwByName(env, IllegalArgument, nullptr);
+        return 0;
+    }
+    bool write = mode == JNC_MAP(READ_WRITE);
+    jsize len = env->GetStringLength(path);
+    if (unlikely(env->ExceptionCheck())) return 0;
+    auto name = reinterpret_cast<wchar_t *>(malloc((len + 1U) * sizeof(wchar_t)));
+    checkOutOfMemory(env, name, 0);
+    env->GetStringRegion(path, 0, len, reinterpret_cast<jchar *>(name));
+    name[len] = 0;
+    HANDLE file = CreateFileW(name, write ? GENERIC_READ | GENERIC_WRITE : GENERIC_READ,
+            FILE_SHARE_READ | FILE_SHARE_WRITE, nullptr, OPEN_EXISTING, FILE_ATTRIBUTE_NORMAL, nullptr);
+    free(name);
+    if (unlikely(file == INVALID_HANDLE_VALUE)) {
+        throwIOException(env);
+        return 0;
+    }
+    uint64_t end = uint64_t(offset) + uint64_t(length);
+    LARGE_INTEGER size;
+    if (unlikely(!GetFileSizeEx(file, &size))) {
+        throwIOException(env);
+        CloseHandle(file);
+        return 0;
+    }
+    if (!write && uint64_t(size.QuadPart) < end) {
+        CloseHandle(file);
+        throwByName(env, IOException, "region exceeds the size of the file");
+        return 0;
+    }
+    // the file is extended by the mapping if required
+    HANDLE mapping = CreateFileMappingW(file, nullptr,
+            write ? PAGE_READWRITE : mode == JNC_MAP(PRIVATE) ? PAGE_WRITECOPY : PAGE_READONLY,
+            DWORD(end >> 32), DWORD(end), nullptr);
+    CloseHandle(file);
+    if (unlikely(mapping == nullptr)) {
+        throwIOException(env);
+        return 0;
+    }
+    uint64_t delta = uint64_t(offset) % granularity();
+    uint64_t start = uint64_t(offset) - delta;
+    void *base = MapViewOfFile(mapping,
+            write ? FILE_MAP_WRITE : mode == JNC_MAP(PRIVATE) ? FILE_MAP_COPY : FILE_MAP_READ,
+            DWORD(start >> 32), DWORD(start), SIZE_T(length + delta));
+    // the view keeps a reference of the mapping
+    CloseHandle(mapping);
+    if (unlikely(base == nullptr)) {
+        throwIOException(env);
+        return 0;
+    }
+    return p2j(base) + jlong(delta);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    unmapFile
+ * Signature: (JJ)V
+ */
+EXTERNC JNIEXPORT void JNICALL
+Java_jnc_provider_NativeMethods_unmapFile(JNIEnv *env, jobject, jlong address, jlong) {
+    uint64_t addr = uint64_t(address);
+    void *base = j2vp(addr - addr % granularity());
+    checkNullPointer(env, base, /*void*/);
+    if (unlikely(!UnmapViewOfFile(base))) {
+        throwByName(env, UnknownError, nullptr);
+    }
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    syncFile
+ * Signature: (JJ)V
+ */
+EXTERNC JNIEXPORT void JNICALL
+Java_jnc_provider_NativeMethods_syncFile(JNIEnv *env, jobject, jlong address, jlong length) {
+    void *paddr = j2vp(address);
+    checkNullPointer(env, paddr, /*void*/);
+    if (unlikely(!FlushViewOfFile(paddr, SIZE_T(length)))) {
+        throwIOException(env);
+    }
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    adviseFile
+ * Signature: (JJI)V
+ */
+EXTERNC JNIEXPORT void JNICALL
+Java_jnc_provider_NativeMethods_adviseFile(JNIEnv *, jobject, jlong, jlong, jint) {
+    // advice is only a hint, not supported on windows
+}
+
+#else /* _WIN32 */
+
+#include <errno.h>
+#include <fcntl.h>
+#include <string.h>
+#include <sys/mman.h>
+#include <sys/stat.h>
+#include <unistd.h>
+
+#ifndef O_CLOEXEC
+#define O_CLOEXEC 0
+#endif
+
+static void throwIOException(JNIEnv *env, int error) {
+    throwByName(env, IOException, strerror(error));
+}
+
+static uint64_t pageSize() {
+    static const uint64_t size = uint64_t(sysconf(_SC_PAGESIZE));
+    return size;
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    getPageSize
+ * Signature: ()I
+ */
+EXTERNC JNIEXPORT jint JNICALL
+Java_jnc_provider_NativeMethods_getPageSize(JNIEnv *, jobject) {
+    return jint(pageSize());
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    mapFile
+ * Signature: (Ljava/lang/String;JJI)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_mapFile(
+        JNIEnv *env, jobject, jstring path, jlong offset, jlong length, jint mode) {
+    checkNullPointer(env, path, 0);
+    if (unlikely(offset < 0 || length <= 0 || uint64_t(length) > uint64_t(SIZE_MAX)
+            || offset > INT64_MAX - length)) {
+        throwByName(env, IllegalArgument, nullptr);
+        return 0;
+    }
+    bool write = mode == JNC_MAP(READ_WRITE);
+    const char *name = env->GetStringUTFChars(path, nullptr);
+    checkOutOfMemory(env, name, 0);
+    int fd = open(name, (write ? O_RDWR : O_RDONLY) | O_CLOEXEC);
+    int error = errno;
+    env->ReleaseStringUTFChars(path, name);
+    if (unlikely(fd < 0)) {
+        throwIOException(env, error);
+        return 0;
+    }
+    // off_t is 32 bit if _FILE_OFFSET_BITS is not 64 on a 32 bit platform
+    const uint64_t maxOffset = (uint64_t(1) << (sizeof(off_t) * 8 - 1)) - 1;
+    if (unlikely(uint64_t(offset + length) > maxOffset)) {
+        close(fd);
+        throwByName(env, IOException, "offset too large");
+        return 0;
+    }
+    off_t end = off_t(offset + length);
+    struct stat st;
+    if (unlikely(fstat(fd, &st) != 0)) {
+        throwIOException(env, errno);
+        close(fd);
+        return 0;
+    }
+    if (st.st_size < end) {
+        // access beyond the end of the file raises SIGBUS
+        if (!write) {
+            close(fd);
+            throwByName(env, IOException, "region exceeds the size of the file");
+            return 0;
+        }
+        if (unlikely(ftruncate(fd, end) != 0)) {
+            throwIOException(env, errno);
+            close(fd);
+            return 0;
+        }
+    }
+    uint64_t delta = uint64_t(offset) % pageSize();
+    void *base = mmap(nullptr, size_t(uint64_t(length) + delta),
+            write ? PROT_READ | PROT_WRITE : mode == JNC_MAP(PRIVATE) ? PROT_READ | PROT_WRITE : PROT_READ,
+            mode == JNC_MAP(PRIVATE) ? MAP_PRIVATE : MAP_SHARED,
+            fd, off_t(uint64_t(offset) - delta));
+    error = errno;
+    // the mapping keeps a reference of the file
+    close(fd);
+    if (unlikely(base == MAP_FAILED)) {
+        throwIOException(env, error);
+        return 0;
+    }
+    return p2j(base) + jlong(delta);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    unmapFile
+ * Signature: (JJ)V
+ */
+EXTERNC JNIEXPORT void JNICALL
+Java_jnc_provider_NativeMethods_unmapFile(JNIEnv *env, jobject, jlong address, jlong length) {
+    uint64_t delta = uint64_t(address) % pageSize();
+    void *base = j2vp(uint64_t(address) - delta);
+    checkNullPointer(env, base, /*void*/);
+    if (unlikely(munmap(base, size_t(uint64_t(length) + delta)) != 0)) {
+        throwByName(env, UnknownError, strerror(errno));
+    }
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    syncFile
+ * Signature: (JJ)V
+ */
+EXTERNC JNIEXPORT void JNICALL
+Java_jnc_provider_NativeMethods_syncFile(JNIEnv *env, jobject, jlong address, jlong length) {
+    uint64_t delta = uint64_t(address) % pageSize();
+    void *base = j2vp(uint64_t(address) - delta);
+    checkNullPointer(env, base, /*void*/);
+    if (unlikely(msync(base, size_t(uint64_t(length) + delta), MS_SYNC) != 0)) {
+        throwIOException(env, errno);
+    }
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    adviseFile
+ * Signature: (JJI)V
+ */
+EXTERNC JNIEXPORT void JNICALL
+Java_jnc_provider_NativeMethods_adviseFile(JNIEnv *env, jobject, jlong address, jlong length, jint advice) {
+    uint64_t delta = uint64_t(address) % pageSize();
+    void *base = j2vp(uint64_t(address) - delta);
+    checkNullPointer(env, base, /*void*/);
+    int value;
+    switch (advice) {
+        case JNC_ADVICE(SEQUENTIAL): value = POSIX_MADV_SEQUENTIAL; break;
+        case JNC_ADVICE(RANDOM): value = POSIX_MADV_RANDOM; break;
+        case JNC_ADVICE(WILL_NEED): value = POSIX_MADV_WILLNEED; break;
+        case JNC_ADVICE(DONT_NEED): value = POSIX_MADV_DONTNEED; break;
+        default: value = POSIX_MADV_NORMAL; break;
+    }
+    // advice is only a hint, failure is ignored
+    posix_madvise(base, size_t(uint64_t(length) + delta), value);
+}
+
+#endif /* _WIN32 */
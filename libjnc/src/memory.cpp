@@ -58,3 +58,221 @@ Java_jnc_provider_NativeMethods_freeMemory(JNIEnv *, jobject, jlong laddr) {
         free(paddr);
     }
 }
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    allocateUninitializedMemory
+ * Signature: (J)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_allocateUninitializedMemory(JNIEnv *env, jobject, jlong size) {
+    if (unlikely(size < 0)) {
+        throwByName(env, IllegalArgument, nullptr);
+        return 0;
+    }
+    if (unlikely(uint64_t(size) > uint64_t(SIZE_MAX))) {
+        throwByName(env, OutOfMemory, nullptr);
+        return 0;
+    }
+    if (unlikely(size == 0)) size = 1;
+    void *ret = malloc((size_t) size);
+    checkOutOfMemory(env, ret, 0);
+    return p2j(ret);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    reallocateMemory
+ * Signature: (JJ)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_reallocateMemory(JNIEnv *env, jobject, jlong laddr, jlong size) {
+    void *paddr = j2vp(laddr);
+    checkNullPointer(env, paddr, 0);
+    if (unlikely(size < 0)) {
+        throwByName(env, IllegalArgument, nullptr);
+        return 0;
+    }
+    if (unlikely(uint64_t(size) > uint64_t(SIZE_MAX))) {
+        throwByName(env, OutOfMemory, nullptr);
+        return 0;
+    }
+    if (unlikely(size == 0)) size = 1;
+    // the memory is left untouched if failed
+    void *ret = realloc(paddr, (size_t) size);
+    checkOutOfMemory(env, ret, 0);
+    return p2j(ret);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    allocateAlignedMemory
+ * Signature: (JJ)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_allocateAlignedMemory(JNIEnv *env, jobject, jlong size, jlong alignment) {
+    if (unlikely(size < 0 || alignment <= 0 || (alignment & (alignment - 1)) != 0)) {
+        throwByName(env, IllegalArgument, nullptr);
+        return 0;
+    }
+    if (unlikely(uint64_t(size) > uint64_t(SIZE_MAX) || uint64_t(alignment) > uint64_t(SIZE_MAX))) {
+        throwByName(env, OutOfMemory, nullptr);
+        return 0;
+    }
+    if (unlikely(size == 0)) size = 1;
+    // posix_memalign requires a multiple of sizeof(void *)
+    if (alignment < jlong(sizeof(void *))) alignment = sizeof(void *);
+#ifdef _WIN32
+    void *ret = _aligned_malloc((size_t) size, (size_t) alignment);
+#else
+    void *ret;
+    if (unlikely(posix_memalign(&ret, (size_t) alignment, (size_t) size) != 0)) ret = nullptr;
+#endif
+    checkOutOfMemory(env, ret, 0);
+    return p2j(memset(ret, 0, (size_t) size));
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    freeAlignedMemory
+ * Signature: (J)V
+ */
+EXTERNC JNIEXPORT void JNICALL
+Java_jnc_provider_NativeMethods_freeAlignedMemory(JNIEnv *, jobject, jlong laddr) {
+    void *paddr = j2vp(laddr);
+    if (likely(nullptr != paddr)) {
+#ifdef _WIN32
+        _aligned_free(paddr);
+#else
+        free(paddr);
+#endif
+    }
+}
+
+static bool checkLength(JNIEnv *env, jlong n) {
+    if (unlikely(n < 0 || uint64_t(n) > uint64_t(SIZE_MAX))) {
+        throwByName(env, IllegalArgument, nullptr);
+        return false;
+    }
+    return true;
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    moveMemory
+ * Signature: (JJJ)V
+ */
+EXTERNC JNIEXPORT void JNICALL
+Java_jnc_provider_NativeMethods_moveMemory(
+        JNIEnv *env, jobject, jlong ldst, jlong lsrc, jlong n) {
+    if (unlikely(!checkLength(env, n)) || n == 0) return;
+    void *pdst = j2vp(ldst);
+    void *psrc = j2vp(lsrc);
+    checkNullPointer(env, pdst, /*void*/);
+    checkNullPointer(env, psrc, /*void*/);
+    memmove(pdst, psrc, (size_t) n);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    setMemory
+ * Signature: (JJB)V
+ */
+EXTERNC JNIEXPORT void JNICALL
+Java_jnc_provider_NativeMethods_setMemory(
+        JNIEnv *env, jobject, jlong laddr, jlong n, jbyte value) {
+    if (unlikely(!checkLength(env, n)) || n == 0) return;
+    void *paddr = j2vp(laddr);
+    checkNullPointer(env, paddr, /*void*/);
+    memset(paddr, value, (size_t) n);
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    mismatchMemory
+ * Signature: (JJJ)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_mismatchMemory(
+        JNIEnv *env, jobject, jlong la, jlong lb, jlong n) {
+    if (unlikely(!checkLength(env, n)) || n == 0) return -1;
+    auto pa = j2c(la, const unsigned char);
+    auto pb = j2c(lb, const unsigned char);
+    checkNullPointer(env, pa, 0);
+    checkNullPointer(env, pb, 0);
+    size_t len = (size_t) n, i = 0;
+    for (; i + sizeof(uint64_t) <= len; i += sizeof(uint64_t)) {
+        uint64_t a, b;
+        memcpy(&a, pa + i, sizeof a);
+        memcpy(&b, pb + i, sizeof b);
+        if (a != b) break;
+    }
+    for (; i < len; ++i) {
+        if (pa[i] != pb[i]) return (jlong) i;
+    }
+    return -1;
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    compareMemory
+ * Signature: (JJJ)I
+ */
+EXTERNC JNIEXPORT jint JNICALL
+Java_jnc_provider_NativeMethods_compareMemory(
+        JNIEnv *env, jobject, jlong la, jlong lb, jlong n) {
+    if (unlikely(!checkLength(env, n)) || n == 0) return 0;
+    void *pa = j2vp(la);
+    void *pb = j2vp(lb);
+    checkNullPointer(env, pa, 0);
+    checkNullPointer(env, pb, 0);
+    int result = memcmp(pa, pb, (size_t) n);
+    return result < 0 ? -1 : result > 0;
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    indexOfByte
+ * Signature: (JJB)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_indexOfByte(
+        JNIEnv *env, jobject, jlong laddr, jlong n, jbyte value) {
+    if (unlikely(!checkLength(env, n)) || n == 0) return -1;
+    auto paddr = j2c(laddr, const unsigned char);
+    checkNullPointer(env, paddr, 0);
+    auto found = (const unsigned char *) memchr(paddr, (unsigned char) value, (size_t) n);
+    return found != nullptr ? (jlong) (found - paddr) : -1;
+}
+
+/*
+ * Class:     jnc_provider_NativeMethods
+ * Method:    indexOfBytes
+ * Signature: (JJ[B)J
+ */
+EXTERNC JNIEXPORT jlong JNICALL
+Java_jnc_provider_NativeMethods_indexOfBytes(
+        JNIEnv *env, jobject, jlong laddr, jlong n, jbyteArray pattern) {
+    checkNullPointer(env, pattern, 0);
+    if (unlikely(!checkLength(env, n))) return -1;
+    size_t plen = (size_t) env->GetArrayLength(pattern);
+    if (plen == 0) return 0;
+    if (uint64_t(n) < plen) return -1;
+    auto paddr = j2c(laddr, const unsigned char);
+    checkNullPointer(env, paddr, 0);
+    auto p = (const unsigned char *) env->GetPrimitiveArrayCritical(pattern, nullptr);
+    checkOutOfMemory(env, p, 0);
+    jlong result = -1;
+    const unsigned char *cur = paddr, *last = paddr + ((size_t) n - plen);
+    while (cur <= last) {
+        cur = (const unsigned char *) memchr(cur, p[0], (size_t) (last - cur) + 1);
+        if (cur == nullptr) break;
+        if (memcmp(cur + 1, p + 1, plen - 1) == 0) {
+            result = (jlong) (cur - paddr);
+            break;
+        }
+        ++cur;
+    }
+    env->ReleasePrimitiveArrayCritical(pattern, (void *) p, JNI_ABORT);
+    return result;
+}